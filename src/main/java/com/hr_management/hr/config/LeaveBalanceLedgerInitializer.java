@@ -0,0 +1,40 @@
+package com.hr_management.hr.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import com.hr_management.hr.repository.LeaveBalanceLedgerRepository;
+import com.hr_management.hr.repository.LeaveRepository;
+import com.hr_management.hr.service.LeaveBalanceLedgerService;
+
+@Component
+public class LeaveBalanceLedgerInitializer implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaveBalanceLedgerInitializer.class);
+    private final LeaveBalanceLedgerRepository ledgerRepository;
+    private final LeaveRepository leaveRepository;
+    private final LeaveBalanceLedgerService leaveBalanceLedgerService;
+
+    public LeaveBalanceLedgerInitializer(LeaveBalanceLedgerRepository ledgerRepository,
+                                         LeaveRepository leaveRepository,
+                                         LeaveBalanceLedgerService leaveBalanceLedgerService) {
+        this.ledgerRepository = ledgerRepository;
+        this.leaveRepository = leaveRepository;
+        this.leaveBalanceLedgerService = leaveBalanceLedgerService;
+    }
+
+    @Override
+    public void run(String... args) {
+        // Backfill the ledger once for databases that had leaves before it existed
+        if (ledgerRepository.count() > 0 || leaveRepository.count() == 0) {
+            log.info("Leave balance ledger already initialized");
+            return;
+        }
+
+        log.info("Backfilling leave balance ledger from existing leaves");
+        int rows = leaveBalanceLedgerService.rebuildLedger();
+        log.info("Leave balance ledger backfilled with {} rows", rows);
+    }
+}
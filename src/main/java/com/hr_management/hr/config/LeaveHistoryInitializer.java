@@ -0,0 +1,28 @@
+package com.hr_management.hr.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import com.hr_management.hr.repository.LeaveRepository;
+
+@Component
+public class LeaveHistoryInitializer implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaveHistoryInitializer.class);
+    private final LeaveRepository leaveRepository;
+
+    public LeaveHistoryInitializer(LeaveRepository leaveRepository) {
+        this.leaveRepository = leaveRepository;
+    }
+
+    @Override
+    public void run(String... args) {
+        // Leaves created before the status_priority column existed have no sort rank yet
+        int rows = leaveRepository.backfillStatusPriority();
+        if (rows > 0) {
+            log.info("Backfilled leave history sort rank for {} leaves", rows);
+        }
+    }
+}
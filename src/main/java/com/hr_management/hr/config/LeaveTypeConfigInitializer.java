@@ -8,15 +8,19 @@ import org.springframework.stereotype.Component;
 import com.hr_management.hr.entity.LeaveTypeConfig;
 import com.hr_management.hr.enums.LeaveType;
 import com.hr_management.hr.repository.LeaveTypeConfigRepository;
+import com.hr_management.hr.service.LeaveSettingsCache;
 
 @Component
 public class LeaveTypeConfigInitializer implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(LeaveTypeConfigInitializer.class);
     private final LeaveTypeConfigRepository leaveTypeConfigRepository;
+    private final LeaveSettingsCache leaveSettingsCache;
 
-    public LeaveTypeConfigInitializer(LeaveTypeConfigRepository leaveTypeConfigRepository) {
+    public LeaveTypeConfigInitializer(LeaveTypeConfigRepository leaveTypeConfigRepository,
+                                      LeaveSettingsCache leaveSettingsCache) {
         this.leaveTypeConfigRepository = leaveTypeConfigRepository;
+        this.leaveSettingsCache = leaveSettingsCache;
     }
 
     @Override
@@ -87,6 +91,7 @@ public class LeaveTypeConfigInitializer implements CommandLineRunner {
             log.info("Created configuration for leave type: {}", leaveType);
         }
         
+        leaveSettingsCache.refresh();
         log.info("Leave type configurations initialized successfully");
     }
 } 
\ No newline at end of file
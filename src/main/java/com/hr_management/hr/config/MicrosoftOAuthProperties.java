@@ -10,10 +10,14 @@ public class MicrosoftOAuthProperties {
     private String clientSecret;
     private String tenantId = "202c75b4-8389-4dce-b7a9-9d2c4f7b1bad"; // Default tenant ID from application.properties
     private String redirectUri = "http://localhost:3000/microsoft-callback";
-    private String scope = "openid profile email User.Read";
+    // offline_access makes the token endpoint issue refresh tokens
+    private String scope = "openid profile email User.Read offline_access";
     private String authorizationEndpoint = "https://login.microsoftonline.com/202c75b4-8389-4dce-b7a9-9d2c4f7b1bad/oauth2/v2.0/authorize";
     private String tokenEndpoint = "https://login.microsoftonline.com/202c75b4-8389-4dce-b7a9-9d2c4f7b1bad/oauth2/v2.0/token";
     private String userInfoEndpoint = "https://graph.microsoft.com/v1.0/me";
+    // Base URLs for the identity platform and Graph; point them at a local stub for testing
+    private String loginBaseUrl = "https://login.microsoftonline.com";
+    private String graphBaseUrl = "https://graph.microsoft.com/v1.0";
 
     // Getters and Setters
     public String getClientId() {
@@ -79,4 +83,20 @@ public class MicrosoftOAuthProperties {
     public void setUserInfoEndpoint(String userInfoEndpoint) {
         this.userInfoEndpoint = userInfoEndpoint;
     }
+
+    public String getLoginBaseUrl() {
+        return loginBaseUrl;
+    }
+
+    public void setLoginBaseUrl(String loginBaseUrl) {
+        this.loginBaseUrl = loginBaseUrl;
+    }
+
+    public String getGraphBaseUrl() {
+        return graphBaseUrl;
+    }
+
+    public void setGraphBaseUrl(String graphBaseUrl) {
+        this.graphBaseUrl = graphBaseUrl;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,315 @@
+package com.hr_management.hr.config;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.lang.NonNull;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Caps concurrent outbound requests per host and records latency per endpoint. Endpoints are
+ * keyed by method, host and path with id-like segments replaced by {id}, so per-user Graph
+ * URLs share one entry. A request that can't get a slot in time fails with a
+ * {@link ResourceAccessException} instead of queueing behind a slow upstream.
+ * <p>
+ * A slot is held until the response is closed, not just until its headers arrive, since the body
+ * is read from the same connection. The client's read timeout only covers the headers, so body
+ * reads are bounded here: the response is closed once the body timeout passes, and reading more
+ * than the size limit fails.
+ */
+@ManagedResource(objectName = "com.hr_management.hr:type=OutboundHttp", description = "Outbound HTTP client")
+public class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundHttpInterceptor.class);
+
+    private final int maxPerRoute;
+    private final long acquireTimeoutMs;
+    private final long bodyTimeoutMs;
+    private final long maxBodyBytes;
+    private final ScheduledThreadPoolExecutor deadlines;
+    private final Map<String, Semaphore> routes = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public OutboundHttpInterceptor(int maxPerRoute, long acquireTimeoutMs, long bodyTimeoutMs, long maxBodyBytes) {
+        this.maxPerRoute = maxPerRoute;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.bodyTimeoutMs = bodyTimeoutMs;
+        this.maxBodyBytes = maxBodyBytes;
+        this.deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "outbound-http-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    // Called by the container when the bean is destroyed
+    public void shutdown() {
+        deadlines.shutdownNow();
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        URI uri = request.getURI();
+        String route = uri.getScheme() + "://" + uri.getAuthority();
+        Semaphore slots = routes.computeIfAbsent(route, key -> new Semaphore(maxPerRoute));
+        try {
+            if (!slots.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new ResourceAccessException("Too many concurrent requests to " + route);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for a connection to " + route);
+        }
+
+        EndpointStats stats = endpoints.computeIfAbsent(endpointKey(request.getMethod().name(), uri),
+                key -> new EndpointStats());
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        boolean failed;
+        try {
+            response = execution.execute(request, body);
+            failed = response.getStatusCode().isError();
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            stats.record(System.nanoTime() - start, true);
+            throw e;
+        }
+        return new GuardedResponse(response, slots, stats, start, failed, request.getMethod() + " " + uri.getPath());
+    }
+
+    static String endpointKey(String method, URI uri) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(uri.getHost());
+        String path = uri.getRawPath();
+        if (path != null) {
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    key.append('/').append(isIdLike(segment) ? "{id}" : segment);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    // User ids, tenant ids and email-style principal names
+    private static boolean isIdLike(String segment) {
+        if (segment.indexOf('@') >= 0 || segment.indexOf("%40") >= 0) {
+            return true;
+        }
+        int digits = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            if (Character.isDigit(segment.charAt(i))) {
+                digits++;
+            }
+        }
+        return digits > 0 && segment.length() >= 8;
+    }
+
+    @ManagedAttribute(description = "Per-endpoint request count, errors and latency")
+    public String[] getEndpointStats() {
+        Map<String, EndpointStats> sorted = new TreeMap<>(endpoints);
+        return sorted.entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    @ManagedAttribute(description = "Requests currently in flight, per host")
+    public String[] getInFlight() {
+        Map<String, Semaphore> sorted = new TreeMap<>(routes);
+        return sorted.entrySet().stream()
+                .map(entry -> entry.getKey() + " " + (maxPerRoute - entry.getValue().availablePermits()))
+                .toArray(String[]::new);
+    }
+
+    @ManagedAttribute(description = "Requests rejected because their host was at its concurrency limit")
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @ManagedAttribute(description = "Responses closed because their body wasn't read within the body timeout")
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Holds the route slot until the caller closes the response or the body deadline passes,
+     * whichever comes first, and records the request's latency including the body read.
+     */
+    private final class GuardedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Semaphore slots;
+        private final EndpointStats stats;
+        private final long start;
+        private final boolean failed;
+        private final String description;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final ScheduledFuture<?> deadline;
+        private InputStream body;
+
+        GuardedResponse(ClientHttpResponse delegate, Semaphore slots, EndpointStats stats, long start,
+                        boolean failed, String description) {
+            this.delegate = delegate;
+            this.slots = slots;
+            this.stats = stats;
+            this.start = start;
+            this.failed = failed;
+            this.description = description;
+            this.deadline = deadlines.schedule(this::expire, bodyTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        @NonNull
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        @NonNull
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        @NonNull
+        public InputStream getBody() throws IOException {
+            if (finished.get()) {
+                throw new IOException("Response from " + description + " already closed");
+            }
+            if (body == null) {
+                body = new BoundedBody(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            deadline.cancel(false);
+            finish(failed);
+        }
+
+        // Closing the delegate cancels the exchange, which fails a read blocked on the connection
+        private void expire() {
+            if (finish(true)) {
+                timedOut.increment();
+                logger.warn("{} body not read within {} ms, closed the response", description, bodyTimeoutMs);
+            }
+        }
+
+        // Returns false if the response was already finished, by the caller or the deadline
+        private boolean finish(boolean failure) {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                delegate.close();
+            } finally {
+                slots.release();
+                long nanos = System.nanoTime() - start;
+                stats.record(nanos, failure);
+                logger.debug("{} took {} ms", description, TimeUnit.NANOSECONDS.toMillis(nanos));
+            }
+            return true;
+        }
+
+        private final class BoundedBody extends FilterInputStream {
+            private long remaining = maxBodyBytes;
+
+            BoundedBody(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                int n = read(one, 0, 1);
+                return n < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(@NonNull byte[] b, int off, int len) throws IOException {
+                checkOpen();
+                // Ask for one byte past the limit so an oversized body is detected, not silently truncated
+                int n = super.read(b, off, (int) Math.min(len, remaining + 1));
+                checkOpen();
+                if (n > 0) {
+                    remaining -= n;
+                    if (remaining < 0) {
+                        throw new IOException("Response from " + description + " exceeds " + maxBodyBytes + " bytes");
+                    }
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                checkOpen();
+                long skipped = super.skip(Math.min(n, Math.max(remaining, 0)));
+                remaining -= skipped;
+                return skipped;
+            }
+
+            private void checkOpen() throws IOException {
+                if (finished.get()) {
+                    throw new IOException("Response from " + description + " timed out after " + bodyTimeoutMs + " ms");
+                }
+            }
+        }
+    }
+
+    private static final class EndpointStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        @Override
+        public String toString() {
+            long n = count.sum();
+            double meanMs = n == 0 ? 0.0 : totalNanos.sum() / (n * 1_000_000.0);
+            return String.format("count=%d errors=%d mean=%.1fms max=%.1fms",
+                    n, errors.sum(), meanMs, maxNanos.get() / 1_000_000.0);
+        }
+    }
+}
@@ -1,15 +1,35 @@
 package com.hr_management.hr.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.hr_management.hr.security.BoundedPasswordEncoder;
 
 @Configuration
 public class PasswordEncoderConfig {
 
+    @Value("${app.security.password-hashing.threads:4}")
+    private int threads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    // Target time for one hash; 0 skips calibration and uses the minimum strength
+    @Value("${app.security.password-hashing.target-ms:250}")
+    private long targetMillis;
+
+    @Value("${app.security.password-hashing.min-strength:10}")
+    private int minStrength;
+
+    @Value("${app.security.password-hashing.max-strength:14}")
+    private int maxStrength;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = targetMillis > 0
+                ? BoundedPasswordEncoder.calibrateStrength(targetMillis, minStrength, maxStrength)
+                : minStrength;
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity);
     }
-} 
\ No newline at end of file
+}
@@ -1,14 +1,62 @@
 package com.hr_management.hr.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+/**
+ * HTTP client for Microsoft login and Graph calls. Uses the JDK client, which keeps
+ * connections alive and pooled per host and negotiates HTTP/2 with HTTP/1.1 fallback,
+ * with bounded connect and read times so a slow upstream can't hold a request thread indefinitely.
+ */
 @Configuration
 public class RestTemplateConfig {
-    
+
+    @Value("${app.http-client.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.http-client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${app.http-client.max-per-route:20}")
+    private int maxPerRoute;
+
+    // How long a request may wait for a free slot on its host before failing
+    @Value("${app.http-client.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    // The read timeout only covers the response headers; this bounds reading the body as well
+    @Value("${app.http-client.body-timeout-ms:30000}")
+    private long bodyTimeoutMs;
+
+    @Value("${app.http-client.max-response-bytes:10485760}")
+    private long maxResponseBytes;
+
+    @Bean
+    public HttpClient outboundHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public OutboundHttpInterceptor outboundHttpInterceptor() {
+        return new OutboundHttpInterceptor(maxPerRoute, acquireTimeoutMs, bodyTimeoutMs, maxResponseBytes);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient outboundHttpClient, OutboundHttpInterceptor outboundHttpInterceptor) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(outboundHttpInterceptor);
+        return restTemplate;
     }
-} 
\ No newline at end of file
+}
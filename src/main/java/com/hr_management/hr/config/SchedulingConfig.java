@@ -0,0 +1,14 @@
+package com.hr_management.hr.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs. They run on Spring Boot's scheduler, sized by
+ * {@code spring.task.scheduling.pool.size} so a slow SMTP batch or Graph refresh
+ * does not delay the other jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,92 @@
+package com.hr_management.hr.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Optional offload of /uploads delivery to a fronting proxy. When a prefix is configured, the
+ * application only checks the file and sets the caching headers, then answers with an internal
+ * redirect header (X-Accel-Redirect for nginx) so the proxy sends the bytes itself, including
+ * ranges. Disabled by default, in which case WebMvcConfig's resource handlers serve the files.
+ */
+@Component
+public class UploadAccelRedirectFilter extends OncePerRequestFilter {
+
+    private static final String UPLOADS_PATH = "/uploads/";
+
+    private final UploadCachePolicy uploadCachePolicy;
+
+    // e.g. /internal-uploads/, mapped to the upload directory by an internal proxy location
+    @Value("${app.uploads.accel-redirect.prefix:}")
+    private String redirectPrefix;
+
+    @Value("${app.uploads.accel-redirect.header:X-Accel-Redirect}")
+    private String redirectHeader;
+
+    @Value("${spring.servlet.multipart.location:./uploads}")
+    private String uploadDir;
+
+    private Path rootLocation;
+
+    public UploadAccelRedirectFilter(UploadCachePolicy uploadCachePolicy) {
+        this.uploadCachePolicy = uploadCachePolicy;
+    }
+
+    @PostConstruct
+    void init() {
+        rootLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String method = request.getMethod();
+        return redirectPrefix.isEmpty()
+                || !("GET".equals(method) || "HEAD".equals(method))
+                || !request.getRequestURI().startsWith(request.getContextPath() + UPLOADS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String relativePath = request.getRequestURI().substring(request.getContextPath().length() + UPLOADS_PATH.length());
+        Path file = rootLocation.resolve(relativePath).normalize();
+        // Same rules as the resource handler: nothing outside the root, nothing hidden (e.g. staging)
+        if (!file.startsWith(rootLocation) || relativePath.startsWith(".") || relativePath.contains("/.")
+                || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = UploadCachePolicy.isContentAddressed(relativePath)
+                ? UploadCachePolicy.etagFor(file.getFileName().toString()) : null;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, uploadCachePolicy.cacheControlFor(relativePath).getHeaderValue());
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(redirectHeader, redirectPrefix + relativePath);
+    }
+}
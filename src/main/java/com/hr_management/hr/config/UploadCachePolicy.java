@@ -0,0 +1,58 @@
+package com.hr_management.hr.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caching rules for files under /uploads. Content-addressed files (objects/...) never change
+ * under their URL, so they are cached for a long time as immutable and their ETag is the
+ * file name, which starts with the content hash (derived files such as avatar sizes add a
+ * suffix). Older uploads fall back to Last-Modified and a shorter max-age.
+ */
+@Component
+public class UploadCachePolicy {
+
+    static final String OBJECTS_PREFIX = "objects/";
+
+    @Value("${app.uploads.immutable-max-age-days:365}")
+    private long immutableMaxAgeDays;
+
+    @Value("${app.uploads.legacy-max-age-seconds:3600}")
+    private long legacyMaxAgeSeconds;
+
+    public CacheControl immutableCacheControl() {
+        return CacheControl.maxAge(Duration.ofDays(immutableMaxAgeDays))
+                .cachePrivate() // Supporting documents must not end up in shared caches
+                .immutable();
+    }
+
+    public CacheControl legacyCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(legacyMaxAgeSeconds))
+                .cachePrivate(); // As above
+    }
+
+    public CacheControl cacheControlFor(String relativePath) {
+        return isContentAddressed(relativePath) ? immutableCacheControl() : legacyCacheControl();
+    }
+
+    public static boolean isContentAddressed(String relativePath) {
+        return relativePath.startsWith(OBJECTS_PREFIX);
+    }
+
+    /**
+     * Strong ETag taken from a content-addressed file name, or null for other files.
+     */
+    public static String etagFor(String fileName) {
+        return fileName.length() >= 64 && fileName.substring(0, 64).chars().allMatch(c -> Character.digit(c, 16) >= 0)
+                ? "\"" + fileName + "\"" : null;
+    }
+
+    static String etagFor(Resource resource) {
+        String fileName = resource.getFilename();
+        return fileName != null ? etagFor(fileName) : null;
+    }
+}
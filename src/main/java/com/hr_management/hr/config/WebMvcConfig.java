@@ -1,16 +1,74 @@
 package com.hr_management.hr.config;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import com.hr_management.hr.security.CallerContextArgumentResolver;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final CallerContextArgumentResolver callerContextArgumentResolver;
+    private final UploadCachePolicy uploadCachePolicy;
+
+    @Value("${spring.servlet.multipart.location:./uploads}")
+    private String uploadDir;
+
+    public WebMvcConfig(CallerContextArgumentResolver callerContextArgumentResolver,
+                        UploadCachePolicy uploadCachePolicy) {
+        this.callerContextArgumentResolver = callerContextArgumentResolver;
+        this.uploadCachePolicy = uploadCachePolicy;
+    }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(callerContextArgumentResolver);
+    }
+
+    /**
+     * Content-addressed uploads are immutable under their URL and get far-future caching with the
+     * hash as ETag. Range requests are handled by the resource handler, so large PDFs can be
+     * fetched in parts. See UploadAccelRedirectFilter for handing delivery to a proxy instead.
+     */
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
+        String location = Paths.get(uploadDir).toAbsolutePath().normalize().toUri().toString();
+        if (!location.endsWith("/")) {
+            location += "/";
+        }
+
+        registry.addResourceHandler("/uploads/" + UploadCachePolicy.OBJECTS_PREFIX + "**")
+                .addResourceLocations(location + UploadCachePolicy.OBJECTS_PREFIX)
+                .setCacheControl(uploadCachePolicy.immutableCacheControl())
+                .setEtagGenerator(UploadCachePolicy::etagFor)
+                .resourceChain(false)
+                .addResolver(new VisibleFilesResourceResolver());
 
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations(location)
+                .setCacheControl(uploadCachePolicy.legacyCacheControl())
+                .resourceChain(false)
+                .addResolver(new VisibleFilesResourceResolver());
+    }
+
+    // Keeps hidden entries such as the upload staging directory from being served
+    private static class VisibleFilesResourceResolver extends PathResourceResolver {
+        @Override
+        protected Resource getResource(@NonNull String resourcePath, @NonNull Resource location) throws IOException {
+            if (resourcePath.startsWith(".") || resourcePath.contains("/.")) {
+                return null;
+            }
+            return super.getResource(resourcePath, location);
+        }
     }
 } 
\ No newline at end of file
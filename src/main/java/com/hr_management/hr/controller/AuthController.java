@@ -1,6 +1,7 @@
 package com.hr_management.hr.controller;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.hr_management.hr.entity.Employee;
 import com.hr_management.hr.entity.User;
+import com.hr_management.hr.exception.ServiceOverloadedException;
 import com.hr_management.hr.model.AuthResponse;
 import com.hr_management.hr.model.ChangePasswordRequestDto;
 import com.hr_management.hr.model.EmployeeDto;
@@ -33,13 +35,19 @@ import com.hr_management.hr.model.ResetPasswordRequestDto;
 import com.hr_management.hr.model.UserDto;
 import com.hr_management.hr.repository.EmployeeRepository;
 import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.AuthenticatedUser;
+import com.hr_management.hr.security.CallerContext;
+import com.hr_management.hr.security.CustomUserDetailsService;
+import com.hr_management.hr.security.PrincipalCache;
 import com.hr_management.hr.service.AuthService;
 import com.hr_management.hr.service.EmployeeService;
 import com.hr_management.hr.service.HtmlEmailTemplateService;
 import com.hr_management.hr.service.JwtService;
 import com.hr_management.hr.service.MicrosoftAuthService;
+import com.hr_management.hr.service.TokenRevocationService;
 import com.hr_management.hr.service.UserService;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -48,6 +56,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -65,6 +74,9 @@ public class AuthController {
     private final AuthService authService;
     private final MicrosoftAuthService microsoftAuthService;
     private final OAuth2AuthorizedClientService clientService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final CustomUserDetailsService userDetailsService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
@@ -79,7 +91,10 @@ public class AuthController {
             HtmlEmailTemplateService htmlEmailTemplateService,
             AuthService authService,
             MicrosoftAuthService microsoftAuthService,
-            OAuth2AuthorizedClientService clientService) {
+            OAuth2AuthorizedClientService clientService,
+            PrincipalCache principalCache,
+            TokenRevocationService tokenRevocationService,
+            CustomUserDetailsService userDetailsService) {
         this.userService = userService;
         this.employeeService = employeeService;
         this.authenticationManager = authenticationManager;
@@ -91,11 +106,14 @@ public class AuthController {
         this.authService = authService;
         this.microsoftAuthService = microsoftAuthService;
         this.clientService = clientService;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsService = userDetailsService;
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login user", 
-               description = "Authenticates user and returns JWT token with user details. This endpoint is publicly accessible and does not require authentication.",
+               description = "Authenticates user and returns JWT token with user details. The employee summary leaves out leave history; fetch it from /api/leaves/history. This endpoint is publicly accessible and does not require authentication.",
                security = {}) // Empty security array means no security required
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Login successful"),
@@ -107,47 +125,38 @@ public class AuthController {
         logger.info("Attempting login for identifier: {}", loginRequest.getUsername());
         
         try {
-            // First try to find user by username or email
-            User user = userRepository.findByUsername(loginRequest.getUsername())
-                    .orElseGet(() -> userRepository.findByEmail(loginRequest.getUsername())
-                            .orElseThrow(() -> {
-                                logger.error("User not found with identifier: {}", loginRequest.getUsername());
-                                return new UsernameNotFoundException("Invalid username or email");
-                            }));
-
-            logger.info("User found: {}", user.getUsername());
-            
-            // Authenticate with the found user's username
+            // One query resolves username or email with the employee and primes the principal cache,
+            // so authenticating reads the cache and the response is built from this same row
+            Optional<User> loaded = userDetailsService.loadForLogin(loginRequest.getUsername());
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
-                    user.getUsername(), // Use the actual username for authentication
+                    loginRequest.getUsername(),
                     loginRequest.getPassword()
                 )
             );
             
-            logger.info("Authentication successful for user: {}", user.getUsername());
-            
             Object principal = authentication.getPrincipal();
-            if (principal == null) {
-                logger.error("Principal is null after authentication");
-                throw new UsernameNotFoundException("Principal is null after authentication");
+            if (!(principal instanceof AuthenticatedUser authenticated)) {
+                logger.error("Unexpected principal type: {}", principal != null ? principal.getClass() : null);
+                throw new UsernameNotFoundException("Unexpected principal type after authentication");
             }
-            
-            if (principal instanceof User authenticatedUser) {
-                logger.info("User authenticated: {}", authenticatedUser.getUsername());
-            } else {
-                logger.error("Unexpected principal type: {}", principal.getClass());
-                throw new UsernameNotFoundException("Unexpected principal type after authentication: " + principal.getClass());
+
+            logger.info("Authentication successful for user: {}", authenticated.getUsername());
+
+            // Only queried again if the user didn't exist yet when it was looked up above
+            User user = loaded.filter(candidate -> candidate.getId().equals(authenticated.getId()))
+                    .or(() -> userRepository.findByIdWithEmployee(authenticated.getId()))
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + authenticated.getUsername()));
+            if (user.getEmployee() == null) {
+                logger.error("Employee record not found for user: {}", user.getUsername());
+                throw new RuntimeException("Employee record not found for authenticated user: " + user.getUsername());
             }
 
             String token = jwtService.generateToken(user);
             logger.info("JWT token generated for user: {}", user.getUsername());
             
-            EmployeeDto employeeDto = employeeService.findByUser(user)
-                    .orElseThrow(() -> {
-                        logger.error("Employee record not found for user: {}", user.getUsername());
-                        return new RuntimeException("Employee record not found for authenticated user: " + user.getUsername());
-                    });
+            // Session bootstrap only: identity, role and employee summary, without leave history
+            EmployeeDto employeeDto = employeeService.toSummaryDto(user.getEmployee());
 
             logger.info("Login successful for user: {}", user.getUsername());
             return ResponseEntity.ok(AuthResponse.builder()
@@ -267,16 +276,31 @@ public class AuthController {
         @ApiResponse(responseCode = "404", description = "Employee not found")
     })
     public ResponseEntity<EmployeeDto> getCurrentUser(
-            @Parameter(hidden = true) Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        EmployeeDto employee = employeeService.findByUser(user)
+            @Parameter(hidden = true) CallerContext caller) {
+        EmployeeDto employee = employeeService.findDtoById(caller.requireEmployeeId())
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
         if (employee.getUser() != null) {
-            employee.getUser().setProfilePicture(user.getProfilePicture());
+            userRepository.findById(caller.getUserId())
+                    .ifPresent(user -> employee.getUser().setProfilePicture(user.getProfilePicture()));
         }
         return ResponseEntity.ok(employee);
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Log out",
+               description = "Revokes the bearer token used for this request until it expires",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Token revoked"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid, expired or revoked token")
+    })
+    public ResponseEntity<MessageResponse> logout(@Parameter(hidden = true) HttpServletRequest request) {
+        // The filter has already verified this token, so this is served from the verified-token cache
+        Claims claims = jwtService.verifyToken(request.getHeader("Authorization").substring(7));
+        tokenRevocationService.revoke(claims);
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+    }
+
     @PostMapping("/microsoft/login")
     @Operation(summary = "Initiate Microsoft login", 
                description = "Initiates the Microsoft OAuth login flow. Returns the authorization URL to redirect the user to Microsoft's login page.",
@@ -299,7 +323,10 @@ public class AuthController {
             Map<String, Object> tokenResponse = microsoftAuthService.exchangeCodeForTokens(code);
             String accessToken = (String) tokenResponse.get("access_token");
             Map<String, Object> userInfo = microsoftAuthService.getUserInfo(accessToken);
-            userInfo.put("access_token", accessToken); // Ensure access token is available for profile picture download
+            // Tokens are stored for later Graph calls and used for the profile picture download
+            userInfo.put("access_token", accessToken);
+            userInfo.put("refresh_token", tokenResponse.get("refresh_token"));
+            userInfo.put("expires_in", tokenResponse.get("expires_in"));
             User user = microsoftAuthService.createOrUpdateUser(userInfo);
             EmployeeDto employeeDto = employeeService.findByUser(user)
                     .orElseThrow(() -> new RuntimeException("Employee record not found"));
@@ -366,12 +393,15 @@ public class AuthController {
             Authentication authentication,
             @Valid @RequestBody ChangePasswordRequestDto request) {
         try {
-            User user = (User) authentication.getPrincipal();
-            if (user == null) {
+            if (!(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse("User not authenticated"));
             }
 
+            // The principal is a cached snapshot; change the current row, not a copy of it
+            User user = userRepository.findById(principal.getId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
             // Verify current password
             if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
                 return ResponseEntity.badRequest()
@@ -381,8 +411,11 @@ public class AuthController {
             // Update password
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
             userRepository.save(user);
+            principalCache.evict(user.getId());
 
             return ResponseEntity.ok(new MessageResponse("Password changed successfully"));
+        } catch (ServiceOverloadedException e) {
+            throw e; // Answered with 503 by the global handler
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(new ErrorResponse(e.getMessage()));
@@ -400,7 +433,9 @@ public class AuthController {
     })
     public ResponseEntity<UserDto> updateProfilePicture(
             @Parameter(hidden = true) Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
         if (user.getMicrosoftId() == null) {
             return ResponseEntity.badRequest().build();
         }
@@ -0,0 +1,139 @@
+package com.hr_management.hr.controller;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hr_management.hr.model.ChunkedUploadRequestDto;
+import com.hr_management.hr.model.ChunkedUploadStatusDto;
+import com.hr_management.hr.model.StagedUploadDto;
+import com.hr_management.hr.security.CallerContext;
+import com.hr_management.hr.service.ChunkedUploadService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/leaves/documents/uploads")
+@Tag(name = "Resumable Document Uploads", description = "Chunked, resumable uploads for large supporting documents")
+public class ChunkedUploadController {
+
+    private static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService) {
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Start a resumable upload",
+               description = "Registers a file of the given size. Send its bytes in chunks with PATCH, then complete the upload with the file's SHA-256.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Upload started"),
+        @ApiResponse(responseCode = "400", description = "Missing file name or size out of range"),
+        @ApiResponse(responseCode = "401", description = "User not authenticated"),
+        @ApiResponse(responseCode = "429", description = "Too many uploads open; complete or abort one first")
+    })
+    public ResponseEntity<ChunkedUploadStatusDto> initiate(
+            @Parameter(hidden = true) CallerContext caller,
+            @Valid @RequestBody ChunkedUploadRequestDto request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(chunkedUploadService.initiate(caller.requireEmployeeId(), request));
+    }
+
+    @PatchMapping(value = "/{uploadId}", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "application/offset+octet-stream"})
+    @Operation(summary = "Upload a chunk",
+               description = "Appends the request body at the offset given in the Upload-Offset header, which must equal the bytes received so far. After a failed chunk, query the upload for its offset and resume from there.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Chunk stored; the response carries the new offset"),
+        @ApiResponse(responseCode = "400", description = "Chunk runs past the declared size"),
+        @ApiResponse(responseCode = "404", description = "Upload not found"),
+        @ApiResponse(responseCode = "409", description = "Offset doesn't match the bytes received so far, or another chunk is being written"),
+        @ApiResponse(responseCode = "410", description = "Upload expired")
+    })
+    public ResponseEntity<ChunkedUploadStatusDto> appendChunk(
+            @Parameter(hidden = true) CallerContext caller,
+            @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET_HEADER) long offset,
+            @Parameter(hidden = true) HttpServletRequest request) throws IOException {
+        ChunkedUploadStatusDto status = chunkedUploadService.appendChunk(
+                uploadId, caller.requireEmployeeId(), offset, request.getInputStream());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(status.getOffset()))
+                .body(status);
+    }
+
+    @GetMapping("/{uploadId}")
+    @Operation(summary = "Get upload progress",
+               description = "Returns the number of bytes received so far, which is the offset to resume from.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Upload progress"),
+        @ApiResponse(responseCode = "404", description = "Upload not found"),
+        @ApiResponse(responseCode = "410", description = "Upload expired")
+    })
+    public ResponseEntity<ChunkedUploadStatusDto> getStatus(
+            @Parameter(hidden = true) CallerContext caller,
+            @PathVariable String uploadId) {
+        ChunkedUploadStatusDto status = chunkedUploadService.getStatus(uploadId, caller.requireEmployeeId());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(status.getOffset()))
+                .body(status);
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @Operation(summary = "Complete an upload",
+               description = "Verifies the file against its SHA-256 and stages it. Pass the returned handle as documentHandle when creating the leave request.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Document staged"),
+        @ApiResponse(responseCode = "400", description = "Missing or mismatching checksum; the upload is discarded on mismatch"),
+        @ApiResponse(responseCode = "404", description = "Upload not found"),
+        @ApiResponse(responseCode = "409", description = "Not all bytes have been received, or a chunk is being written"),
+        @ApiResponse(responseCode = "410", description = "Upload expired")
+    })
+    public ResponseEntity<StagedUploadDto> complete(
+            @Parameter(hidden = true) CallerContext caller,
+            @PathVariable String uploadId,
+            @Parameter(description = "Hex SHA-256 of the whole file") @RequestParam String sha256) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(chunkedUploadService.complete(uploadId, caller.requireEmployeeId(), sha256));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @Operation(summary = "Abort an upload",
+               description = "Discards an upload and the bytes received so far.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Upload discarded"),
+        @ApiResponse(responseCode = "404", description = "Upload not found"),
+        @ApiResponse(responseCode = "409", description = "A chunk is being written")
+    })
+    public ResponseEntity<Void> abort(
+            @Parameter(hidden = true) CallerContext caller,
+            @PathVariable String uploadId) {
+        chunkedUploadService.abort(uploadId, caller.requireEmployeeId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,15 +1,14 @@
 package com.hr_management.hr.controller;
 
-import java.security.Principal;
-import java.util.Collection;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +16,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -24,19 +24,22 @@ import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.hr_management.hr.entity.Employee;
-import com.hr_management.hr.entity.User;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
 import com.hr_management.hr.exception.LeaveAPIException;
 import com.hr_management.hr.exception.ResourceNotFoundException;
-import com.hr_management.hr.model.EmployeeDto;
 import com.hr_management.hr.model.LeaveBalanceDto;
 import com.hr_management.hr.model.LeaveDto;
+import com.hr_management.hr.model.LeaveHistoryFilter;
+import com.hr_management.hr.model.LeaveHistoryPageDto;
 import com.hr_management.hr.model.LeaveRequestDto;
 import com.hr_management.hr.model.LeaveResponseDto;
 import com.hr_management.hr.model.LeaveStatusUpdateDto;
-import com.hr_management.hr.repository.EmployeeRepository;
-import com.hr_management.hr.repository.UserRepository;
-import com.hr_management.hr.service.EmployeeService;
+import com.hr_management.hr.model.MessageResponse;
+import com.hr_management.hr.model.StagedUploadDto;
+import com.hr_management.hr.security.CallerContext;
+import com.hr_management.hr.service.DocumentStagingService;
+import com.hr_management.hr.service.LeaveBalanceLedgerService;
 import com.hr_management.hr.service.LeaveService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -52,53 +55,52 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class LeaveController {
 
     private final LeaveService leaveService;
-    private final EmployeeService employeeService;
-    private final UserRepository userRepository;
-    private final EmployeeRepository employeeRepository;
+    private final LeaveBalanceLedgerService leaveBalanceLedgerService;
+    private final DocumentStagingService documentStagingService;
 
-    public LeaveController(LeaveService leaveService, EmployeeService employeeService, UserRepository userRepository, EmployeeRepository employeeRepository) {
+    public LeaveController(LeaveService leaveService,
+                           LeaveBalanceLedgerService leaveBalanceLedgerService,
+                           DocumentStagingService documentStagingService) {
         this.leaveService = leaveService;
-        this.employeeService = employeeService;
-        this.userRepository = userRepository;
-        this.employeeRepository = employeeRepository;
+        this.leaveBalanceLedgerService = leaveBalanceLedgerService;
+        this.documentStagingService = documentStagingService;
     }
 
     @GetMapping("/history")
     @Operation(summary = "Get Leave History (Role-Based)", 
-               description = "Retrieves leave history. Admins/HR Managers see all sorted history. Regular users see their own history.",
+               description = "Retrieves leave history one page at a time, pending requests first and then by most recent application date. " +
+                             "Admins/HR Managers see everyone's history and may filter by department. Regular users see their own history. " +
+                             "Pass the returned nextCursor as cursor to fetch the next page.",
                security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Leave history retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
         @ApiResponse(responseCode = "401", description = "User not authenticated"),
         @ApiResponse(responseCode = "404", description = "Employee record not found for the user (if fetching own history)")
     })
-    public ResponseEntity<List<LeaveDto>> getLeaveHistory(Authentication authentication) { 
-        if (authentication == null) {
-             return ResponseEntity.status(401).build(); 
-        }
+    public ResponseEntity<LeaveHistoryPageDto> getLeaveHistory(
+            @Parameter(hidden = true) CallerContext caller,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 20, max 100)") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Department (Admins/HR Managers only)") @RequestParam(required = false) String department,
+            @Parameter(description = "Leave type") @RequestParam(required = false) LeaveType type,
+            @Parameter(description = "Leave status") @RequestParam(required = false) LeaveStatus status,
+            @Parameter(description = "Earliest application date (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Latest application date (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) { 
+        boolean isAdminOrHr = caller.isAdminOrHr();
 
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        boolean isAdminOrHr = authorities.stream()
-            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN") || 
-                                         grantedAuthority.getAuthority().equals("ROLE_HR_MANAGER"));
+        LeaveHistoryFilter filter = LeaveHistoryFilter.builder()
+                .department(isAdminOrHr ? department : null)
+                .type(type)
+                .status(status)
+                .fromDate(from)
+                .toDate(to)
+                .build();
 
         if (isAdminOrHr) {
-            return ResponseEntity.ok(leaveService.getAllLeaveRequestsSorted());
-        } else {
-            Object principal = authentication.getPrincipal();
-            if (principal == null) {
-                System.err.println("Principal is null after authentication");
-                return ResponseEntity.status(403).build();
-            }
-            
-            if (principal instanceof User currentUser) {
-                Long employeeId = getEmployeeIdFromUser(currentUser);
-                return ResponseEntity.ok(leaveService.getEmployeeLeaves(employeeId));
-            } else {
-                 System.err.println("Unexpected principal type: " + principal.getClass().getName());
-                 return ResponseEntity.status(403).build();
-            }
+            return ResponseEntity.ok(leaveService.getAllLeaveRequestsSorted(filter, cursor, size));
         }
+        return ResponseEntity.ok(leaveService.getEmployeeLeaves(caller.requireEmployeeId(), filter, cursor, size));
     }
 
     @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.MULTIPART_FORM_DATA_VALUE})
@@ -114,6 +116,9 @@ public class LeaveController {
                2. Multipart Request (Content-Type: multipart/form-data):
                   - leaveRequest: JSON object with the above fields
                   - document: Optional file upload (required for certain leave types like SICK or MATERNITY)
+
+               Preferably, upload the document first via POST /api/leaves/documents and pass the
+               returned handle as documentHandle in the JSON request.
                """,
                security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
@@ -124,7 +129,7 @@ public class LeaveController {
         @ApiResponse(responseCode = "415", description = "Unsupported media type")
     })
     public ResponseEntity<?> createLeaveRequest(
-            @Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
+            @Parameter(hidden = true) CallerContext caller,
             @RequestPart(value = "leaveRequest", required = false) String leaveRequestJson,
             @RequestPart(value = "document", required = false) MultipartFile document,
             @RequestBody(required = false) String rawBody) {
@@ -163,9 +168,16 @@ public class LeaveController {
                     .body(new ErrorResponse("Required fields missing: startDate, endDate, reason, and type are required"));
             }
 
-            Long employeeId = getEmployeeIdFromUser(currentUser);
-            LeaveResponseDto result = leaveService.createLeaveRequest(employeeId, leaveRequest, document);
+            Long employeeId = caller.requireEmployeeId();
+            // An inline document is staged first, so the file write doesn't run inside the leave transaction
+            if (document != null && !document.isEmpty()) {
+                leaveRequest.setDocumentHandle(documentStagingService.stage(employeeId, document).getHandle());
+            }
+            LeaveResponseDto result = leaveService.createLeaveRequest(employeeId, leaveRequest);
             return ResponseEntity.status(result.getStatus()).body(result);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("Failed to store supporting document: " + e.getMessage()));
         } catch (LeaveAPIException | IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                 .body(new ErrorResponse(e.getMessage()));
@@ -174,6 +186,23 @@ public class LeaveController {
         }
     }
 
+    @PostMapping(value = "/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload a supporting document",
+               description = "Stages a supporting document and returns a short-lived handle. Pass the handle as documentHandle when creating the leave request; documents that are never attached expire and are deleted.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Document staged"),
+        @ApiResponse(responseCode = "400", description = "Missing or empty document"),
+        @ApiResponse(responseCode = "401", description = "User not authenticated"),
+        @ApiResponse(responseCode = "404", description = "Employee record not found")
+    })
+    public ResponseEntity<StagedUploadDto> uploadDocument(
+            @Parameter(hidden = true) CallerContext caller,
+            @RequestPart("document") MultipartFile document) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(documentStagingService.stage(caller.requireEmployeeId(), document));
+    }
+
     @PutMapping("/{leaveId}/status")
     @Operation(summary = "Update leave request status", 
                description = "Updates the status of a leave request (APPROVED/REJECTED). Requires ADMIN or HR_MANAGER role.",
@@ -217,16 +246,11 @@ public class LeaveController {
     })
     public ResponseEntity<LeaveDto> getLeaveById(
             @Parameter(description = "ID of the leave request") @PathVariable Long leaveId,
-            @Parameter(hidden = true) @AuthenticationPrincipal User currentUser,
-            Authentication authentication) {
+            @Parameter(hidden = true) CallerContext caller) {
                 
         LeaveDto leave = leaveService.getLeaveById(leaveId);
 
-        boolean isAdminOrHr = authentication.getAuthorities().stream()
-            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN") || 
-                                         grantedAuthority.getAuthority().equals("ROLE_HR_MANAGER"));
-        
-        if (isAdminOrHr || (leave.getEmployee() != null && leave.getEmployee().getUser() != null && leave.getEmployee().getUser().getId().equals(currentUser.getId()))) {
+        if (caller.isAdminOrHr() || (leave.getEmployee() != null && leave.getEmployee().getUser() != null && leave.getEmployee().getUser().getId().equals(caller.getUserId()))) {
             return ResponseEntity.ok(leave);
         } else {
             return ResponseEntity.status(403).build();
@@ -246,38 +270,37 @@ public class LeaveController {
     })
     public ResponseEntity<Void> cancelLeaveRequest(
             @Parameter(description = "ID of the leave request") @PathVariable Long leaveId,
-            @Parameter(hidden = true) @AuthenticationPrincipal User currentUser) { 
-        Long employeeId = getEmployeeIdFromUser(currentUser);
-        leaveService.cancelLeaveRequest(leaveId, employeeId); 
+            @Parameter(hidden = true) CallerContext caller) { 
+        leaveService.cancelLeaveRequest(leaveId, caller.requireEmployeeId()); 
         return ResponseEntity.ok().build();
     }
     
     @GetMapping("/balances")
     @Operation(summary = "Get leave balances for the current employee")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<List<LeaveBalanceDto>> getLeaveBalances(Principal principal) {
-        User user = userRepository.findByUsername(principal.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", 0L));
-        
-        Employee employee = employeeRepository.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "user", user.getId()));
-        
-        List<LeaveBalanceDto> balances = leaveService.getEmployeeLeaveBalances(employee.getId());
+    public ResponseEntity<List<LeaveBalanceDto>> getLeaveBalances(@Parameter(hidden = true) CallerContext caller) {
+        List<LeaveBalanceDto> balances = leaveService.getEmployeeLeaveBalances(caller.requireEmployeeId());
         return ResponseEntity.ok(balances);
     }
-    
-    private Long getEmployeeIdFromUser(User user) {
-        if (user == null) {
-            throw new IllegalArgumentException("Authenticated user cannot be null");
-        }
-        EmployeeDto employee = employeeService.findByUser(user)
-                .orElseThrow(() -> new RuntimeException("Employee record not found for the authenticated user: " + user.getUsername()));
-        if (employee.getId() == null) {
-             throw new IllegalStateException("Found employee record has a null ID for user: " + user.getUsername());
-        }
-        return employee.getId();
-    }
 
+    @PostMapping("/balances/rebuild")
+    @Operation(summary = "Rebuild the leave balance ledger (Admin)",
+               description = "Recomputes the leave balance ledger from the leaves table, for one employee or for everyone. Requires ADMIN role.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ledger rebuilt successfully"),
+        @ApiResponse(responseCode = "401", description = "User not authenticated"),
+        @ApiResponse(responseCode = "403", description = "User not authorized")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildLeaveBalances(
+            @Parameter(description = "Only rebuild this employee's rows") @RequestParam(required = false) Long employeeId) {
+        int rows = employeeId != null
+                ? leaveBalanceLedgerService.rebuildLedger(employeeId)
+                : leaveBalanceLedgerService.rebuildLedger();
+        return ResponseEntity.ok(new MessageResponse("Leave balance ledger rebuilt with " + rows + " rows"));
+    }
+    
     private static class ErrorResponse {
         private String message;
 
@@ -1,12 +1,13 @@
 package com.hr_management.hr.controller;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,9 +17,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -28,7 +29,11 @@ import com.hr_management.hr.model.ErrorResponse;
 import com.hr_management.hr.model.MessageResponse;
 import com.hr_management.hr.model.ProfileUpdateDto;
 import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.AuthenticatedUser;
+import com.hr_management.hr.service.AvatarDerivativeService;
 import com.hr_management.hr.service.FileStorageService;
+import com.hr_management.hr.service.GraphTokenService;
+import com.hr_management.hr.service.ProfilePhotoCache;
 import com.hr_management.hr.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -49,17 +54,26 @@ public class ProfileController {
     private final UserService userService;
     private final FileStorageService fileStorageService;
     private final UserRepository userRepository;
-    private final RestTemplate restTemplate;
+    private final ProfilePhotoCache profilePhotoCache;
+    private final AvatarDerivativeService avatarDerivativeService;
+    private final GraphTokenService graphTokenService;
+
+    @Value("${app.profile-photo-cache.client-max-age-seconds:300}")
+    private long photoMaxAgeSeconds;
 
     public ProfileController(
             UserService userService,
             FileStorageService fileStorageService,
             UserRepository userRepository,
-            RestTemplate restTemplate) {
+            ProfilePhotoCache profilePhotoCache,
+            AvatarDerivativeService avatarDerivativeService,
+            GraphTokenService graphTokenService) {
         this.userService = userService;
         this.fileStorageService = fileStorageService;
         this.userRepository = userRepository;
-        this.restTemplate = restTemplate;
+        this.profilePhotoCache = profilePhotoCache;
+        this.avatarDerivativeService = avatarDerivativeService;
+        this.graphTokenService = graphTokenService;
     }
 
     @PutMapping
@@ -75,7 +89,7 @@ public class ProfileController {
             Authentication authentication,
             @Valid @RequestBody ProfileUpdateDto request) {
         try {
-            User user = (User) authentication.getPrincipal();
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse("User not authenticated"));
@@ -110,7 +124,7 @@ public class ProfileController {
             System.out.println("File name: " + file.getOriginalFilename());
             System.out.println("File size: " + file.getSize());
 
-            User user = (User) authentication.getPrincipal();
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
             if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse("User not authenticated"));
@@ -129,7 +143,11 @@ public class ProfileController {
             }
 
             // Store the file and get the path
-            String filePath = fileStorageService.storeFile(file, "profile_" + user.getId());
+            // The principal is a cached snapshot without the picture; read the one being replaced
+            String previousPicture = userRepository.findById(user.getId())
+                    .map(User::getProfilePicture)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            String filePath = fileStorageService.storeFile(file);
             String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
             String fullUrl = baseUrl + "/uploads/" + filePath.replace("\\", "/");
             
@@ -139,6 +157,9 @@ public class ProfileController {
             
             // Update the user's profile
             userService.updateProfile(user.getId(), profileUpdate);
+            fileStorageService.release(previousPicture);
+            // Small avatars replace the original in the profile once generated
+            avatarDerivativeService.generateAfterCommit(user.getId(), filePath, baseUrl);
 
             return ResponseEntity.ok(new MessageResponse("Profile picture updated successfully"));
         } catch (IOException e) {
@@ -154,22 +175,24 @@ public class ProfileController {
 
     @GetMapping("/{userId}/photo")
     @Operation(summary = "Get user profile picture", 
-               description = "Retrieves the profile picture for a user. For Microsoft users, this will proxy the request to Microsoft Graph API.",
+               description = "Retrieves the profile picture for a user. For Microsoft users, this serves a locally cached copy of the Microsoft Graph photo, revalidated periodically. Supports If-None-Match.",
                security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Profile picture retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Profile picture not modified"),
         @ApiResponse(responseCode = "401", description = "User not authenticated"),
         @ApiResponse(responseCode = "403", description = "User not authorized"),
         @ApiResponse(responseCode = "404", description = "User not found or no profile picture available")
     })
     public ResponseEntity<byte[]> getProfilePicture(
             @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) Authentication authentication) {
         try {
             logger.info("Attempting to fetch profile picture for user ID: {}", userId);
             
             // Get the current authenticated user
-            User currentUser = (User) authentication.getPrincipal();
+            AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
             if (currentUser == null) {
                 logger.warn("Unauthorized access attempt - no authenticated user");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -197,36 +220,27 @@ public class ProfileController {
                 return ResponseEntity.notFound().build();
             }
 
-            if (targetUser.getAccessToken() == null) {
-                logger.warn("User {} has no access token", targetUser.getEmail());
+            // The token is only looked up if the cached photo has to be fetched or revalidated
+            ProfilePhotoCache.Photo photo = profilePhotoCache.get(targetUser.getMicrosoftId(),
+                    () -> graphTokenService.getAccessToken(targetUser.getId()));
+            if (photo == null) {
+                logger.debug("No profile picture available for user: {}", targetUser.getEmail());
                 return ResponseEntity.notFound().build();
             }
 
-            // Construct Microsoft Graph API URL for the photo
-            String photoUrl = String.format("https://graph.microsoft.com/v1.0/users/%s/photo/$value", targetUser.getMicrosoftId());
-            logger.info("Fetching photo from Microsoft Graph API: {}", photoUrl);
-
-            // Make request to Microsoft Graph API
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(targetUser.getAccessToken());
-
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                photoUrl,
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                byte[].class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                logger.info("Successfully retrieved profile picture for user: {}", targetUser.getEmail());
-                // Set appropriate content type
-                HttpHeaders responseHeaders = new HttpHeaders();
-                responseHeaders.setContentType(MediaType.IMAGE_JPEG);
-                return new ResponseEntity<>(response.getBody(), responseHeaders, HttpStatus.OK);
-            } else {
-                logger.warn("Failed to retrieve profile picture from Microsoft Graph API. Status: {}", response.getStatusCode());
-                return ResponseEntity.notFound().build();
+            // Private: the photo is only visible to its owner and admins
+            CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(photoMaxAgeSeconds)).cachePrivate();
+            if (ifNoneMatch != null && ifNoneMatch.contains(photo.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(photo.getEtag())
+                        .cacheControl(cacheControl)
+                        .build();
             }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(photo.getContentType()))
+                    .eTag(photo.getEtag())
+                    .cacheControl(cacheControl)
+                    .body(photo.getBytes());
         } catch (Exception e) {
             logger.error("Error retrieving profile picture: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
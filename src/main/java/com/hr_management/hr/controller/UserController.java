@@ -17,6 +17,8 @@ import com.hr_management.hr.entity.User;
 import com.hr_management.hr.exception.ResourceNotFoundException;
 import com.hr_management.hr.model.UserDto;
 import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.PrincipalCache;
+import com.hr_management.hr.service.NotificationRecipientCache;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -30,9 +32,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final NotificationRecipientCache notificationRecipientCache;
+    private final PrincipalCache principalCache;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, NotificationRecipientCache notificationRecipientCache,
+                          PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.notificationRecipientCache = notificationRecipientCache;
+        this.principalCache = principalCache;
     }
 
     @GetMapping
@@ -85,8 +92,13 @@ public class UserController {
             throw new IllegalArgumentException("enabled field is required in request body");
         }
 
+        if (user.isEnabled() && !enabled) {
+            user.bumpTokenVersion(); // Tokens issued before the disable stay revoked if the user is re-enabled
+        }
         user.setEnabled(enabled);
         User updatedUser = userRepository.save(user);
+        notificationRecipientCache.invalidate(); // Disabled HR/admin users stop receiving notifications
+        principalCache.evict(userId); // Disabled users are rejected on their next request
 
         UserDto userDto = UserDto.builder()
                 .id(updatedUser.getId())
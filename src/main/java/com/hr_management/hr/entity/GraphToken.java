@@ -0,0 +1,143 @@
+package com.hr_management.hr.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * Microsoft Graph tokens for a user who signed in with Microsoft. Kept out of the users row,
+ * which is read on every authenticated request.
+ */
+@Entity
+@Table(name = "graph_tokens", indexes = @Index(name = "idx_graph_tokens_expires_at", columnList = "expires_at"))
+public class GraphToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, unique = true)
+    private Long userId;
+
+    @Column(name = "access_token", nullable = false, columnDefinition = "TEXT")
+    private String accessToken;
+
+    @Column(name = "refresh_token", columnDefinition = "TEXT")
+    private String refreshToken;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Set while an instance is refreshing the token, so others skip it until then
+    @Column(name = "refresh_claimed_until")
+    private LocalDateTime refreshClaimedUntil;
+
+    // Default constructor
+    public GraphToken() {
+    }
+
+    public GraphToken(Long userId) {
+        this.userId = userId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isExpired() {
+        return expiresAt == null || !expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getRefreshClaimedUntil() {
+        return refreshClaimedUntil;
+    }
+
+    public void setRefreshClaimedUntil(LocalDateTime refreshClaimedUntil) {
+        this.refreshClaimedUntil = refreshClaimedUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GraphToken that = (GraphToken) o;
+        return id != null && id.equals(that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // Tokens are deliberately left out
+    @Override
+    public String toString() {
+        return "GraphToken{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", expiresAt=" + expiresAt +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -13,13 +13,27 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "leaves")
+@Table(name = "leaves", indexes = {
+    // Keyset pagination of leave history: (status_priority, application_date desc, id desc), optionally narrowed
+    // first. The descending columns let MySQL read pages in index order instead of filesorting them.
+    @Index(name = "idx_leaves_keyset", columnList = "status_priority, application_date DESC, id DESC"),
+    @Index(name = "idx_leaves_employee_keyset", columnList = "employee_id, status_priority, application_date DESC, id DESC"),
+    @Index(name = "idx_leaves_status_keyset", columnList = "status, application_date DESC, id DESC"),
+    @Index(name = "idx_leaves_type_keyset", columnList = "leave_type, status_priority, application_date DESC, id DESC")
+})
 public class Leave {
+    /** History sort rank: pending requests first, everything else after. */
+    public static final int PRIORITY_PENDING = 0;
+    public static final int PRIORITY_OTHER = 1;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,6 +65,9 @@ public class Leave {
     @Column(nullable = false)
     private LeaveStatus status;
 
+    @Column(name = "status_priority")
+    private Integer statusPriority; // Derived from status, see syncStatusPriority()
+
     @Column
     private String rejectionReason;
 
@@ -68,6 +85,16 @@ public class Leave {
     public Leave() {
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void syncStatusPriority() {
+        statusPriority = priorityOf(status);
+    }
+
+    public static int priorityOf(LeaveStatus status) {
+        return status == LeaveStatus.PENDING ? PRIORITY_PENDING : PRIORITY_OTHER;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -139,6 +166,11 @@ public class Leave {
 
     public void setStatus(LeaveStatus status) {
         this.status = status;
+        this.statusPriority = priorityOf(status);
+    }
+
+    public Integer getStatusPriority() {
+        return statusPriority;
     }
 
     public String getRejectionReason() {
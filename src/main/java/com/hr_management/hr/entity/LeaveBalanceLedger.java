@@ -0,0 +1,154 @@
+package com.hr_management.hr.entity;
+
+import java.time.LocalDateTime;
+
+import com.hr_management.hr.enums.LeaveType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Running totals of leave days per employee, leave type and year.
+ * Kept in step with the leaves table so balance lookups and request
+ * validation don't have to re-read an employee's full leave history.
+ */
+@Entity
+@Table(name = "leave_balance_ledger",
+       uniqueConstraints = @UniqueConstraint(
+           name = "uk_leave_ledger_employee_type_year",
+           columnNames = {"employee_id", "leave_type", "ledger_year"}))
+public class LeaveBalanceLedger {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false)
+    private LeaveType leaveType;
+
+    @Column(name = "ledger_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "used_days", nullable = false)
+    private Double usedDays = 0.0; // Approved leave days
+
+    @Column(name = "pending_days", nullable = false)
+    private Double pendingDays = 0.0; // Leave days awaiting approval
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public LeaveBalanceLedger() {
+    }
+
+    public LeaveBalanceLedger(Employee employee, LeaveType leaveType, Integer year) {
+        this.employee = employee;
+        this.leaveType = leaveType;
+        this.year = year;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+
+    public LeaveType getLeaveType() {
+        return leaveType;
+    }
+
+    public void setLeaveType(LeaveType leaveType) {
+        this.leaveType = leaveType;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public Double getUsedDays() {
+        return usedDays;
+    }
+
+    public void setUsedDays(Double usedDays) {
+        this.usedDays = usedDays;
+    }
+
+    public Double getPendingDays() {
+        return pendingDays;
+    }
+
+    public void setPendingDays(Double pendingDays) {
+        this.pendingDays = pendingDays;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LeaveBalanceLedger that = (LeaveBalanceLedger) o;
+        return id != null && id.equals(that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LeaveBalanceLedger{" +
+                "id=" + id +
+                ", leaveType=" + leaveType +
+                ", year=" + year +
+                ", usedDays=" + usedDays +
+                ", pendingDays=" + pendingDays +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
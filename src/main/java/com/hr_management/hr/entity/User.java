@@ -17,11 +17,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_role_enabled", columnList = "role, enabled"))
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,9 +50,6 @@ public class User implements UserDetails {
     @Column(name = "microsoft_id")
     private String microsoftId;
 
-    @Column(name = "access_token", columnDefinition = "TEXT")
-    private String accessToken;
-
     @Column(columnDefinition = "BOOLEAN DEFAULT true")
     private boolean enabled = true;
 
@@ -67,6 +65,10 @@ public class User implements UserDetails {
     @Column(name = "reset_token_expiry_date")
     private LocalDateTime resetTokenExpiryDate;
 
+    // Embedded in issued JWTs; bumping it invalidates every token issued before
+    @Column(name = "token_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int tokenVersion = 0;
+
     // Default constructor
     public User() {
     }
@@ -268,12 +270,19 @@ public class User implements UserDetails {
         this.profilePictureUrl = profilePictureUrl;
     }
 
-    public String getAccessToken() {
-        return accessToken;
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
     }
 
-    public void setAccessToken(String accessToken) {
-        this.accessToken = accessToken;
+    /**
+     * Revokes all previously issued tokens for this user.
+     */
+    public void bumpTokenVersion() {
+        this.tokenVersion++;
     }
 
     @Override
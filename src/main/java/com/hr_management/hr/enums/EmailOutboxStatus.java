@@ -0,0 +1,7 @@
+package com.hr_management.hr.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -36,7 +36,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                         WebRequest webRequest) {
                 ErrorDetails errorDetails = new ErrorDetails(new Date(), exception.getMessage(),
                                 webRequest.getDescription(false));
-                return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+                return new ResponseEntity<>(errorDetails, exception.getStatus());
+        }
+
+        @ExceptionHandler(ServiceOverloadedException.class)
+        public ResponseEntity<ErrorDetails> handleServiceOverloadedException(ServiceOverloadedException exception,
+                        WebRequest webRequest) {
+                ErrorDetails errorDetails = new ErrorDetails(new Date(), exception.getMessage(),
+                                webRequest.getDescription(false));
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                                .body(errorDetails);
         }
         // global exceptions
 
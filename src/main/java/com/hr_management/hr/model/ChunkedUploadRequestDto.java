@@ -0,0 +1,48 @@
+package com.hr_management.hr.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public class ChunkedUploadRequestDto {
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @Positive(message = "Size must be positive")
+    private long size;
+
+    // Default constructor
+    public ChunkedUploadRequestDto() {
+    }
+
+    public ChunkedUploadRequestDto(String fileName, String contentType, long size) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
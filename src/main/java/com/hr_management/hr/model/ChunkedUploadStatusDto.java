@@ -0,0 +1,63 @@
+package com.hr_management.hr.model;
+
+import java.time.LocalDateTime;
+
+public class ChunkedUploadStatusDto {
+    private String uploadId;
+    private String fileName;
+    private long offset;
+    private long size;
+    private LocalDateTime expiresAt;
+
+    public ChunkedUploadStatusDto(String uploadId, String fileName, long offset, long size, LocalDateTime expiresAt) {
+        this.uploadId = uploadId;
+        this.fileName = fileName;
+        this.offset = offset;
+        this.size = size;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isComplete() {
+        return offset == size;
+    }
+}
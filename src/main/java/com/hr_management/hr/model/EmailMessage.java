@@ -0,0 +1,56 @@
+package com.hr_management.hr.model;
+
+/**
+ * A single outgoing email, as handed to {@code EmailService.sendBatch}.
+ */
+public class EmailMessage {
+    private String to;
+    private String subject;
+    private String body;
+    private boolean html;
+
+    // Default constructor
+    public EmailMessage() {
+    }
+
+    // All-args constructor
+    public EmailMessage(String to, String subject, String body, boolean html) {
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+        this.html = html;
+    }
+
+    // Getters and Setters
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public void setHtml(boolean html) {
+        this.html = html;
+    }
+}
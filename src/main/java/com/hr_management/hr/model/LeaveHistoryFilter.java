@@ -0,0 +1,115 @@
+package com.hr_management.hr.model;
+
+import java.time.LocalDate;
+
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+
+/**
+ * Optional filters for leave history queries. A null field means "no restriction";
+ * the date range applies to the application date and is inclusive on both ends.
+ */
+public class LeaveHistoryFilter {
+    private String department;
+    private LeaveType type;
+    private LeaveStatus status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    // Default constructor
+    public LeaveHistoryFilter() {
+    }
+
+    // All-args constructor
+    public LeaveHistoryFilter(String department, LeaveType type, LeaveStatus status,
+                              LocalDate fromDate, LocalDate toDate) {
+        this.department = department;
+        this.type = type;
+        this.status = status;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+
+    // Builder pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String department;
+        private LeaveType type;
+        private LeaveStatus status;
+        private LocalDate fromDate;
+        private LocalDate toDate;
+
+        public Builder department(String department) {
+            this.department = department;
+            return this;
+        }
+
+        public Builder type(LeaveType type) {
+            this.type = type;
+            return this;
+        }
+
+        public Builder status(LeaveStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder fromDate(LocalDate fromDate) {
+            this.fromDate = fromDate;
+            return this;
+        }
+
+        public Builder toDate(LocalDate toDate) {
+            this.toDate = toDate;
+            return this;
+        }
+
+        public LeaveHistoryFilter build() {
+            return new LeaveHistoryFilter(department, type, status, fromDate, toDate);
+        }
+    }
+
+    // Getters and Setters
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    public LeaveType getType() {
+        return type;
+    }
+
+    public void setType(LeaveType type) {
+        this.type = type;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LeaveStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+}
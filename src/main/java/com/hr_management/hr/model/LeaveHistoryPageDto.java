@@ -0,0 +1,49 @@
+package com.hr_management.hr.model;
+
+import java.util.List;
+
+/**
+ * One page of leave history. Pass {@code nextCursor} back as the {@code cursor}
+ * parameter to fetch the following page; it is null on the last page.
+ */
+public class LeaveHistoryPageDto {
+    private List<LeaveDto> leaves;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Default constructor
+    public LeaveHistoryPageDto() {
+    }
+
+    // All-args constructor
+    public LeaveHistoryPageDto(List<LeaveDto> leaves, String nextCursor, boolean hasMore) {
+        this.leaves = leaves;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<LeaveDto> getLeaves() {
+        return leaves;
+    }
+
+    public void setLeaves(List<LeaveDto> leaves) {
+        this.leaves = leaves;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -22,6 +22,8 @@ public class LeaveRequestDto {
     private Integer holdDays;
     private String leaveDuration;
     private Double numberOfDays;
+    // Handle of a document staged via POST /api/leaves/documents
+    private String documentHandle;
 
     // Default constructor
     public LeaveRequestDto() {
@@ -104,6 +106,14 @@ public class LeaveRequestDto {
         this.numberOfDays = numberOfDays;
     }
 
+    public String getDocumentHandle() {
+        return documentHandle;
+    }
+
+    public void setDocumentHandle(String documentHandle) {
+        this.documentHandle = documentHandle;
+    }
+
     // Builder pattern
     public static Builder builder() {
         return new Builder();
@@ -118,6 +128,7 @@ public class LeaveRequestDto {
         private Integer holdDays;
         private String leaveDuration;
         private Double numberOfDays;
+        private String documentHandle;
 
         public Builder startDate(LocalDate startDate) {
             this.startDate = startDate;
@@ -159,8 +170,15 @@ public class LeaveRequestDto {
             return this;
         }
 
+        public Builder documentHandle(String documentHandle) {
+            this.documentHandle = documentHandle;
+            return this;
+        }
+
         public LeaveRequestDto build() {
-            return new LeaveRequestDto(startDate, endDate, reason, type, employeeId, holdDays, leaveDuration, numberOfDays);
+            LeaveRequestDto dto = new LeaveRequestDto(startDate, endDate, reason, type, employeeId, holdDays, leaveDuration, numberOfDays);
+            dto.setDocumentHandle(documentHandle);
+            return dto;
         }
     }
 
@@ -176,12 +194,13 @@ public class LeaveRequestDto {
                 java.util.Objects.equals(employeeId, that.employeeId) &&
                 java.util.Objects.equals(holdDays, that.holdDays) &&
                 java.util.Objects.equals(leaveDuration, that.leaveDuration) &&
-                java.util.Objects.equals(numberOfDays, that.numberOfDays);
+                java.util.Objects.equals(numberOfDays, that.numberOfDays) &&
+                java.util.Objects.equals(documentHandle, that.documentHandle);
     }
 
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(startDate, endDate, reason, type, employeeId, holdDays, leaveDuration, numberOfDays);
+        return java.util.Objects.hash(startDate, endDate, reason, type, employeeId, holdDays, leaveDuration, numberOfDays, documentHandle);
     }
 
     @Override
@@ -195,6 +214,7 @@ public class LeaveRequestDto {
                 ", holdDays=" + holdDays +
                 ", leaveDuration='" + leaveDuration + '\'' +
                 ", numberOfDays=" + numberOfDays +
+                ", documentHandle='" + documentHandle + '\'' +
                 '}';
     }
 }
\ No newline at end of file
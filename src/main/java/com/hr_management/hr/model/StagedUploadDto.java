@@ -0,0 +1,59 @@
+package com.hr_management.hr.model;
+
+import java.time.LocalDateTime;
+
+public class StagedUploadDto {
+    private String handle;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private LocalDateTime expiresAt;
+
+    public StagedUploadDto(String handle, String fileName, String contentType, long size, LocalDateTime expiresAt) {
+        this.handle = handle;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public void setHandle(String handle) {
+        this.handle = handle;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hr_management.hr.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hr_management.hr.entity.ChunkedUpload;
+
+@Repository
+public interface ChunkedUploadRepository extends JpaRepository<ChunkedUpload, Long> {
+    Optional<ChunkedUpload> findByUploadIdAndEmployeeId(String uploadId, Long employeeId);
+
+    long countByEmployeeIdAndExpiresAtAfter(Long employeeId, LocalDateTime now);
+
+    @Query("SELECT c FROM ChunkedUpload c WHERE c.expiresAt <= :now ORDER BY c.expiresAt")
+    List<ChunkedUpload> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.hr_management.hr.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hr_management.hr.entity.EmailOutbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Pending emails whose next attempt is due, oldest first. Rows already locked by another
+     * dispatcher are skipped rather than waited on (lock timeout -2 = SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM EmailOutbox o WHERE o.status = com.hr_management.hr.enums.EmailOutboxStatus.PENDING " +
+           "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt, o.id")
+    List<EmailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = com.hr_management.hr.enums.EmailOutboxStatus.SENT " +
+           "AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
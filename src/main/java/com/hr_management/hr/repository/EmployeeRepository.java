@@ -1,8 +1,12 @@
 package com.hr_management.hr.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hr_management.hr.entity.Employee;
@@ -12,4 +16,14 @@ import com.hr_management.hr.entity.User;
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByUser(User user);
     boolean existsByUser(User user);
+
+    /**
+     * All employees with their user accounts loaded in the same query.
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT e FROM Employee e")
+    List<Employee> findAllWithUser();
+
+    @Query("SELECT e.id FROM Employee e WHERE e.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.hr_management.hr.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hr_management.hr.entity.GraphToken;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface GraphTokenRepository extends JpaRepository<GraphToken, Long> {
+    Optional<GraphToken> findByUserId(Long userId);
+
+    /**
+     * Tokens expiring before the given time that no instance is currently refreshing, soonest first.
+     * Rows locked by another instance's claim are skipped rather than waited on (lock timeout -2 = SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM GraphToken t WHERE t.refreshToken IS NOT NULL AND t.expiresAt <= :before " +
+           "AND (t.refreshClaimedUntil IS NULL OR t.refreshClaimedUntil <= :now) ORDER BY t.expiresAt")
+    List<GraphToken> findDueForRefreshForUpdate(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    /**
+     * Claims the user's token for an inline refresh, unless another refresh holds it or it has been replaced.
+     * @return 1 if the claim was taken
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE GraphToken t SET t.refreshClaimedUntil = :until WHERE t.userId = :userId " +
+           "AND t.refreshToken = :refreshToken AND (t.refreshClaimedUntil IS NULL OR t.refreshClaimedUntil <= :now)")
+    int claimForRefresh(@Param("userId") Long userId, @Param("refreshToken") String refreshToken,
+                        @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /**
+     * Stores refreshed tokens and releases the claim, but only if the row still holds the refresh token
+     * that was used, so tokens stored by a newer sign-in aren't overwritten.
+     * @return 1 if the tokens were stored
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE GraphToken t SET t.accessToken = :accessToken, t.refreshToken = :newRefreshToken, " +
+           "t.expiresAt = :expiresAt, t.updatedAt = :now, t.refreshClaimedUntil = NULL " +
+           "WHERE t.userId = :userId AND t.refreshToken = :oldRefreshToken")
+    int replaceRefreshed(@Param("userId") Long userId, @Param("oldRefreshToken") String oldRefreshToken,
+                         @Param("accessToken") String accessToken, @Param("newRefreshToken") String newRefreshToken,
+                         @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    // Only while the row still holds the rejected refresh token; a newer sign-in's tokens are kept
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GraphToken t WHERE t.userId = :userId AND t.refreshToken = :refreshToken")
+    int deleteByUserIdAndRefreshToken(@Param("userId") Long userId, @Param("refreshToken") String refreshToken);
+}
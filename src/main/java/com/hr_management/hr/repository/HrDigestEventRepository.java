@@ -0,0 +1,27 @@
+package com.hr_management.hr.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.hr_management.hr.entity.HrDigestEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface HrDigestEventRepository extends JpaRepository<HrDigestEvent, Long> {
+
+    /**
+     * Oldest buffered events, skipping rows another flush has already locked (lock timeout -2 = SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM HrDigestEvent e ORDER BY e.id")
+    List<HrDigestEvent> findOldestForUpdate(Pageable pageable);
+}
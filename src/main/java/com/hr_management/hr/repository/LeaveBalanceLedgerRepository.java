@@ -0,0 +1,55 @@
+package com.hr_management.hr.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hr_management.hr.entity.LeaveBalanceLedger;
+import com.hr_management.hr.enums.LeaveType;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface LeaveBalanceLedgerRepository extends JpaRepository<LeaveBalanceLedger, Long> {
+
+    @Query("SELECT b.usedDays FROM LeaveBalanceLedger b WHERE b.employee.id = :employeeId AND b.leaveType = :leaveType AND b.year = :year")
+    Optional<Double> findUsedDays(@Param("employeeId") Long employeeId,
+                                  @Param("leaveType") LeaveType leaveType,
+                                  @Param("year") Integer year);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM LeaveBalanceLedger b WHERE b.employee.id = :employeeId AND b.leaveType = :leaveType AND b.year = :year")
+    Optional<LeaveBalanceLedger> findForUpdate(@Param("employeeId") Long employeeId,
+                                             @Param("leaveType") LeaveType leaveType,
+                                             @Param("year") Integer year);
+
+    /**
+     * Creates the zeroed row for an (employee, type, year) unless it already exists. Run before
+     * {@link #findForUpdate} so concurrent first submissions meet on the unique key instead of both inserting.
+     * The no-op update takes an exclusive lock on an existing row, so it never upgrades a shared lock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO leave_balance_ledger (employee_id, leave_type, ledger_year, used_days, pending_days, updated_at) " +
+                   "VALUES (:employeeId, :leaveType, :year, 0, 0, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("employeeId") Long employeeId,
+                       @Param("leaveType") String leaveType,
+                       @Param("year") Integer year);
+
+    List<LeaveBalanceLedger> findByEmployeeIdAndYearIn(Long employeeId, Collection<Integer> years);
+
+    @Modifying
+    @Query("DELETE FROM LeaveBalanceLedger b WHERE b.employee.id = :employeeId")
+    void deleteByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Modifying
+    @Query("DELETE FROM LeaveBalanceLedger b")
+    void deleteAllRows();
+}
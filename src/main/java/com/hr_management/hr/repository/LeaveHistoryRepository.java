@@ -0,0 +1,31 @@
+package com.hr_management.hr.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+
+/**
+ * Leave history queries built per filter combination, so each variant only carries the predicates it
+ * needs and can be served from the matching {@code idx_leaves_*_keyset} index.
+ */
+public interface LeaveHistoryRepository {
+
+    /**
+     * One page of leave history ordered by (statusPriority, applicationDate desc, id desc), starting after the
+     * given cursor position, with each leave's employee and user fetched in the same query. Null filters and a
+     * null cursor are ignored; pass {@code size + 1} as the limit to find out whether another page follows.
+     */
+    List<Leave> findHistoryPage(Long employeeId,
+                                String department,
+                                LeaveType leaveType,
+                                LeaveStatus status,
+                                LocalDate fromDate,
+                                LocalDate toDate,
+                                Integer cursorPriority,
+                                LocalDate cursorDate,
+                                Long cursorId,
+                                int limit);
+}
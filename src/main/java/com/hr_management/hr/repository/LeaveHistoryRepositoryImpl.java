@@ -0,0 +1,100 @@
+package com.hr_management.hr.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.hr_management.hr.entity.Employee;
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class LeaveHistoryRepositoryImpl implements LeaveHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Leave> findHistoryPage(Long employeeId,
+                                       String department,
+                                       LeaveType leaveType,
+                                       LeaveStatus status,
+                                       LocalDate fromDate,
+                                       LocalDate toDate,
+                                       Integer cursorPriority,
+                                       LocalDate cursorDate,
+                                       Long cursorId,
+                                       int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Leave> query = cb.createQuery(Leave.class);
+        Root<Leave> leave = query.from(Leave.class);
+        // Hibernate's fetches are also joins, which lets the filters below reuse the fetched employee
+        Fetch<Leave, Employee> employeeFetch = leave.fetch("employee");
+        Join<Leave, Employee> employee = (Join<Leave, Employee>) employeeFetch;
+        employee.fetch("user", JoinType.LEFT);
+
+        Path<Integer> priority = leave.get("statusPriority");
+        Path<LocalDate> applicationDate = leave.get("applicationDate");
+        Path<Long> id = leave.get("id");
+
+        // Only the filters that were given end up in the WHERE clause
+        List<Predicate> predicates = new ArrayList<>();
+        if (employeeId != null) {
+            predicates.add(cb.equal(employee.get("id"), employeeId));
+        }
+        if (department != null) {
+            predicates.add(cb.equal(employee.get("department"), department));
+        }
+        if (leaveType != null) {
+            predicates.add(cb.equal(leave.get("leaveType"), leaveType));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(leave.get("status"), status));
+        }
+        if (fromDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(applicationDate, fromDate));
+        }
+        if (toDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(applicationDate, toDate));
+        }
+
+        // A status filter fixes the priority, so those pages sort on (application_date, id) alone and
+        // match idx_leaves_status_keyset without a constant leading sort column
+        boolean singlePriority = status != null;
+        if (cursorId != null) {
+            Predicate afterInGroup = cb.or(
+                    cb.lessThan(applicationDate, cursorDate),
+                    cb.and(cb.equal(applicationDate, cursorDate), cb.lessThan(id, cursorId)));
+            predicates.add(singlePriority
+                    ? afterInGroup
+                    : cb.or(cb.greaterThan(priority, cursorPriority),
+                            cb.and(cb.equal(priority, cursorPriority), afterInGroup)));
+        }
+
+        List<Order> order = new ArrayList<>();
+        if (!singlePriority) {
+            order.add(cb.asc(priority));
+        }
+        order.add(cb.desc(applicationDate));
+        order.add(cb.desc(id));
+
+        query.select(leave)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(order);
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,13 +2,69 @@ package com.hr_management.hr.repository;
 
 import com.hr_management.hr.entity.Leave;
 import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LeaveRepository extends JpaRepository<Leave, Long> {
+public interface LeaveRepository extends JpaRepository<Leave, Long>, LeaveHistoryRepository {
     List<Leave> findByEmployeeId(Long employeeId);
     List<Leave> findByStatus(LeaveStatus status);
     List<Leave> findByEmployeeIdAndStatus(Long employeeId, LeaveStatus status);
-} 
\ No newline at end of file
+    List<Leave> findByEmployeeIdAndStartDateBetween(Long employeeId, LocalDate from, LocalDate to);
+
+    /**
+     * Leaves of several employees at once, with each leave's employee and user fetched in the same query.
+     */
+    @Query("SELECT l FROM Leave l JOIN FETCH l.employee e LEFT JOIN FETCH e.user " +
+           "WHERE e.id IN :employeeIds ORDER BY e.id, l.id")
+    List<Leave> findByEmployeeIdIn(@Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Leave days per employee, type, year and status, as used to (re)build the balance ledger.
+     * Half-day leaves count as 0.5 regardless of the stored number of days.
+     */
+    @Query("SELECT l.employee.id AS employeeId, l.leaveType AS leaveType, YEAR(l.startDate) AS year, " +
+           "l.status AS status, " +
+           "SUM(CASE WHEN l.leaveDuration = com.hr_management.hr.enums.LeaveDuration.HALF_DAY THEN 0.5 ELSE l.numberOfDays END) AS days " +
+           "FROM Leave l " +
+           "WHERE l.status IN (com.hr_management.hr.enums.LeaveStatus.PENDING, com.hr_management.hr.enums.LeaveStatus.APPROVED) " +
+           "GROUP BY l.employee.id, l.leaveType, YEAR(l.startDate), l.status")
+    List<LeaveDaysTotal> sumLeaveDays();
+
+    @Query("SELECT l.employee.id AS employeeId, l.leaveType AS leaveType, YEAR(l.startDate) AS year, " +
+           "l.status AS status, " +
+           "SUM(CASE WHEN l.leaveDuration = com.hr_management.hr.enums.LeaveDuration.HALF_DAY THEN 0.5 ELSE l.numberOfDays END) AS days " +
+           "FROM Leave l " +
+           "WHERE l.employee.id = :employeeId " +
+           "AND l.status IN (com.hr_management.hr.enums.LeaveStatus.PENDING, com.hr_management.hr.enums.LeaveStatus.APPROVED) " +
+           "GROUP BY l.employee.id, l.leaveType, YEAR(l.startDate), l.status")
+    List<LeaveDaysTotal> sumLeaveDaysByEmployeeId(@Param("employeeId") Long employeeId);
+
+    /**
+     * Fills in the history sort rank for rows written before the column existed.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Leave l SET l.statusPriority = " +
+           "CASE WHEN l.status = com.hr_management.hr.enums.LeaveStatus.PENDING THEN 0 ELSE 1 END " +
+           "WHERE l.statusPriority IS NULL")
+    int backfillStatusPriority();
+
+    interface LeaveDaysTotal {
+        Long getEmployeeId();
+        LeaveType getLeaveType();
+        Integer getYear();
+        LeaveStatus getStatus();
+        Double getDays();
+    }
+}
@@ -0,0 +1,31 @@
+package com.hr_management.hr.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.hr_management.hr.entity.StagedUpload;
+
+@Repository
+public interface StagedUploadRepository extends JpaRepository<StagedUpload, Long> {
+    Optional<StagedUpload> findByHandleAndEmployeeId(String handle, Long employeeId);
+
+    @Query("SELECT s FROM StagedUpload s WHERE s.expiresAt <= :now ORDER BY s.expiresAt")
+    List<StagedUpload> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claims the row: only one of a promotion and a sweep deletes it
+    @Modifying
+    @Query("DELETE FROM StagedUpload s WHERE s.id = :id AND s.expiresAt > :now")
+    int deleteUnexpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM StagedUpload s WHERE s.id = :id AND s.expiresAt <= :now")
+    int deleteExpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
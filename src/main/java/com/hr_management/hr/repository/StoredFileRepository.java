@@ -0,0 +1,32 @@
+package com.hr_management.hr.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hr_management.hr.entity.StoredFile;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+    Optional<StoredFile> findByPath(String path);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount + 1 WHERE f.path = :path")
+    int incrementRefCount(@Param("path") String path);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount - 1 WHERE f.path = :path AND f.refCount > 0")
+    int decrementRefCount(@Param("path") String path);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.path = :path AND f.refCount = 0")
+    int deleteIfUnreferenced(@Param("path") String path);
+}
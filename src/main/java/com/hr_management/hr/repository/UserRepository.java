@@ -1,10 +1,17 @@
 package com.hr_management.hr.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.hr_management.hr.entity.Role;
 import com.hr_management.hr.entity.User;
 
 @Repository
@@ -16,4 +23,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByProviderAndProviderId(String provider, String providerId);
     Optional<User> findByMicrosoftId(String microsoftId);
+
+    /**
+     * Email addresses of enabled users holding any of the given roles, without loading the users themselves.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.role IN :roles AND u.enabled = true AND u.email IS NOT NULL")
+    List<String> findEnabledEmailsByRoleIn(@Param("roles") Collection<Role> roles);
+
+    /**
+     * Users whose email or username matches the identifier, with their employee record, in one query.
+     * At most two rows: one matching by email and one by username.
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.employee WHERE u.email = :identifier OR u.username = :identifier")
+    List<User> findAllByEmailOrUsernameWithEmployee(@Param("identifier") String identifier);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.employee WHERE u.id = :id")
+    Optional<User> findByIdWithEmployee(@Param("id") Long id);
+
+    /**
+     * Sets only the profile picture, so background updates can't overwrite other fields with stale values.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.profilePicture = :profilePicture WHERE u.id = :id")
+    int updateProfilePicture(@Param("id") Long id, @Param("profilePicture") String profilePicture);
+
+    // Only replaces the picture the caller expects, so a newer upload isn't overwritten
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.profilePicture = :replacement WHERE u.id = :id AND u.profilePicture = :expected")
+    int replaceProfilePicture(@Param("id") Long id, @Param("expected") String expected, @Param("replacement") String replacement);
 } 
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.hr_management.hr.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hr_management.hr.util.StripedRateLimiter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits the public credential endpoints per client IP and per account identifier, so
+ * repeated attempts can't be used to burn BCrypt time or send password reset emails in bulk.
+ * Rejected requests get a 429 with Retry-After before any lookup, hash or email happens.
+ * Bodies are buffered up to {@value #MAX_BODY_BYTES} bytes whatever Content-Length says, so
+ * chunked requests are limited per account too; larger bodies are answered with 413.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+
+    // Request body field holding the account identifier, per limited endpoint
+    private static final Map<String, String> IDENTIFIER_FIELDS = Map.of(
+        "/api/auth/login", "username",
+        "/api/auth/forgot-password", "email",
+        "/api/auth/reset-password", "token"
+    );
+
+    // The limited endpoints take a few small JSON fields; anything larger is rejected with 413
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.rate-limit.stripes:65536}")
+    private int stripes;
+
+    @Value("${app.security.rate-limit.ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${app.security.rate-limit.ip.per-minute:10}")
+    private int ipPerMinute;
+
+    @Value("${app.security.rate-limit.account.burst:5}")
+    private int accountBurst;
+
+    @Value("${app.security.rate-limit.account.per-minute:2}")
+    private int accountPerMinute;
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For, or clients can pick their own key
+    @Value("${app.security.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private StripedRateLimiter ipLimiter;
+    private StripedRateLimiter accountLimiter;
+
+    public AuthRateLimitFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void init() {
+        ipLimiter = new StripedRateLimiter(stripes, ipBurst, ipPerMinute);
+        accountLimiter = new StripedRateLimiter(stripes, accountBurst, accountPerMinute);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod())
+                || !IDENTIFIER_FIELDS.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        String clientIp = clientIp(request);
+
+        long waitMillis = ipLimiter.tryAcquire(clientIp);
+        if (waitMillis > 0) {
+            reject(response, waitMillis, "Rate limit exceeded for {} from {}", path, clientIp);
+            return;
+        }
+
+        // Content-Length is absent for chunked bodies, so read one byte past the limit to detect them
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            rejectTooLarge(response, path, clientIp);
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+        if (cached.tooLarge) {
+            rejectTooLarge(response, path, clientIp);
+            return;
+        }
+
+        String identifier = identifier(cached.body, IDENTIFIER_FIELDS.get(path));
+        if (identifier != null) {
+            waitMillis = accountLimiter.tryAcquire(path + '|' + identifier.trim().toLowerCase(Locale.ROOT));
+            if (waitMillis > 0) {
+                reject(response, waitMillis, "Rate limit exceeded for {} on account {}", path, identifier);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cached, response);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String identifier(byte[] body, String field) {
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            return value != null && value.isTextual() && !value.asText().isBlank() ? value.asText() : null;
+        } catch (IOException | RuntimeException e) {
+            // Malformed bodies are left for the controller to reject
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis, String message, String path, String key)
+            throws IOException {
+        logger.warn(message, path, key);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        response.sendError(429, "Too many requests, please retry later");
+    }
+
+    private void rejectTooLarge(HttpServletResponse response, String path, String clientIp) throws IOException {
+        logger.warn("Request body over {} bytes for {} from {}", MAX_BODY_BYTES, path, clientIp);
+        response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body too large");
+    }
+
+    /**
+     * Buffers the (small) request body so it can be read here and again by the controller.
+     * Reads at most one byte more than the limit, which is enough to tell an oversized body apart.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final boolean tooLarge;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            byte[] read = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            this.tooLarge = read.length > MAX_BODY_BYTES;
+            this.body = tooLarge ? new byte[0] : read;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it can be read, to the end, straight away
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
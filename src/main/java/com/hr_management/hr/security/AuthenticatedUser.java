@@ -0,0 +1,126 @@
+package com.hr_management.hr.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hr_management.hr.entity.Role;
+import com.hr_management.hr.entity.User;
+
+/**
+ * Immutable snapshot of the fields authentication needs from a {@link User}. This is the principal
+ * of JWT-authenticated requests and what {@link PrincipalCache} holds, so it is safe to share across
+ * threads. Code that changes a user must load the entity by {@link #getId()} instead.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final boolean enabled;
+    private final int tokenVersion;
+    private final Long employeeId;
+    private final List<GrantedAuthority> authorities;
+
+    private AuthenticatedUser(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        this.enabled = user.isEnabled();
+        this.tokenVersion = user.getTokenVersion();
+        this.employeeId = user.getEmployee() != null ? user.getEmployee().getId() : null;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    /**
+     * @return the user's employee id, or null if the user had no employee record when loaded
+     */
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AuthenticatedUser that = (AuthenticatedUser) o;
+        return id != null && id.equals(that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", role=" + role +
+                ", enabled=" + enabled +
+                '}';
+    }
+}
@@ -0,0 +1,172 @@
+package com.hr_management.hr.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.hr_management.hr.exception.ServiceOverloadedException;
+
+/**
+ * BCrypt encoder that runs every hash on a fixed-size pool with a bounded queue. When both are
+ * full the caller is rejected straight away with a {@link ServiceOverloadedException} (503), so
+ * a burst of logins holds at most threads + queue request threads instead of all of them.
+ */
+@ManagedResource(objectName = "com.hr_management.hr:type=PasswordHashing", description = "Password hashing pool")
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Picks the highest BCrypt strength between min and max whose hash time stays within the
+     * target on this machine. Each step doubles the cost, so at most one step past the target is measured.
+     */
+    public static int calibrateStrength(long targetMillis, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        while (strength < maxStrength && measureMillis(strength + 1) <= targetMillis) {
+            strength++;
+        }
+        logger.info("Password hashing calibrated to BCrypt strength {} for a {} ms target", strength, targetMillis);
+        return strength;
+    }
+
+    private static long measureMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        // Best of two, so JIT warm-up on the first run doesn't understate the achievable strength
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return hash.call();
+                } finally {
+                    record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many sign-in attempts in progress, please retry shortly", 1);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void record(long nanos) {
+        hashCount.increment();
+        hashNanos.add(nanos);
+        maxHashNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @ManagedAttribute(description = "BCrypt strength in use")
+    public int getStrength() {
+        return strength;
+    }
+
+    @ManagedAttribute(description = "Hashes waiting for a thread")
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Hashes currently running")
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Hashes completed since startup")
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+
+    @ManagedAttribute(description = "Mean hash time in milliseconds")
+    public double getMeanHashMillis() {
+        long count = hashCount.sum();
+        return count == 0 ? 0.0 : hashNanos.sum() / (count * 1_000_000.0);
+    }
+
+    @ManagedAttribute(description = "Slowest hash time in milliseconds")
+    public double getMaxHashMillis() {
+        return maxHashNanos.get() / 1_000_000.0;
+    }
+
+    @ManagedAttribute(description = "Hashes rejected because the pool and queue were full")
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,67 @@
+package com.hr_management.hr.security;
+
+import com.hr_management.hr.entity.Role;
+import com.hr_management.hr.exception.ResourceNotFoundException;
+
+/**
+ * The authenticated caller as described by its verified JWT claims. Declare a parameter of
+ * this type on a controller method to receive it without loading the user or employee.
+ */
+public final class CallerContext {
+
+    private final Long userId;
+    private final Long employeeId;
+    private final String username;
+    private final Role role;
+
+    public CallerContext(Long userId, Long employeeId, String username, Role role) {
+        this.userId = userId;
+        this.employeeId = employeeId;
+        this.username = username;
+        this.role = role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the caller's employee id, or null if the caller has no employee record
+     */
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isAdminOrHr() {
+        return role == Role.ADMIN || role == Role.HR_MANAGER;
+    }
+
+    /**
+     * @return the caller's employee id
+     * @throws ResourceNotFoundException if the caller has no employee record
+     */
+    public Long requireEmployeeId() {
+        if (employeeId == null) {
+            throw new ResourceNotFoundException("Employee", "user", userId != null ? userId : 0L);
+        }
+        return employeeId;
+    }
+
+    @Override
+    public String toString() {
+        return "CallerContext{" +
+                "userId=" + userId +
+                ", employeeId=" + employeeId +
+                ", username='" + username + '\'' +
+                ", role=" + role +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.hr_management.hr.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.hr_management.hr.entity.Role;
+import com.hr_management.hr.repository.EmployeeRepository;
+import com.hr_management.hr.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Resolves {@link CallerContext} controller parameters from the claims verified by
+ * {@link JwtAuthenticationFilter}. Tokens issued before the caller claims were added fall back
+ * to the authenticated principal and, for the employee id, a single id lookup.
+ */
+@Component
+public class CallerContextArgumentResolver implements HandlerMethodArgumentResolver {
+
+    static final String CLAIMS_ATTRIBUTE = CallerContextArgumentResolver.class.getName() + ".claims";
+
+    private final EmployeeRepository employeeRepository;
+
+    public CallerContextArgumentResolver(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        return CallerContext.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public CallerContext resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                         @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Claims claims = (Claims) webRequest.getAttribute(CLAIMS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (claims != null && claims.get(JwtService.CLAIM_USER_ID) != null) {
+            Number userId = claims.get(JwtService.CLAIM_USER_ID, Number.class);
+            Number employeeId = claims.get(JwtService.CLAIM_EMPLOYEE_ID, Number.class);
+            String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+            return new CallerContext(
+                    userId.longValue(),
+                    employeeId != null ? employeeId.longValue() : lookUpEmployeeId(userId.longValue()),
+                    claims.getSubject(),
+                    role != null ? Role.valueOf(role) : null);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            Long employeeId = user.getEmployeeId() != null ? user.getEmployeeId() : lookUpEmployeeId(user.getId());
+            return new CallerContext(user.getId(), employeeId, user.getUsername(), user.getRole());
+        }
+        throw new AccessDeniedException("User not authenticated");
+    }
+
+    private Long lookUpEmployeeId(Long userId) {
+        return employeeRepository.findIdByUserId(userId).orElse(null);
+    }
+}
@@ -27,11 +27,13 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
     private final UserRepository userRepository;
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
-    public CustomOAuth2UserService(UserRepository userRepository, EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder) {
+    public CustomOAuth2UserService(UserRepository userRepository, EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -79,6 +81,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
              log.debug("Updating Microsoft ID for user {}", user.getEmail());
              user.setMicrosoftId(microsoftId);
              userRepository.save(user);
+             principalCache.evict(user.getId());
         }
         // Potentially update the associated Employee's name if desired
     }
@@ -1,11 +1,15 @@
 package com.hr_management.hr.security;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.hr_management.hr.entity.User;
 import com.hr_management.hr.repository.UserRepository;
 
 @Service
@@ -13,16 +17,44 @@ import com.hr_management.hr.repository.UserRepository;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        return userRepository.findByEmail(usernameOrEmail)
-                .orElseGet(() -> userRepository.findByUsername(usernameOrEmail)
-                        .orElseThrow(() -> new UsernameNotFoundException(
-                                "User not found with username or email: " + usernameOrEmail)));
+        AuthenticatedUser cached = principalCache.get(usernameOrEmail);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user = findUser(usernameOrEmail).orElseThrow(() -> new UsernameNotFoundException(
+                "User not found with username or email: " + usernameOrEmail));
+        AuthenticatedUser principal = AuthenticatedUser.of(user);
+        principalCache.put(usernameOrEmail, principal);
+        return principal;
+    }
+
+    /**
+     * Loads the user for a login, bypassing the cache so the response can be built from this row,
+     * and caches its snapshot so the authentication that follows doesn't query again.
+     * @return the user with its employee, or empty if none matches; authentication then fails as usual
+     */
+    public Optional<User> loadForLogin(String usernameOrEmail) {
+        Optional<User> user = findUser(usernameOrEmail);
+        user.ifPresent(found -> principalCache.put(usernameOrEmail, AuthenticatedUser.of(found)));
+        return user;
+    }
+
+    // One query for both lookups; an email match wins over a username match
+    private Optional<User> findUser(String usernameOrEmail) {
+        List<User> matches = userRepository.findAllByEmailOrUsernameWithEmployee(usernameOrEmail);
+        return matches.stream()
+                .filter(candidate -> usernameOrEmail.equals(candidate.getEmail()))
+                .findFirst()
+                .or(() -> matches.stream().findFirst());
     }
 }
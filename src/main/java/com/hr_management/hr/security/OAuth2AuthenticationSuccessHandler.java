@@ -40,16 +40,18 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
 
     @Value("${app.oauth2.redirectUri}")
     private String redirectUri;
 
-    public OAuth2AuthenticationSuccessHandler(JwtService jwtService, UserRepository userRepository, EmployeeRepository employeeRepository, EmployeeService employeeService, PasswordEncoder passwordEncoder, ObjectMapper objectMapper) {
+    public OAuth2AuthenticationSuccessHandler(JwtService jwtService, UserRepository userRepository, EmployeeRepository employeeRepository, EmployeeService employeeService, PasswordEncoder passwordEncoder, ObjectMapper objectMapper, PrincipalCache principalCache) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
         this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -110,6 +112,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
             }
             
             user = userRepository.save(user);
+            principalCache.evict(user.getId());
             
             // Update or create employee record
             Optional<Employee> employeeOptional = employeeRepository.findByUser(user);
@@ -137,6 +140,8 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
             employee = createEmployee(user, givenName, familyName, fullName, microsoftId);
         }
         
+        user.setEmployee(employee);
+
         // Generate token using the user's username (email) as the subject
         String token = jwtService.generateToken(user);
         log.debug("Generated JWT token for user '{}'.", email);
@@ -0,0 +1,69 @@
+package com.hr_management.hr.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hr_management.hr.util.BoundedCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Recently loaded principals keyed by the username or email they were looked up with, so
+ * authenticated requests don't query the users table. Entries expire after a short TTL and are
+ * evicted as soon as a user's status, password, role, username or email changes.
+ * Entries are immutable {@link AuthenticatedUser} snapshots, never entities: they are shared between
+ * requests, so anything that changes a user has to load it from the repository first.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.security.principal-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private BoundedCache<String, AuthenticatedUser> principals;
+
+    @PostConstruct
+    void init() {
+        principals = new BoundedCache<>(maxSize);
+    }
+
+    public AuthenticatedUser get(String usernameOrEmail) {
+        return principals.get(usernameOrEmail);
+    }
+
+    public void put(String usernameOrEmail, AuthenticatedUser user) {
+        principals.put(usernameOrEmail, user, System.currentTimeMillis() + ttlMs);
+    }
+
+    /**
+     * Evicts every cached entry for the user now and again once the surrounding transaction
+     * commits, so a concurrent lookup can't re-cache the old state in between.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        principals.clear();
+    }
+
+    private void evictNow(Long userId) {
+        principals.invalidateIf((key, user) -> userId.equals(user.getId()));
+    }
+}
@@ -0,0 +1,341 @@
+package com.hr_management.hr.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.PrincipalCache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates fixed-size square JPEG avatars from an uploaded profile picture in the background.
+ * Derivatives are stored next to the original as {@code <original>-<size>.jpg}; once they are
+ * written, the user's profile picture is switched from the original to the display size.
+ * Clients needing another size replace the size in that URL.
+ */
+@Service
+public class AvatarDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarDerivativeService.class);
+
+    private static final String FORMAT = "jpg";
+
+    private final FileStorageService fileStorageService;
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+
+    @Value("${app.avatar.sizes:32,64,256}")
+    private int[] sizes;
+
+    // Size the profile picture URL points at once derivatives are ready
+    @Value("${app.avatar.display-size:256}")
+    private int displaySize;
+
+    @Value("${app.avatar.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.avatar.threads:1}")
+    private int threads;
+
+    @Value("${app.avatar.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    public AvatarDerivativeService(FileStorageService fileStorageService,
+                                   UserRepository userRepository,
+                                   PrincipalCache principalCache) {
+        this.fileStorageService = fileStorageService;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+    }
+
+    @PostConstruct
+    void init() {
+        sizes = IntStream.concat(Arrays.stream(sizes), IntStream.of(displaySize)).distinct().sorted().toArray();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues derivative generation once the surrounding transaction commits, or immediately when there is none.
+     * @param originalPath stored path of the uploaded picture, relative to the upload directory
+     * @param baseUrl public base URL of this application, captured on the request thread
+     */
+    public void generateAfterCommit(Long userId, String originalPath, String baseUrl) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(userId, originalPath, baseUrl);
+                }
+            });
+        } else {
+            submit(userId, originalPath, baseUrl);
+        }
+    }
+
+    private void submit(Long userId, String originalPath, String baseUrl) {
+        try {
+            executor.execute(() -> generate(userId, originalPath, baseUrl));
+        } catch (RejectedExecutionException e) {
+            // The original stays in use; derivatives are generated on the next upload
+            logger.warn("Avatar queue full, skipping derivatives for user {}", userId);
+        }
+    }
+
+    private void generate(Long userId, String originalPath, String baseUrl) {
+        try {
+            // Same picture uploaded before: derivatives are already there
+            if (Arrays.stream(sizes).anyMatch(size -> !exists(derivativePath(originalPath, size)))) {
+                BufferedImage square = readSquare(fileStorageService.getRootLocation().resolve(originalPath));
+                if (square == null) {
+                    logger.debug("Unsupported image format for {}, keeping the original", originalPath);
+                    return;
+                }
+                for (int size : sizes) {
+                    if (!fileStorageService.storeDerivative(derivativePath(originalPath, size), encode(resize(square, size)))) {
+                        logger.debug("{} was released before its avatars were written", originalPath);
+                        return;
+                    }
+                }
+            }
+
+            String displayPath = derivativePath(originalPath, displaySize);
+            String originalUrl = baseUrl + "/uploads/" + originalPath;
+            String displayUrl = baseUrl + "/uploads/" + displayPath;
+            if (userRepository.replaceProfilePicture(userId, originalUrl, displayUrl) > 0) {
+                principalCache.evict(userId);
+                logger.debug("Switched profile picture of user {} to {}", userId, displayUrl);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not generate avatars for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private String derivativePath(String originalPath, int size) {
+        return fileStorageService.derivativePath(originalPath, String.valueOf(size), FORMAT);
+    }
+
+    private boolean exists(String relativePath) {
+        return Files.exists(fileStorageService.getRootLocation().resolve(relativePath));
+    }
+
+    /**
+     * Decodes the centre square of the image as it is meant to be displayed, subsampled while
+     * decoding so large photos aren't fully decoded just to be shrunk. Cameras store JPEGs in
+     * sensor orientation with an EXIF tag saying how to turn them; the square is taken from the
+     * turned image and the decoded pixels are turned to match.
+     */
+    private BufferedImage readSquare(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int orientation = "jpeg".equalsIgnoreCase(reader.getFormatName()) ? exifOrientation(file) : 1;
+                int side = Math.min(width, height);
+                // Keep at least twice the largest size for a clean downscale
+                int step = Math.max(1, side / (sizes[sizes.length - 1] * 2));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(sourceSquare(orientation, width, height, side));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return orient(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Centre square of the displayed image, in the stored image's coordinates
+    private static Rectangle sourceSquare(int orientation, int width, int height, int side) {
+        boolean transposed = orientation >= 5;
+        int displayedWidth = transposed ? height : width;
+        int displayedHeight = transposed ? width : height;
+        int[] first = toStored(orientation, (displayedWidth - side) / 2, (displayedHeight - side) / 2, width, height);
+        int[] last = toStored(orientation, (displayedWidth - side) / 2 + side - 1,
+                (displayedHeight - side) / 2 + side - 1, width, height);
+        return new Rectangle(Math.min(first[0], last[0]), Math.min(first[1], last[1]), side, side);
+    }
+
+    // Stored pixel shown at (x, y) for an EXIF orientation, 1 to 8
+    private static int[] toStored(int orientation, int x, int y, int width, int height) {
+        switch (orientation) {
+            case 2: return new int[] { width - 1 - x, y };
+            case 3: return new int[] { width - 1 - x, height - 1 - y };
+            case 4: return new int[] { x, height - 1 - y };
+            case 5: return new int[] { y, x };
+            case 6: return new int[] { y, height - 1 - x };
+            case 7: return new int[] { width - 1 - y, height - 1 - x };
+            case 8: return new int[] { width - 1 - y, x };
+            default: return new int[] { x, y };
+        }
+    }
+
+    // Turns a decoded square as the orientation says; the square is small, so per-pixel copying is fine
+    private static BufferedImage orient(BufferedImage square, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return square;
+        }
+        int side = square.getWidth();
+        BufferedImage target = new BufferedImage(side, side,
+                square.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int[] stored = toStored(orientation, x, y, side, side);
+                target.setRGB(x, y, square.getRGB(stored[0], stored[1]));
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Reads the orientation tag (0x0112) from a JPEG's EXIF segment. The segments are scanned
+     * directly: ImageIO's JPEG metadata rejects common camera files, e.g. EXIF before JFIF.
+     * @return the orientation, or 1 (as stored) if there is none or it can't be read
+     */
+    private static int exifOrientation(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Metadata segments all come before the start of scan
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == 0xFFE1) {
+                    int orientation = orientationTag(in.readNBytes(length));
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read EXIF orientation of {}: {}", file, e.getMessage());
+            return 1;
+        }
+    }
+
+    // APP1 payload: "Exif\0\0", then a TIFF header and IFD0; returns 0 if this isn't an EXIF segment
+    private static int orientationTag(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xffff;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xffff) == 0x0112) {
+                int orientation = tiff.getShort(entry + 8) & 0xffff;
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 0;
+    }
+
+    // Halves in steps before the final resize; a single bilinear pass from a large image aliases badly
+    private static BufferedImage resize(BufferedImage source, int size) {
+        BufferedImage current = source;
+        int side = current.getWidth();
+        while (side / 2 >= size) {
+            side /= 2;
+            current = draw(current, side);
+        }
+        return side == size && current != source ? current : draw(current, size);
+    }
+
+    // Draws onto an opaque RGB canvas, which also flattens transparency for JPEG
+    private static BufferedImage draw(BufferedImage source, int side) {
+        BufferedImage target = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, side, side);
+            graphics.drawImage(source, 0, 0, side, side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(FORMAT).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,45 @@
+package com.hr_management.hr.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.hr_management.hr.model.ChunkedUploadRequestDto;
+import com.hr_management.hr.model.ChunkedUploadStatusDto;
+import com.hr_management.hr.model.StagedUploadDto;
+
+public interface ChunkedUploadService {
+    /**
+     * Starts a resumable upload of a file of known size.
+     * @throws com.hr_management.hr.exception.LeaveAPIException with 429 if the employee already has
+     *         the maximum number of uploads open
+     */
+    ChunkedUploadStatusDto initiate(Long employeeId, ChunkedUploadRequestDto request);
+
+    /**
+     * Appends a chunk, streaming it straight into the part file. Bytes received before a broken
+     * connection are kept, so the client resumes from the offset reported by {@link #getStatus}.
+     * @param offset offset the chunk starts at; must equal the bytes received so far
+     * @param body the chunk's bytes
+     * @throws com.hr_management.hr.exception.LeaveAPIException with 409 if the offset doesn't match
+     *         or another request is in progress for the upload
+     */
+    ChunkedUploadStatusDto appendChunk(String uploadId, Long employeeId, long offset, InputStream body) throws IOException;
+
+    ChunkedUploadStatusDto getStatus(String uploadId, Long employeeId);
+
+    /**
+     * Verifies the checksum of the complete file and moves it into the upload store.
+     * @param sha256 hex SHA-256 of the whole file
+     * @return a staged document handle, as from {@link DocumentStagingService#stage}
+     */
+    StagedUploadDto complete(String uploadId, Long employeeId, String sha256) throws IOException;
+
+    void abort(String uploadId, Long employeeId);
+
+    /**
+     * Deletes uploads that weren't completed in time, with their part files. Uploads a request is
+     * working on are skipped.
+     * @return number of uploads removed
+     */
+    int purgeExpired();
+}
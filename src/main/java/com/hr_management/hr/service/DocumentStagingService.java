@@ -0,0 +1,38 @@
+package com.hr_management.hr.service;
+
+import java.io.IOException;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.hr_management.hr.model.StagedUploadDto;
+
+public interface DocumentStagingService {
+    /**
+     * Stores a document outside any transaction and returns a short-lived handle for it.
+     * @param employeeId owner; only they can reference the handle
+     * @param file the uploaded document
+     * @return the handle and details of the staged document
+     * @throws IOException if the file can't be stored
+     */
+    StagedUploadDto stage(Long employeeId, MultipartFile file) throws IOException;
+
+    /**
+     * Stages a document that is already in the upload store, taking over its reference.
+     * @param path path of the document in the upload store
+     */
+    StagedUploadDto stageStored(Long employeeId, String path, String originalFilename, String contentType, long size);
+
+    /**
+     * Claims a staged document for a record being created in the current transaction. If the
+     * transaction rolls back, the document stays staged until it expires.
+     * @return path of the document in the upload store
+     * @throws com.hr_management.hr.exception.LeaveAPIException if the handle is unknown, not the employee's or expired
+     */
+    String promote(String handle, Long employeeId);
+
+    /**
+     * Deletes expired staged documents that were never promoted.
+     * @return number of staged documents removed
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,73 @@
+package com.hr_management.hr.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hr_management.hr.entity.EmailOutbox;
+import com.hr_management.hr.model.EmailMessage;
+
+/**
+ * Drains the email outbox in the background. Each run claims at most one batch of due rows,
+ * sends them outside any transaction and records the outcome row by row, so a slow or failing
+ * SMTP server never holds a database connection or blocks a request.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public EmailOutboxDispatcher(EmailOutboxService emailOutboxService, EmailService emailService) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailService = emailService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        List<EmailOutbox> batch = emailOutboxService.claimDue(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // The whole batch goes out over a single SMTP connection
+        List<EmailMessage> messages = batch.stream()
+                .map(email -> new EmailMessage(email.getRecipient(), email.getSubject(), email.getBody(), email.isHtml()))
+                .collect(Collectors.toList());
+        Map<Integer, MailException> failures = emailService.sendBatch(messages);
+
+        for (int i = 0; i < batch.size(); i++) {
+            MailException failure = failures.get(i);
+            if (failure == null) {
+                emailOutboxService.markSent(batch.get(i).getId());
+            } else {
+                emailOutboxService.markFailed(batch.get(i).getId(), failure.getMessage());
+            }
+        }
+        logger.debug("Email outbox dispatched a batch of {} ({} failed)", batch.size(), failures.size());
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int removed = emailOutboxService.purgeSent(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            logger.info("Purged {} sent emails from the outbox", removed);
+        }
+    }
+}
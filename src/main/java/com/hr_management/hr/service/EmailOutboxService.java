@@ -0,0 +1,18 @@
+package com.hr_management.hr.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.hr_management.hr.entity.EmailOutbox;
+
+public interface EmailOutboxService {
+    // Queue an email in the caller's transaction; it is delivered after commit by the dispatcher
+    void queueSimpleMessage(String to, String subject, String text);
+    void queueHtmlMessage(String to, String subject, String htmlContent);
+
+    // Used by the dispatcher
+    List<EmailOutbox> claimDue(int limit);
+    void markSent(Long id);
+    void markFailed(Long id, String error);
+    int purgeSent(LocalDateTime before);
+}
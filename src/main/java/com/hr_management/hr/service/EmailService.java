@@ -1,7 +1,18 @@
 package com.hr_management.hr.service;
 
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.mail.MailException;
+
+import com.hr_management.hr.model.EmailMessage;
+
 public interface EmailService {
+    // Sends immediately and throws a MailException on failure; application code should queue
+    // through EmailOutboxService instead so delivery happens after commit and is retried
     void sendSimpleMessage(String to, String subject, String text);
     void sendHtmlMessage(String to, String subject, String htmlContent);
-    // Add more methods later if needed (e.g., for HTML emails, attachments)
+
+    // Sends all messages over one pooled SMTP connection; returns the failures keyed by list index
+    Map<Integer, MailException> sendBatch(List<EmailMessage> messages);
 } 
\ No newline at end of file
@@ -1,25 +1,35 @@
 package com.hr_management.hr.service;
 
-import java.util.List;
-
 import org.springframework.stereotype.Service;
 
 import com.hr_management.hr.entity.Employee;
 import com.hr_management.hr.entity.Leave;
-import com.hr_management.hr.entity.Role;
 import com.hr_management.hr.entity.User;
 import com.hr_management.hr.enums.LeaveStatus;
-import com.hr_management.hr.repository.UserRepository;
 
 @Service
 public class EmailTemplateService {
 
-    private final EmailService emailService;
-    private final UserRepository userRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final NotificationRecipientCache notificationRecipientCache;
+    private final HrNotificationDigestService hrNotificationDigestService;
+
+    public EmailTemplateService(EmailOutboxService emailOutboxService, NotificationRecipientCache notificationRecipientCache,
+                                HrNotificationDigestService hrNotificationDigestService) {
+        this.emailOutboxService = emailOutboxService;
+        this.notificationRecipientCache = notificationRecipientCache;
+        this.hrNotificationDigestService = hrNotificationDigestService;
+    }
 
-    public EmailTemplateService(EmailService emailService, UserRepository userRepository) {
-        this.emailService = emailService;
-        this.userRepository = userRepository;
+    // HR/Admin notifications go into the digest when digest mode is on, otherwise to every HR/Admin user right away
+    private void notifyHr(String subject, String text) {
+        if (hrNotificationDigestService.isEnabled()) {
+            hrNotificationDigestService.addEvent(subject, text);
+            return;
+        }
+        for (String adminEmail : notificationRecipientCache.getHrRecipientEmails()) {
+            emailOutboxService.queueSimpleMessage(adminEmail, subject, text);
+        }
     }
 
     public void sendWelcomeEmail(User user, Employee employee, String plainPassword) {
@@ -50,7 +60,7 @@ public class EmailTemplateService {
         );
 
         if (user.getEmail() != null) {
-            emailService.sendSimpleMessage(user.getEmail(), subject, text);
+            emailOutboxService.queueSimpleMessage(user.getEmail(), subject, text);
         }
     }
 
@@ -87,7 +97,7 @@ public class EmailTemplateService {
         );
 
         if (employee.getEmail() != null) {
-            emailService.sendSimpleMessage(employee.getEmail(), empSubject, empText);
+            emailOutboxService.queueSimpleMessage(employee.getEmail(), empSubject, empText);
         }
 
         // Email to HR/Admin
@@ -129,16 +139,7 @@ public class EmailTemplateService {
             leave.getLeaveDuration()
         );
 
-        // Send to all HR/Admin users
-        List<User> adminUsers = userRepository.findAll().stream()
-                .filter(user -> user.getRole() == Role.ADMIN || user.getRole() == Role.HR_MANAGER)
-                .toList();
-
-        for (User admin : adminUsers) {
-            if (admin.getEmail() != null) {
-                emailService.sendSimpleMessage(admin.getEmail(), adminSubject, adminText);
-            }
-        }
+        notifyHr(adminSubject, adminText);
     }
 
     public void sendLeaveStatusUpdateNotification(Leave leave, Employee employee, LeaveStatus newStatus, String rejectionReason) {
@@ -171,7 +172,7 @@ public class EmailTemplateService {
         );
 
         if (employee.getEmail() != null) {
-            emailService.sendSimpleMessage(employee.getEmail(), subject, text);
+            emailOutboxService.queueSimpleMessage(employee.getEmail(), subject, text);
         }
 
         // Send notification to HR/Admin about the status update
@@ -210,16 +211,7 @@ public class EmailTemplateService {
                 String.format("- Rejection Reason: %s", rejectionReason) : ""
         );
 
-        // Send to all HR/Admin users
-        List<User> adminUsers = userRepository.findAll().stream()
-                .filter(user -> user.getRole() == Role.ADMIN || user.getRole() == Role.HR_MANAGER)
-                .toList();
-
-        for (User admin : adminUsers) {
-            if (admin.getEmail() != null) {
-                emailService.sendSimpleMessage(admin.getEmail(), adminSubject, adminText);
-            }
-        }
+        notifyHr(adminSubject, adminText);
     }
 
     public void sendPasswordResetEmail(User user, Employee employee, String resetToken) {
@@ -242,7 +234,7 @@ public class EmailTemplateService {
         );
 
         if (user.getEmail() != null) {
-            emailService.sendSimpleMessage(user.getEmail(), subject, text);
+            emailOutboxService.queueSimpleMessage(user.getEmail(), subject, text);
         }
     }
 } 
\ No newline at end of file
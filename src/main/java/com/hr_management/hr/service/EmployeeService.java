@@ -11,6 +11,12 @@ public interface EmployeeService {
     EmployeeDto save(EmployeeDto employeeDto);
     Optional<EmployeeDto> findByUser(User user);
     Optional<Employee> findById(Long id);
+    Optional<EmployeeDto> findDtoById(Long id);
+
+    /**
+     * Converts an employee without loading its leave history.
+     */
+    EmployeeDto toSummaryDto(Employee employee);
     void deleteById(Long id);
     List<EmployeeDto> findAllEmployees();
 } 
\ No newline at end of file
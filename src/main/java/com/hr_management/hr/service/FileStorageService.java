@@ -7,17 +7,64 @@ import java.nio.file.Path;
 
 public interface FileStorageService {
     /**
-     * Stores a file.
+     * Stores a file under its content hash. Storing identical content again returns the
+     * existing path and adds a reference to it.
      * @param file The file to store.
-     * @param subDirectory Optional subdirectory within the main upload directory.
      * @return The path relative to the upload directory where the file was stored.
      * @throws IOException If an I/O error occurs.
      */
-    String storeFile(MultipartFile file, String subDirectory) throws IOException;
+    String storeFile(MultipartFile file) throws IOException;
+
+    /**
+     * Stores a file already on local disk, moving it into place rather than copying it.
+     * The source must be on the same file system as the store, e.g. under {@link #getStagingLocation()}.
+     * @param source The file to store; it no longer exists afterwards.
+     * @param originalFilename Name the file was uploaded under, used for its extension.
+     * @param expectedSha256 Hex SHA-256 the content must have, or null to skip the check.
+     * @return The path relative to the upload directory where the file was stored.
+     * @throws IllegalArgumentException If the content doesn't match the expected checksum.
+     * @throws IOException If an I/O error occurs.
+     */
+    String storeLocalFile(Path source, String originalFilename, String expectedSha256) throws IOException;
+
+    /**
+     * Drops one reference to a stored file, deleting it once nothing refers to it.
+     * Paths that weren't stored by this service (e.g. older uploads) are left alone. A derived
+     * file's path releases its original.
+     * @param pathOrUrl Path relative to the upload directory, or a URL under /uploads/.
+     */
+    void release(String pathOrUrl);
+
+    /**
+     * Path for a file derived from a stored file, such as a resized image. Derived files live next
+     * to their original and are deleted with it.
+     * @param originalPath Path of the stored original.
+     * @param variant Name of the derivative, e.g. "64" for a 64px image. Letters and digits only.
+     * @param extension Extension of the derived file, without the dot.
+     * @return The path relative to the upload directory.
+     */
+    String derivativePath(String originalPath, String variant, String extension);
+
+    /**
+     * Writes a derived file unless it already exists. Derived content is deterministic, so an
+     * existing file is kept as is. Nothing is written once the original has been released.
+     * @param derivativePath Path from {@link #derivativePath}.
+     * @param content The derived file's bytes.
+     * @return false if the original is no longer stored.
+     * @throws IOException If an I/O error occurs.
+     */
+    boolean storeDerivative(String derivativePath, byte[] content) throws IOException;
 
     /**
      * Gets the root storage location.
      * @return Path to the root storage directory.
      */
     Path getRootLocation();
-} 
\ No newline at end of file
+
+    /**
+     * Gets the directory for files being assembled before they are stored. It is on the same
+     * file system as the store and is not served.
+     * @return Path to the staging directory.
+     */
+    Path getStagingLocation();
+}
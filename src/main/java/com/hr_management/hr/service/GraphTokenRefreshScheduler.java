@@ -0,0 +1,91 @@
+package com.hr_management.hr.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hr_management.hr.entity.GraphToken;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Refreshes Microsoft Graph tokens shortly before they expire, so Graph calls on the request
+ * path find a valid token without refreshing inline. Each run claims one batch of due tokens,
+ * which other instances then skip, and refreshes them in parallel on a dedicated pool so the
+ * token endpoint's latency doesn't hold up other scheduled jobs.
+ */
+@Service
+public class GraphTokenRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphTokenRefreshScheduler.class);
+
+    private final GraphTokenService graphTokenService;
+
+    @Value("${app.microsoft.token-refresh.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.microsoft.token-refresh.threads:4}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    public GraphTokenRefreshScheduler(GraphTokenService graphTokenService) {
+        this.graphTokenService = graphTokenService;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "graph-token-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.microsoft.token-refresh.interval-ms:60000}")
+    public void refreshExpiring() {
+        List<GraphToken> due = graphTokenService.claimDueForRefresh(batchSize);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Callable<Boolean>> refreshes = new ArrayList<>(due.size());
+        for (GraphToken token : due) {
+            refreshes.add(() -> graphTokenService.refresh(token));
+        }
+        int refreshed = 0;
+        try {
+            // Waits for the batch, so the next run never overlaps with this one
+            for (Future<Boolean> result : executor.invokeAll(refreshes)) {
+                if (result.get()) {
+                    refreshed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            // Unclaimed tokens are retried once their claim runs out
+            logger.warn("Graph token refresh failed: {}", e.getCause().getMessage());
+        }
+        logger.info("Refreshed {} of {} Graph tokens due for refresh", refreshed, due.size());
+    }
+}
@@ -0,0 +1,39 @@
+package com.hr_management.hr.service;
+
+import java.util.List;
+
+import com.hr_management.hr.entity.GraphToken;
+
+public interface GraphTokenService {
+    /**
+     * Stores the tokens from a Microsoft token endpoint response, replacing any previous ones.
+     * @param userId owner of the tokens
+     * @param accessToken Graph access token
+     * @param refreshToken refresh token, or null if none was issued
+     * @param expiresInSeconds lifetime of the access token as reported by the token endpoint
+     */
+    void store(Long userId, String accessToken, String refreshToken, Number expiresInSeconds);
+
+    /**
+     * Returns a usable Graph access token for the user. Tokens are normally refreshed ahead of
+     * expiry by the scheduler; an expired token is only refreshed here as a fallback.
+     * The inline refresh takes the same claim as the scheduler, so it never runs alongside another refresh.
+     * @return the access token, or null if the user has none or no valid one is available right now
+     */
+    String getAccessToken(Long userId);
+
+    /**
+     * Claims up to {@code limit} tokens that expire within the configured lead time. Claimed tokens
+     * are hidden from other instances until they are refreshed or the claim times out.
+     */
+    List<GraphToken> claimDueForRefresh(int limit);
+
+    /**
+     * Exchanges the token's refresh token for new tokens and stores them. The tokens are discarded
+     * only if Microsoft rejects the refresh token itself; other failures leave them to be retried.
+     * Both writes only apply while the stored row still holds the refresh token that was used, so
+     * tokens stored by a sign-in in the meantime win. Call with the token claimed.
+     * @return true if the token was refreshed and stored
+     */
+    boolean refresh(GraphToken token);
+}
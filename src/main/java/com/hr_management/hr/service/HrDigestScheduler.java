@@ -0,0 +1,48 @@
+package com.hr_management.hr.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically flushes buffered HR notifications when digest mode is enabled, and early once
+ * the buffer reaches the configured size.
+ */
+@Service
+public class HrDigestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(HrDigestScheduler.class);
+
+    private final HrNotificationDigestService hrNotificationDigestService;
+
+    @Value("${app.mail.hr-digest.max-events:50}")
+    private int maxEvents;
+
+    public HrDigestScheduler(HrNotificationDigestService hrNotificationDigestService) {
+        this.hrNotificationDigestService = hrNotificationDigestService;
+    }
+
+    // Only reads an in-memory counter, so it can run often without touching the database
+    @Scheduled(fixedDelayString = "${app.mail.hr-digest.threshold-check-interval-ms:5000}")
+    public void flushIfFull() {
+        if (hrNotificationDigestService.isEnabled() && hrNotificationDigestService.isFlushDue()) {
+            flush();
+        }
+    }
+
+    // Synchronized so an early flush and the interval flush never split one batch between them
+    @Scheduled(fixedDelayString = "${app.mail.hr-digest.flush-interval-ms:900000}")
+    public synchronized void flush() {
+        if (!hrNotificationDigestService.isEnabled()) {
+            return;
+        }
+        // Keep sending full digests until the buffer is drained
+        int flushed;
+        do {
+            flushed = hrNotificationDigestService.flush();
+            logger.debug("HR digest flush sent {} events", flushed);
+        } while (flushed >= maxEvents);
+    }
+}
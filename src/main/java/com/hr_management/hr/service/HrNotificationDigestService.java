@@ -0,0 +1,11 @@
+package com.hr_management.hr.service;
+
+public interface HrNotificationDigestService {
+    // Whether HR-facing notifications should be buffered instead of sent one by one
+    boolean isEnabled();
+    void addEvent(String subject, String body);
+    // Whether enough events are buffered that the scheduler should flush ahead of its interval
+    boolean isFlushDue();
+    // Sends one summary email per HR recipient for the buffered events; returns the number of events sent
+    int flush();
+}
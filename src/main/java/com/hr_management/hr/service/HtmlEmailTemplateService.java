@@ -1,5 +1,8 @@
 package com.hr_management.hr.service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 import org.springframework.stereotype.Service;
 
 import com.hr_management.hr.entity.Employee;
@@ -10,14 +13,8 @@ import com.hr_management.hr.enums.LeaveStatus;
 @Service
 public class HtmlEmailTemplateService {
 
-    private final EmailService emailService;
-
-    public HtmlEmailTemplateService(EmailService emailService) {
-        this.emailService = emailService;
-    }
-
-    private String getEmailTemplate(String title, String content) {
-        return String.format("""
+    // Templates are parsed once when the class loads; {{slot}} values are HTML-escaped, {{{slot}}} are not
+    private static final HtmlTemplate LAYOUT = HtmlTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head>
@@ -119,10 +116,10 @@ public class HtmlEmailTemplateService {
             <body>
                 <div class="container">
                     <div class="header">
-                        <h1>%s</h1>
+                        <h1>{{title}}</h1>
                     </div>
                     <div class="content">
-                        %s
+                        {{{content}}}
                     </div>
                     <div class="footer">
                         <p>© 2024 HR Management System. All rights reserved.</p>
@@ -131,42 +128,37 @@ public class HtmlEmailTemplateService {
             </body>
             </html>
             """,
-            title,
-            content
-        );
-    }
+            "title", "content");
+
+    private static final HtmlTemplate WELCOME = HtmlTemplate.compile("""
+            <p style="font-size: 16px;">Hello <strong>{{firstName}}</strong>,</p>
 
-    public void sendWelcomeEmail(User user, Employee employee, String plainPassword) {
-        String title = "Welcome to HR Management System";
-        String content = String.format("""
-            <p style="font-size: 16px;">Hello <strong>%s</strong>,</p>
-            
             <p>Welcome to the HR Management System! Your employee account has been successfully created and is ready to use.</p>
-            
+
             <div class="info-box">
                 <h3>Your Account Details</h3>
                 <div class="details-row">
                     <span class="details-label">Username:</span>
-                    <span class="details-value">%s</span>
+                    <span class="details-value">{{username}}</span>
                 </div>
                 <div class="details-row">
                     <span class="details-label">Temporary Password:</span>
-                    <span class="details-value">%s</span>
+                    <span class="details-value">{{password}}</span>
                 </div>
                 <div class="details-row">
                     <span class="details-label">Email:</span>
-                    <span class="details-value">%s</span>
+                    <span class="details-value">{{email}}</span>
                 </div>
                 <div class="details-row">
                     <span class="details-label">Department:</span>
-                    <span class="details-value">%s</span>
+                    <span class="details-value">{{department}}</span>
                 </div>
                 <div class="details-row">
                     <span class="details-label">Position:</span>
-                    <span class="details-value">%s</span>
+                    <span class="details-value">{{position}}</span>
                 </div>
             </div>
-            
+
             <p><strong>Next Steps:</strong></p>
             <ol>
                 <li>Log in using the credentials above</li>
@@ -174,68 +166,247 @@ public class HtmlEmailTemplateService {
                 <li>Complete your employee profile</li>
                 <li>Explore the HR Management System features</li>
             </ol>
-            
+
             <p>For security reasons, please change your password upon first login.</p>
-            
-            
-            
+
+
+
             <p>If you have any questions or need assistance, please contact the HR department.</p>
             """,
-            employee.getFirstName(),
-            user.getUsername(),
-            plainPassword,
-            user.getEmail(),
-            employee.getDepartment(),
-            employee.getPosition()
-        );
+            "firstName", "username", "password", "email", "department", "position");
+
+    private static final HtmlTemplate LEAVE_REQUEST_HR = HtmlTemplate.compile("""
+            <div class="info-box">
+                <h3>New Leave Request Details</h3>
+                <div class="details-row">
+                    <span class="details-label">Employee:</span>
+                    <span class="details-value">{{firstName}} {{lastName}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Leave Type:</span>
+                    <span class="details-value">{{leaveType}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Start Date:</span>
+                    <span class="details-value">{{startDate}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">End Date:</span>
+                    <span class="details-value">{{endDate}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Status:</span>
+                    <span class="details-value status-pending">Pending</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Reason:</span>
+                    <span class="details-value">{{reason}}</span>
+                </div>
+            </div>
+            <p>Please review this leave request and take appropriate action:</p>
+            <ol>
+                <li>Log in to the HR Management System</li>
+                <li>Navigate to the Leave Requests section</li>
+                <li>Review the request details and supporting documents (if any)</li>
+                <li>Approve or reject the request based on company policy</li>
+            </ol>
+            <a href="{{link}}" class="button">View Leave Request</a>
+            """,
+            "firstName", "lastName", "leaveType", "startDate", "endDate", "reason", "link");
+
+    private static final HtmlTemplate LEAVE_REQUEST_EMPLOYEE = HtmlTemplate.compile("""
+            <div class="info-box">
+                <h3>Your Leave Request Has Been Submitted</h3>
+                <div class="details-row">
+                    <span class="details-label">Leave Type:</span>
+                    <span class="details-value">{{leaveType}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Start Date:</span>
+                    <span class="details-value">{{startDate}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">End Date:</span>
+                    <span class="details-value">{{endDate}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Status:</span>
+                    <span class="details-value status-pending">Pending</span>
+                </div>
+            </div>
+            <p>Your leave request has been successfully submitted and is pending approval. Here's what happens next:</p>
+            <ul>
+                <li>HR will review your request within 1-2 business days</li>
+                <li>You will receive an email notification once your request is approved or rejected</li>
+                <li>You can track the status of your request in the HR Management System</li>
+            </ul>
+            <a href="{{link}}" class="button">View Request Status</a>
+            """,
+            "leaveType", "startDate", "endDate", "link");
+
+    private static final HtmlTemplate STATUS_UPDATE_HR = HtmlTemplate.compile("""
+            <div class="info-box">
+                <h3>Leave Request Status Updated</h3>
+                <div class="details-row">
+                    <span class="details-label">Employee:</span>
+                    <span class="details-value">{{firstName}} {{lastName}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Leave Type:</span>
+                    <span class="details-value">{{leaveType}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Status:</span>
+                    <span class="details-value {{statusClass}}">{{status}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Comments:</span>
+                    <span class="details-value">{{comments}}</span>
+                </div>
+            </div>
+            <p>The leave request has been {{statusText}}. The employee has been notified of this update.</p>
+            <a href="{{link}}" class="button">View Leave Request</a>
+            """,
+            "firstName", "lastName", "leaveType", "statusClass", "status", "comments", "statusText", "link");
+
+    private static final HtmlTemplate STATUS_UPDATE_EMPLOYEE = HtmlTemplate.compile("""
+            <div class="info-box">
+                <h3>Your Leave Request Has Been {{status}}</h3>
+                <div class="details-row">
+                    <span class="details-label">Leave Type:</span>
+                    <span class="details-value">{{leaveType}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Start Date:</span>
+                    <span class="details-value">{{startDate}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">End Date:</span>
+                    <span class="details-value">{{endDate}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Status:</span>
+                    <span class="details-value {{statusClass}}">{{status}}</span>
+                </div>
+                {{{commentsRow}}}
+            </div>
+            {{{message}}}
+            <a href="{{link}}" class="button">View Leave Details</a>
+            """,
+            "status", "leaveType", "startDate", "endDate", "statusClass", "commentsRow", "message", "link");
+
+    private static final HtmlTemplate COMMENTS_ROW = HtmlTemplate.compile("""
+            <div class="details-row">
+                <span class="details-label">Comments:</span>
+                <span class="details-value">{{comments}}</span>
+            </div>
+            """,
+            "comments");
+
+    private static final HtmlTemplate PASSWORD_RESET = HtmlTemplate.compile("""
+            <p style="font-size: 16px;">Hello <strong>{{name}}</strong>,</p>
+
+            <p>We received a request to reset your password for the HR Management System.</p>
+
+            <div class="info-box">
+                <h3>Password Reset Information</h3>
+                <div class="details-row">
+                    <span class="details-label">Username:</span>
+                    <span class="details-value">{{username}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Email:</span>
+                    <span class="details-value">{{email}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Request Time:</span>
+                    <span class="details-value">{{requestTime}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Expires:</span>
+                    <span class="details-value">24 hours from request</span>
+                </div>
+            </div>
+
+            <p>To reset your password, please click the button below:</p>
+
+            <div style="text-align: center; margin: 30px 0;">
+                <a href="{{resetLink}}" class="button">Reset Your Password</a>
+            </div>
+
+            <p>If the button doesn't work, you can copy and paste this link into your browser:</p>
+            <p style="background-color: #f5f5f5; padding: 10px; border-radius: 4px; word-break: break-all;">
+                <a href="{{resetLink}}">{{resetLink}}</a>
+            </p>
+
+            <p><strong>Important:</strong> This link will expire in 24 hours. If you did not request a password reset, please ignore this email or contact the HR department immediately if you have concerns.</p>
+            """,
+            "name", "username", "email", "requestTime", "resetLink");
+
+    private static final HtmlTemplate PASSWORD_RESET_CONFIRMATION = HtmlTemplate.compile("""
+            <p style="font-size: 16px;">Hello <strong>{{name}}</strong>,</p>
+
+            <p>Your password has been successfully reset for the HR Management System.</p>
+
+            <div class="info-box">
+                <h3>Account Information</h3>
+                <div class="details-row">
+                    <span class="details-label">Username:</span>
+                    <span class="details-value">{{username}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Email:</span>
+                    <span class="details-value">{{email}}</span>
+                </div>
+                <div class="details-row">
+                    <span class="details-label">Reset Time:</span>
+                    <span class="details-value">{{resetTime}}</span>
+                </div>
+            </div>
+
+            <p><strong>Important:</strong> If you did not request this password reset, please contact the HR department immediately.</p>
+
+            <p>You can now log in to your account using your new password.</p>
+            """,
+            "name", "username", "email", "resetTime");
+
+    private static final String APPROVED_MESSAGE = "<p>Your leave request has been approved. Please ensure you:</p><ul><li>Update your team about your absence</li><li>Set up an out-of-office message</li><li>Complete any necessary handover documentation</li></ul>";
+    private static final String REJECTED_MESSAGE = "<p>Your leave request has been rejected. If you have any questions about this decision, please contact your supervisor or HR department.</p>";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final EmailOutboxService emailOutboxService;
+
+    public HtmlEmailTemplateService(EmailOutboxService emailOutboxService) {
+        this.emailOutboxService = emailOutboxService;
+    }
+
+    // Renders the body straight into the layout's buffer instead of building it as a separate string first
+    private String getEmailTemplate(String title, HtmlTemplate body, Object... values) {
+        return LAYOUT.render(title, (HtmlTemplate.Fragment) out -> body.writeTo(out, values));
+    }
+
+    public void sendWelcomeEmail(User user, Employee employee, String plainPassword) {
+        String title = "Welcome to HR Management System";
 
         if (user.getEmail() != null) {
-            emailService.sendHtmlMessage(user.getEmail(), title, getEmailTemplate(title, content));
+            String emailContent = getEmailTemplate(title, WELCOME,
+                employee.getFirstName(),
+                user.getUsername(),
+                plainPassword,
+                user.getEmail(),
+                employee.getDepartment(),
+                employee.getPosition()
+            );
+            emailOutboxService.queueHtmlMessage(user.getEmail(), title, emailContent);
         }
     }
 
     public void sendLeaveRequestNotification(Leave leave, String recipientEmail, boolean isHrAdmin) {
         String title = "Leave Request Notification";
-        String content;
+        String emailContent;
         
         if (isHrAdmin) {
-            content = String.format("""
-                <div class="info-box">
-                    <h3>New Leave Request Details</h3>
-                    <div class="details-row">
-                        <span class="details-label">Employee:</span>
-                        <span class="details-value">%s %s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Leave Type:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Start Date:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">End Date:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Status:</span>
-                        <span class="details-value status-pending">Pending</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Reason:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                </div>
-                <p>Please review this leave request and take appropriate action:</p>
-                <ol>
-                    <li>Log in to the HR Management System</li>
-                    <li>Navigate to the Leave Requests section</li>
-                    <li>Review the request details and supporting documents (if any)</li>
-                    <li>Approve or reject the request based on company policy</li>
-                </ol>
-                <a href="%s" class="button">View Leave Request</a>
-                """,
+            emailContent = getEmailTemplate(title, LEAVE_REQUEST_HR,
                 leave.getEmployee().getFirstName(),
                 leave.getEmployee().getLastName(),
                 leave.getLeaveType(),
@@ -245,34 +416,7 @@ public class HtmlEmailTemplateService {
                 "http://localhost:3000/leave-history" // Replace with actual URL
             );
         } else {
-            content = String.format("""
-                <div class="info-box">
-                    <h3>Your Leave Request Has Been Submitted</h3>
-                    <div class="details-row">
-                        <span class="details-label">Leave Type:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Start Date:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">End Date:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Status:</span>
-                        <span class="details-value status-pending">Pending</span>
-                    </div>
-                </div>
-                <p>Your leave request has been successfully submitted and is pending approval. Here's what happens next:</p>
-                <ul>
-                    <li>HR will review your request within 1-2 business days</li>
-                    <li>You will receive an email notification once your request is approved or rejected</li>
-                    <li>You can track the status of your request in the HR Management System</li>
-                </ul>
-                <a href="%s" class="button">View Request Status</a>
-                """,
+            emailContent = getEmailTemplate(title, LEAVE_REQUEST_EMPLOYEE,
                 leave.getLeaveType(),
                 leave.getStartDate(),
                 leave.getEndDate(),
@@ -280,39 +424,16 @@ public class HtmlEmailTemplateService {
             );
         }
         
-        String emailContent = getEmailTemplate(title, content);
-        emailService.sendHtmlMessage(recipientEmail, title, emailContent);
+        emailOutboxService.queueHtmlMessage(recipientEmail, title, emailContent);
     }
 
     public void sendLeaveStatusUpdateNotification(Leave leave, String recipientEmail, boolean isHrAdmin) {
         String title = "Leave Request Status Update";
         String statusClass = leave.getStatus() == LeaveStatus.APPROVED ? "status-approved" : "status-rejected";
-        String content;
+        String emailContent;
         
         if (isHrAdmin) {
-            content = String.format("""
-                <div class="info-box">
-                    <h3>Leave Request Status Updated</h3>
-                    <div class="details-row">
-                        <span class="details-label">Employee:</span>
-                        <span class="details-value">%s %s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Leave Type:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Status:</span>
-                        <span class="details-value %s">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Comments:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                </div>
-                <p>The leave request has been %s. The employee has been notified of this update.</p>
-                <a href="%s" class="button">View Leave Request</a>
-                """,
+            emailContent = getEmailTemplate(title, STATUS_UPDATE_HR,
                 leave.getEmployee().getFirstName(),
                 leave.getEmployee().getLastName(),
                 leave.getLeaveType(),
@@ -323,147 +444,51 @@ public class HtmlEmailTemplateService {
                 "http://localhost:3000/leave-history" // Replace with actual URL
             );
         } else {
-            content = String.format("""
-                <div class="info-box">
-                    <h3>Your Leave Request Has Been %s</h3>
-                    <div class="details-row">
-                        <span class="details-label">Leave Type:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Start Date:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">End Date:</span>
-                        <span class="details-value">%s</span>
-                    </div>
-                    <div class="details-row">
-                        <span class="details-label">Status:</span>
-                        <span class="details-value %s">%s</span>
-                    </div>
-                    %s
-                </div>
-                %s
-                <a href="%s" class="button">View Leave Details</a>
-                """,
+            String rejectionReason = leave.getRejectionReason();
+            emailContent = getEmailTemplate(title, STATUS_UPDATE_EMPLOYEE,
                 leave.getStatus(),
                 leave.getLeaveType(),
                 leave.getStartDate(),
                 leave.getEndDate(),
                 statusClass,
-                leave.getStatus(),
-                leave.getRejectionReason() != null && !leave.getRejectionReason().isEmpty() 
-                    ? String.format("""
-                        <div class="details-row">
-                            <span class="details-label">Comments:</span>
-                            <span class="details-value">%s</span>
-                        </div>
-                        """, leave.getRejectionReason()) 
-                    : "",
-                leave.getStatus() == LeaveStatus.APPROVED 
-                    ? "<p>Your leave request has been approved. Please ensure you:</p><ul><li>Update your team about your absence</li><li>Set up an out-of-office message</li><li>Complete any necessary handover documentation</li></ul>"
-                    : "<p>Your leave request has been rejected. If you have any questions about this decision, please contact your supervisor or HR department.</p>",
+                rejectionReason != null && !rejectionReason.isEmpty()
+                    ? (HtmlTemplate.Fragment) out -> COMMENTS_ROW.writeTo(out, rejectionReason)
+                    : null,
+                leave.getStatus() == LeaveStatus.APPROVED ? APPROVED_MESSAGE : REJECTED_MESSAGE,
                 "http://localhost:8080/my-leaves" // Replace with actual URL
             );
         }
         
-        String emailContent = getEmailTemplate(title, content);
-        emailService.sendHtmlMessage(recipientEmail, title, emailContent);
+        emailOutboxService.queueHtmlMessage(recipientEmail, title, emailContent);
     }
 
     public void sendPasswordResetEmail(User user, String resetToken) {
         String title = "Password Reset Request";
         String resetLink = "http://localhost:3000/reset-password?token=" + resetToken;
-        
-        String content = String.format("""
-            <p style="font-size: 16px;">Hello <strong>%s</strong>,</p>
-            
-            <p>We received a request to reset your password for the HR Management System.</p>
-            
-            <div class="info-box">
-                <h3>Password Reset Information</h3>
-                <div class="details-row">
-                    <span class="details-label">Username:</span>
-                    <span class="details-value">%s</span>
-                </div>
-                <div class="details-row">
-                    <span class="details-label">Email:</span>
-                    <span class="details-value">%s</span>
-                </div>
-                <div class="details-row">
-                    <span class="details-label">Request Time:</span>
-                    <span class="details-value">%s</span>
-                </div>
-                <div class="details-row">
-                    <span class="details-label">Expires:</span>
-                    <span class="details-value">24 hours from request</span>
-                </div>
-            </div>
-            
-            <p>To reset your password, please click the button below:</p>
-            
-            <div style="text-align: center; margin: 30px 0;">
-                <a href="%s" class="button">Reset Your Password</a>
-            </div>
-            
-            <p>If the button doesn't work, you can copy and paste this link into your browser:</p>
-            <p style="background-color: #f5f5f5; padding: 10px; border-radius: 4px; word-break: break-all;">
-                <a href="%s">%s</a>
-            </p>
-            
-            <p><strong>Important:</strong> This link will expire in 24 hours. If you did not request a password reset, please ignore this email or contact the HR department immediately if you have concerns.</p>
-            """,
-            user.getUsername(),
-            user.getUsername(),
-            user.getEmail(),
-            java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-            resetLink,
-            resetLink,
-            resetLink
-        );
 
         if (user.getEmail() != null) {
-            emailService.sendHtmlMessage(user.getEmail(), title, getEmailTemplate(title, content));
+            String emailContent = getEmailTemplate(title, PASSWORD_RESET,
+                user.getUsername(),
+                user.getUsername(),
+                user.getEmail(),
+                LocalDateTime.now().format(TIMESTAMP_FORMAT),
+                resetLink
+            );
+            emailOutboxService.queueHtmlMessage(user.getEmail(), title, emailContent);
         }
     }
 
     public void sendPasswordResetConfirmationEmail(User user) {
         String title = "Password Reset Confirmation";
-        
-        String content = String.format("""
-            <p style="font-size: 16px;">Hello <strong>%s</strong>,</p>
-            
-            <p>Your password has been successfully reset for the HR Management System.</p>
-            
-            <div class="info-box">
-                <h3>Account Information</h3>
-                <div class="details-row">
-                    <span class="details-label">Username:</span>
-                    <span class="details-value">%s</span>
-                </div>
-                <div class="details-row">
-                    <span class="details-label">Email:</span>
-                    <span class="details-value">%s</span>
-                </div>
-                <div class="details-row">
-                    <span class="details-label">Reset Time:</span>
-                    <span class="details-value">%s</span>
-                </div>
-            </div>
-            
-            <p><strong>Important:</strong> If you did not request this password reset, please contact the HR department immediately.</p>
-            
-            <p>You can now log in to your account using your new password.</p>
-            """,
-            user.getUsername(),
-            user.getUsername(),
-            user.getEmail(),
-            java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-        );
 
         if (user.getEmail() != null) {
-            emailService.sendHtmlMessage(user.getEmail(), title, getEmailTemplate(title, content));
+            String emailContent = getEmailTemplate(title, PASSWORD_RESET_CONFIRMATION,
+                user.getUsername(),
+                user.getUsername(),
+                user.getEmail(),
+                LocalDateTime.now().format(TIMESTAMP_FORMAT)
+            );
+            emailOutboxService.queueHtmlMessage(user.getEmail(), title, emailContent);
         }
     }
-} 
\ No newline at end of file
+}
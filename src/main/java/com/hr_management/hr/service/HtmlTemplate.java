@@ -0,0 +1,129 @@
+package com.hr_management.hr.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An HTML template parsed once into literal segments and named slots.
+ * {@code {{name}}} is HTML-escaped when rendered, {@code {{{name}}}} is written as-is and is meant
+ * for markup the application produces itself. Slot values are passed positionally, in the order
+ * the slot names were declared to {@link #compile}; a {@link Fragment} value is rendered in place.
+ */
+final class HtmlTemplate {
+
+    /** Markup written straight into the output buffer, e.g. a nested template. */
+    @FunctionalInterface
+    interface Fragment {
+        void writeTo(StringBuilder out);
+    }
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    private final String[] literals;  // literals[i] precedes slot i; the last literal follows the last slot
+    private final int[] slotIndexes;  // position of each slot's value in the render arguments
+    private final boolean[] escaped;
+    private final int slotCount;
+
+    private HtmlTemplate(String[] literals, int[] slotIndexes, boolean[] escaped, int slotCount) {
+        this.literals = literals;
+        this.slotIndexes = slotIndexes;
+        this.escaped = escaped;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Parses the template. Every placeholder must name one of {@code slotNames}; a slot may be used more than once.
+     */
+    static HtmlTemplate compile(String source, String... slotNames) {
+        List<String> names = Arrays.asList(slotNames);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slotIndexes = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean raw = source.startsWith("{{{", open);
+            String closeToken = raw ? "}}}" : "}}";
+            int nameStart = open + (raw ? 3 : 2);
+            int close = source.indexOf(closeToken, nameStart);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(nameStart, close).trim();
+            int index = names.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Undeclared template slot: " + name);
+            }
+            literals.add(source.substring(position, open));
+            slotIndexes.add(index);
+            escaped.add(!raw);
+            position = close + closeToken.length();
+        }
+        literals.add(source.substring(position));
+
+        int[] indexArray = new int[slotIndexes.size()];
+        boolean[] escapedArray = new boolean[escaped.size()];
+        for (int i = 0; i < indexArray.length; i++) {
+            indexArray[i] = slotIndexes.get(i);
+            escapedArray[i] = escaped.get(i);
+        }
+        return new HtmlTemplate(literals.toArray(new String[0]), indexArray, escapedArray, slotNames.length);
+    }
+
+    /**
+     * Renders into this thread's reusable buffer and returns the result.
+     */
+    String render(Object... values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        writeTo(out, values);
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            // Don't keep an unusually large buffer alive for the life of the thread
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    void writeTo(StringBuilder out, Object... values) {
+        if (values.length != slotCount) {
+            throw new IllegalArgumentException("Expected " + slotCount + " slot values but got " + values.length);
+        }
+        for (int i = 0; i < slotIndexes.length; i++) {
+            out.append(literals[i]);
+            Object value = values[slotIndexes[i]];
+            if (value instanceof Fragment fragment) {
+                fragment.writeTo(out);
+            } else if (value != null) {
+                if (escaped[i]) {
+                    escapeHtml(out, value.toString());
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    static void escapeHtml(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -2,7 +2,15 @@ package com.hr_management.hr.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import io.jsonwebtoken.Claims;
+
 public interface JwtService {
+    // Caller claims embedded in tokens issued for application users
+    String CLAIM_USER_ID = "uid";
+    String CLAIM_EMPLOYEE_ID = "eid";
+    String CLAIM_ROLE = "role";
+    String CLAIM_TOKEN_VERSION = "ver";
+
     /**
      * Extracts the username from a JWT token
      * @param token JWT token
@@ -11,7 +19,8 @@ public interface JwtService {
     String extractUsername(String token);
     
     /**
-     * Generates a JWT token for the given user details
+     * Generates a JWT token for the given user details. Tokens for application users also
+     * carry their user id, employee id, role and token version.
      * @param userDetails user details
      * @return JWT token
      */
@@ -24,4 +33,22 @@ public interface JwtService {
      * @return true if valid, false otherwise
      */
     boolean isTokenValid(String token, UserDetails userDetails);
+
+    /**
+     * Verifies the token's signature and expiry and returns its claims. Recently verified
+     * tokens are served from a bounded cache until they expire.
+     * @param token JWT token
+     * @return verified claims, to be treated as read-only
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    Claims verifyToken(String token);
+
+    /**
+     * Validates already verified claims against the given user details, including the
+     * token version when the token carries one
+     * @param claims claims returned by {@link #verifyToken(String)}
+     * @param userDetails user details
+     * @return true if valid, false otherwise
+     */
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
 } 
\ No newline at end of file
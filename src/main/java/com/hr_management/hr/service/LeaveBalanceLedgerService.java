@@ -0,0 +1,47 @@
+package com.hr_management.hr.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.entity.LeaveBalanceLedger;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+
+public interface LeaveBalanceLedgerService {
+    /**
+     * Records a newly submitted leave against the ledger.
+     * @param leave The saved leave request
+     */
+    void recordSubmitted(Leave leave);
+
+    /**
+     * Moves a leave's days between ledger buckets after a status change.
+     * @param leave The leave with its new status already set
+     * @param previousStatus The status before the change
+     */
+    void recordStatusChange(Leave leave, LeaveStatus previousStatus);
+
+    /**
+     * Removes a leave's days from the ledger, e.g. when a pending request is cancelled.
+     * @param leave The leave being removed
+     */
+    void recordRemoved(Leave leave);
+
+    double getUsedDays(Long employeeId, LeaveType leaveType, int year);
+
+    List<LeaveBalanceLedger> getEntries(Long employeeId, Collection<Integer> years);
+
+    /**
+     * Recomputes the whole ledger from the leaves table.
+     * @return Number of ledger rows written
+     */
+    int rebuildLedger();
+
+    /**
+     * Recomputes the ledger rows of a single employee from the leaves table.
+     * @param employeeId The employee to rebuild
+     * @return Number of ledger rows written
+     */
+    int rebuildLedger(Long employeeId);
+}
@@ -1,22 +1,26 @@
 package com.hr_management.hr.service;
 
+import java.util.Collection;
 import java.util.List;
-
-import org.springframework.web.multipart.MultipartFile;
+import java.util.Map;
 
 import com.hr_management.hr.model.LeaveBalanceDto;
 import com.hr_management.hr.model.LeaveDto;
+import com.hr_management.hr.model.LeaveHistoryFilter;
+import com.hr_management.hr.model.LeaveHistoryPageDto;
 import com.hr_management.hr.model.LeaveRequestDto;
 import com.hr_management.hr.model.LeaveResponseDto;
 import com.hr_management.hr.model.LeaveStatusUpdateDto;
 
 public interface LeaveService {
-    LeaveResponseDto createLeaveRequest(Long employeeId, LeaveRequestDto leaveRequest, MultipartFile supportingDocument);
+    LeaveResponseDto createLeaveRequest(Long employeeId, LeaveRequestDto leaveRequest);
     LeaveDto updateLeaveStatus(Long leaveId, LeaveStatusUpdateDto statusUpdate);
     List<LeaveDto> getEmployeeLeaves(Long employeeId);
+    Map<Long, List<LeaveDto>> getLeavesByEmployeeIds(Collection<Long> employeeIds);
+    LeaveHistoryPageDto getEmployeeLeaves(Long employeeId, LeaveHistoryFilter filter, String cursor, Integer size);
     List<LeaveDto> getPendingLeaves();
     List<LeaveBalanceDto> getEmployeeLeaveBalances(Long employeeId);
     LeaveDto getLeaveById(Long leaveId);
     void cancelLeaveRequest(Long leaveId, Long employeeId);
-    List<LeaveDto> getAllLeaveRequestsSorted();
+    LeaveHistoryPageDto getAllLeaveRequestsSorted(LeaveHistoryFilter filter, String cursor, Integer size);
 } 
\ No newline at end of file
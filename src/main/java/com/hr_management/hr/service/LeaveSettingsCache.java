@@ -0,0 +1,231 @@
+package com.hr_management.hr.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hr_management.hr.entity.LeavePolicy;
+import com.hr_management.hr.entity.LeaveTypeConfig;
+import com.hr_management.hr.enums.LeaveType;
+import com.hr_management.hr.repository.LeavePolicyRepository;
+import com.hr_management.hr.repository.LeaveTypeConfigRepository;
+
+/**
+ * Holds an in-memory snapshot of leave policies and leave type configurations keyed by {@link LeaveType},
+ * so leave validation and balance calculations don't query those tables on every call.
+ * The snapshot is replaced as a whole whenever policies or configurations are written,
+ * and reloaded in the background to pick up changes made by other instances.
+ */
+@Service
+public class LeaveSettingsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveSettingsCache.class);
+
+    private final LeavePolicyRepository leavePolicyRepository;
+    private final LeaveTypeConfigRepository leaveTypeConfigRepository;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public LeaveSettingsCache(LeavePolicyRepository leavePolicyRepository,
+                              LeaveTypeConfigRepository leaveTypeConfigRepository) {
+        this.leavePolicyRepository = leavePolicyRepository;
+        this.leaveTypeConfigRepository = leaveTypeConfigRepository;
+    }
+
+    /**
+     * Returns the current snapshot. Only the very first call loads it; after that callers never
+     * touch the database, even when the snapshot is due for a background reload.
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : refresh();
+        }
+    }
+
+    /**
+     * Reloads policies and configurations and swaps in the new snapshot.
+     * Reloads are serialized so an older read can never replace a newer one.
+     */
+    public synchronized Snapshot refresh() {
+        Snapshot snapshot = new Snapshot(leavePolicyRepository.findAll(), leaveTypeConfigRepository.findAll());
+        current.set(snapshot);
+        logger.debug("Leave settings snapshot reloaded: {} active policies, {} configurations",
+                snapshot.activePolicies.size(), snapshot.configs.size());
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${app.leave-settings.refresh-interval-ms:300000}",
+               initialDelayString = "${app.leave-settings.refresh-interval-ms:300000}")
+    public void reload() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot until the next attempt
+            logger.warn("Failed to reload leave settings snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refreshes once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Immutable view of the leave settings at a point in time. Policies and configurations are
+     * copied out of their entities, so the snapshot can be shared freely between threads.
+     */
+    public static final class Snapshot {
+        private final Map<LeaveType, PolicySettings> activePolicies;
+        private final Map<LeaveType, TypeSettings> configs;
+        private final List<TypeSettings> activeConfigs;
+
+        Snapshot(List<LeavePolicy> policies, List<LeaveTypeConfig> allConfigs) {
+            Map<LeaveType, PolicySettings> policyMap = new EnumMap<>(LeaveType.class);
+            for (LeavePolicy policy : policies) {
+                if (!policy.isActive() || policy.getName() == null) {
+                    continue;
+                }
+                // Policies are matched to leave types by name; the first active match wins
+                for (LeaveType leaveType : LeaveType.values()) {
+                    if (policy.getName().equalsIgnoreCase(leaveType.name())) {
+                        policyMap.putIfAbsent(leaveType, new PolicySettings(policy));
+                    }
+                }
+            }
+
+            Map<LeaveType, TypeSettings> configMap = new EnumMap<>(LeaveType.class);
+            List<TypeSettings> active = new ArrayList<>();
+            for (LeaveTypeConfig config : allConfigs) {
+                TypeSettings settings = new TypeSettings(config);
+                configMap.put(settings.getLeaveType(), settings);
+                if (Boolean.TRUE.equals(settings.getIsActive())) {
+                    active.add(settings);
+                }
+            }
+
+            this.activePolicies = Collections.unmodifiableMap(policyMap);
+            this.configs = Collections.unmodifiableMap(configMap);
+            this.activeConfigs = Collections.unmodifiableList(active);
+        }
+
+        public Optional<PolicySettings> getActivePolicy(LeaveType leaveType) {
+            return Optional.ofNullable(activePolicies.get(leaveType));
+        }
+
+        public Optional<TypeSettings> getConfig(LeaveType leaveType) {
+            return Optional.ofNullable(configs.get(leaveType));
+        }
+
+        public Optional<TypeSettings> getActiveConfig(LeaveType leaveType) {
+            return getConfig(leaveType).filter(config -> Boolean.TRUE.equals(config.getIsActive()));
+        }
+
+        public List<TypeSettings> getActiveConfigs() {
+            return activeConfigs;
+        }
+    }
+
+    /**
+     * Read-only copy of the {@link LeavePolicy} fields used by leave validation and balances.
+     */
+    public static final class PolicySettings {
+        private final String name;
+        private final Double daysPerMonth;
+        private final Integer carryForwardDays;
+        private final Integer exclusionYear;
+        private final Integer maxConsecutiveDays;
+
+        PolicySettings(LeavePolicy policy) {
+            this.name = policy.getName();
+            this.daysPerMonth = policy.getDaysPerMonth();
+            this.carryForwardDays = policy.getCarryForwardDays();
+            this.exclusionYear = policy.getExclusionYear();
+            this.maxConsecutiveDays = policy.getMaxConsecutiveDays();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Double getDaysPerMonth() {
+            return daysPerMonth;
+        }
+
+        public Integer getCarryForwardDays() {
+            return carryForwardDays;
+        }
+
+        public Integer getExclusionYear() {
+            return exclusionYear;
+        }
+
+        public Integer getMaxConsecutiveDays() {
+            return maxConsecutiveDays;
+        }
+    }
+
+    /**
+     * Read-only copy of a {@link LeaveTypeConfig}.
+     */
+    public static final class TypeSettings {
+        private final LeaveType leaveType;
+        private final Integer annualLimit;
+        private final Boolean requiresDocument;
+        private final String description;
+        private final Boolean isActive;
+
+        TypeSettings(LeaveTypeConfig config) {
+            this.leaveType = config.getLeaveType();
+            this.annualLimit = config.getAnnualLimit();
+            this.requiresDocument = config.getRequiresDocument();
+            this.description = config.getDescription();
+            this.isActive = config.getIsActive();
+        }
+
+        public LeaveType getLeaveType() {
+            return leaveType;
+        }
+
+        public Integer getAnnualLimit() {
+            return annualLimit;
+        }
+
+        public Boolean getRequiresDocument() {
+            return requiresDocument;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Boolean getIsActive() {
+            return isActive;
+        }
+    }
+}
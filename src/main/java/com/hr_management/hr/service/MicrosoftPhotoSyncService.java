@@ -0,0 +1,149 @@
+package com.hr_management.hr.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.hr_management.hr.config.MicrosoftOAuthProperties;
+import com.hr_management.hr.entity.User;
+import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.PrincipalCache;
+import com.hr_management.hr.util.ByteArrayMultipartFile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Copies a Microsoft user's Graph profile photo into local storage in the background, so the
+ * sign-in callback doesn't wait on the photo download. The user's profile picture is switched
+ * to the local copy once it is stored; a missing photo or failed download leaves it unchanged.
+ * Either answer from Graph also drops the user's entry from the {@link ProfilePhotoCache}, since
+ * the photo may have changed since it was cached.
+ */
+@Service
+public class MicrosoftPhotoSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicrosoftPhotoSyncService.class);
+
+    private final RestTemplate restTemplate;
+    private final MicrosoftOAuthProperties microsoftProperties;
+    private final FileStorageService fileStorageService;
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final AvatarDerivativeService avatarDerivativeService;
+    private final ProfilePhotoCache profilePhotoCache;
+
+    @Value("${app.microsoft.photo-sync.threads:2}")
+    private int threads;
+
+    @Value("${app.microsoft.photo-sync.queue-capacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    public MicrosoftPhotoSyncService(RestTemplate restTemplate,
+                                     MicrosoftOAuthProperties microsoftProperties,
+                                     FileStorageService fileStorageService,
+                                     UserRepository userRepository,
+                                     PrincipalCache principalCache,
+                                     AvatarDerivativeService avatarDerivativeService,
+                                     ProfilePhotoCache profilePhotoCache) {
+        this.restTemplate = restTemplate;
+        this.microsoftProperties = microsoftProperties;
+        this.fileStorageService = fileStorageService;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.avatarDerivativeService = avatarDerivativeService;
+        this.profilePhotoCache = profilePhotoCache;
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "photo-sync-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues a photo sync once the surrounding transaction commits, or immediately when there is none.
+     * @param baseUrl public base URL of this application, captured on the request thread
+     */
+    public void syncAfterCommit(Long userId, String microsoftUserId, String accessToken, String baseUrl) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(userId, microsoftUserId, accessToken, baseUrl);
+                }
+            });
+        } else {
+            submit(userId, microsoftUserId, accessToken, baseUrl);
+        }
+    }
+
+    private void submit(Long userId, String microsoftUserId, String accessToken, String baseUrl) {
+        try {
+            executor.execute(() -> sync(userId, microsoftUserId, accessToken, baseUrl));
+        } catch (RejectedExecutionException e) {
+            // Best effort: the photo is picked up again on the user's next sign-in
+            logger.warn("Photo sync queue full, skipping photo for user {}", userId);
+        }
+    }
+
+    private void sync(Long userId, String microsoftUserId, String accessToken, String baseUrl) {
+        String photoUrl = microsoftProperties.getGraphBaseUrl() + "/users/" + microsoftUserId + "/photo/$value";
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(accessToken);
+            ResponseEntity<byte[]> response = restTemplate.exchange(
+                photoUrl, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+            profilePhotoCache.evict(microsoftUserId);
+            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                logger.debug("No profile photo returned for user {}", userId);
+                return;
+            }
+
+            String previousPicture = userRepository.findById(userId).map(User::getProfilePicture).orElse(null);
+            String filePath = fileStorageService.storeFile(
+                new ByteArrayMultipartFile(response.getBody(), "file", "profile.jpg", "image/jpeg"));
+            String fullUrl = baseUrl + "/uploads/" + filePath.replace("\\", "/");
+            userRepository.updateProfilePicture(userId, fullUrl);
+            principalCache.evict(userId);
+            // Usually the same photo again, which just drops the extra reference
+            fileStorageService.release(previousPicture);
+            avatarDerivativeService.generateAfterCommit(userId, filePath, baseUrl);
+            logger.info("Stored Microsoft profile photo for user {} at {}", userId, fullUrl);
+        } catch (HttpClientErrorException.NotFound e) {
+            profilePhotoCache.evict(microsoftUserId);
+            logger.debug("User {} has no Microsoft profile photo", userId);
+        } catch (Exception e) {
+            logger.warn("Could not sync Microsoft profile photo for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
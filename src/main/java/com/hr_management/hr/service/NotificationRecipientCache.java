@@ -0,0 +1,85 @@
+package com.hr_management.hr.service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hr_management.hr.entity.Role;
+import com.hr_management.hr.repository.UserRepository;
+
+/**
+ * Caches the email addresses of enabled HR managers and admins, who are notified about leave activity.
+ * Invalidated whenever a user's role, enabled flag or email changes; the TTL covers changes made by other instances.
+ */
+@Service
+public class NotificationRecipientCache {
+
+    private static final EnumSet<Role> HR_ROLES = EnumSet.of(Role.ADMIN, Role.HR_MANAGER);
+
+    private final UserRepository userRepository;
+    private final AtomicReference<Entry> current = new AtomicReference<>();
+    private long generation; // Bumped on every invalidation, guarded by this
+
+    @Value("${app.notification-recipients.ttl-ms:300000}")
+    private long ttlMs;
+
+    public NotificationRecipientCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public List<String> getHrRecipientEmails() {
+        Entry entry = current.get();
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt > ttlMs) {
+            long loadGeneration = currentGeneration();
+            entry = new Entry(List.copyOf(userRepository.findEnabledEmailsByRoleIn(HR_ROLES)));
+            store(entry, loadGeneration);
+        }
+        return entry.emails;
+    }
+
+    /**
+     * Drops the cached list once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    // Only keep a loaded list if nothing was invalidated while it was being read
+    private synchronized void store(Entry entry, long loadGeneration) {
+        if (generation == loadGeneration) {
+            current.set(entry);
+        }
+    }
+
+    private synchronized void clear() {
+        generation++;
+        current.set(null);
+    }
+
+    private static final class Entry {
+        private final List<String> emails;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Entry(List<String> emails) {
+            this.emails = emails;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.hr_management.hr.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.hr_management.hr.config.MicrosoftOAuthProperties;
+import com.hr_management.hr.util.BoundedCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Local copy of Microsoft Graph profile photos, keyed by Microsoft ID: an in-memory LRU in
+ * front of a disk cache. A photo is served without contacting Graph while it is fresh;
+ * afterwards it is revalidated with If-None-Match, and served stale if Graph can't be reached.
+ * Concurrent misses for the same user share one upstream request.
+ */
+@Service
+public class ProfilePhotoCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePhotoCache.class);
+
+    private final RestTemplate restTemplate;
+    private final MicrosoftOAuthProperties microsoftProperties;
+    private final Map<String, CompletableFuture<Photo>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.profile-photo-cache.dir:photo-cache}")
+    private String directory;
+
+    @Value("${app.profile-photo-cache.max-entries:500}")
+    private int maxEntries;
+
+    // How long a photo is served without revalidating against Graph
+    @Value("${app.profile-photo-cache.fresh-ms:3600000}")
+    private long freshMs;
+
+    // Memory entries outlive freshness so stale photos can still be revalidated cheaply
+    @Value("${app.profile-photo-cache.retain-ms:86400000}")
+    private long retainMs;
+
+    private Path root;
+    private BoundedCache<String, Photo> memory;
+
+    public ProfilePhotoCache(RestTemplate restTemplate, MicrosoftOAuthProperties microsoftProperties) {
+        this.restTemplate = restTemplate;
+        this.microsoftProperties = microsoftProperties;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        memory = new BoundedCache<>(maxEntries);
+    }
+
+    /**
+     * Returns the user's photo, or null if they have none.
+     * @param accessToken supplies the Graph token, called only if the photo has to be fetched or revalidated
+     */
+    public Photo get(String microsoftId, Supplier<String> accessToken) {
+        Photo cached = memory.get(microsoftId);
+        if (cached != null && cached.isFresh(freshMs)) {
+            return cached.orNull();
+        }
+
+        CompletableFuture<Photo> call = new CompletableFuture<>();
+        CompletableFuture<Photo> existing = inFlight.putIfAbsent(microsoftId, call);
+        if (existing != null) {
+            return join(existing).orNull();
+        }
+        try {
+            Photo photo = load(microsoftId, accessToken, cached);
+            call.complete(photo);
+            return photo.orNull();
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(microsoftId, call);
+        }
+    }
+
+    public void evict(String microsoftId) {
+        memory.invalidate(microsoftId);
+        try {
+            Files.deleteIfExists(dataFile(microsoftId));
+            Files.deleteIfExists(metaFile(microsoftId));
+        } catch (IOException e) {
+            logger.warn("Could not delete cached photo for {}: {}", microsoftId, e.getMessage());
+        }
+    }
+
+    private Photo load(String microsoftId, Supplier<String> accessToken, Photo cached) {
+        Photo current = cached != null ? cached : readFromDisk(microsoftId);
+        if (current != null && current.isFresh(freshMs)) {
+            remember(microsoftId, current);
+            return current;
+        }
+
+        String token = accessToken.get();
+        if (token == null) {
+            // No usable Graph token: serve what we have, and don't cache the miss
+            return current != null ? current : Photo.none();
+        }
+
+        Photo fetched;
+        try {
+            fetched = fetch(microsoftId, token, current);
+        } catch (RestClientException e) {
+            if (current == null) {
+                throw e;
+            }
+            // Graph unavailable or token expired: keep serving what we have
+            logger.warn("Could not revalidate photo for {}, serving cached copy: {}", microsoftId, e.getMessage());
+            return current;
+        }
+        remember(microsoftId, fetched);
+        if (fetched != current) {
+            writeToDisk(microsoftId, fetched);
+        } else {
+            touch(microsoftId);
+        }
+        return fetched;
+    }
+
+    private Photo fetch(String microsoftId, String accessToken, Photo current) {
+        String photoUrl = microsoftProperties.getGraphBaseUrl() + "/users/" + microsoftId + "/photo/$value";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        if (current != null && current.upstreamEtag != null) {
+            headers.setIfNoneMatch(current.upstreamEtag);
+        }
+
+        ResponseEntity<byte[]> response;
+        try {
+            response = restTemplate.exchange(photoUrl, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        } catch (HttpClientErrorException.NotFound e) {
+            return Photo.none();
+        }
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && current != null) {
+            current.fetchedAt = System.currentTimeMillis();
+            return current;
+        }
+        if (response.getBody() == null || response.getBody().length == 0) {
+            return Photo.none();
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        return new Photo(response.getBody(),
+                contentType != null ? contentType.toString() : MediaType.IMAGE_JPEG_VALUE,
+                response.getHeaders().getETag(),
+                System.currentTimeMillis());
+    }
+
+    private void remember(String microsoftId, Photo photo) {
+        memory.put(microsoftId, photo, System.currentTimeMillis() + Math.max(freshMs, retainMs));
+    }
+
+    private Photo readFromDisk(String microsoftId) {
+        Path data = dataFile(microsoftId);
+        Path meta = metaFile(microsoftId);
+        if (!Files.exists(meta)) {
+            return null;
+        }
+        try {
+            // Meta file lines: content type (empty for "no photo"), upstream ETag
+            List<String> lines = Files.readAllLines(meta, StandardCharsets.UTF_8);
+            long fetchedAt = Files.getLastModifiedTime(meta).toMillis();
+            if (lines.isEmpty() || lines.get(0).isEmpty()) {
+                Photo none = Photo.none();
+                none.fetchedAt = fetchedAt;
+                return none;
+            }
+            String upstreamEtag = lines.size() > 1 && !lines.get(1).isEmpty() ? lines.get(1) : null;
+            return new Photo(Files.readAllBytes(data), lines.get(0), upstreamEtag, fetchedAt);
+        } catch (IOException e) {
+            logger.warn("Could not read cached photo for {}: {}", microsoftId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String microsoftId, Photo photo) {
+        try {
+            if (photo.bytes != null) {
+                Path tmp = Files.createTempFile(root, "photo", ".tmp");
+                Files.write(tmp, photo.bytes);
+                Files.move(tmp, dataFile(microsoftId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(dataFile(microsoftId));
+            }
+            String meta = (photo.contentType != null ? photo.contentType : "") + "\n"
+                    + (photo.upstreamEtag != null ? photo.upstreamEtag : "") + "\n";
+            Path tmp = Files.createTempFile(root, "meta", ".tmp");
+            Files.writeString(tmp, meta, StandardCharsets.UTF_8);
+            Files.move(tmp, metaFile(microsoftId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write cached photo for {}: {}", microsoftId, e.getMessage());
+        }
+    }
+
+    // Records a successful revalidation so a restart doesn't revalidate again straight away
+    private void touch(String microsoftId) {
+        try {
+            Path meta = metaFile(microsoftId);
+            if (Files.exists(meta)) {
+                Files.setLastModifiedTime(meta, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            logger.debug("Could not touch cached photo for {}: {}", microsoftId, e.getMessage());
+        }
+    }
+
+    private Path dataFile(String microsoftId) {
+        return root.resolve(fileKey(microsoftId) + ".img");
+    }
+
+    private Path metaFile(String microsoftId) {
+        return root.resolve(fileKey(microsoftId) + ".meta");
+    }
+
+    // Hashed so arbitrary IDs map to safe file names
+    private static String fileKey(String microsoftId) {
+        return sha256Hex(microsoftId.getBytes(StandardCharsets.UTF_8)).substring(0, 32);
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Photo join(CompletableFuture<Photo> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for profile photo", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Profile photo fetch failed", e.getCause());
+        }
+    }
+
+    /**
+     * A cached photo. Instances without bytes record that the user has no photo.
+     */
+    public static final class Photo {
+        private final byte[] bytes;
+        private final String contentType;
+        private final String upstreamEtag;
+        private final String etag;
+        private volatile long fetchedAt;
+
+        Photo(byte[] bytes, String contentType, String upstreamEtag, long fetchedAt) {
+            this.bytes = bytes;
+            this.contentType = contentType;
+            this.upstreamEtag = upstreamEtag;
+            this.etag = bytes != null ? "\"" + sha256Hex(bytes).substring(0, 32) + "\"" : null;
+            this.fetchedAt = fetchedAt;
+        }
+
+        static Photo none() {
+            return new Photo(null, null, null, System.currentTimeMillis());
+        }
+
+        boolean isFresh(long freshMs) {
+            return System.currentTimeMillis() - fetchedAt < freshMs;
+        }
+
+        Photo orNull() {
+            return bytes != null ? this : null;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Strong ETag derived from the photo bytes.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.hr_management.hr.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+/**
+ * A small pool of connected, authenticated SMTP transports, so consecutive sends reuse one
+ * TCP/TLS session and SMTP login instead of opening a new one per email. Transports idle for
+ * longer than the idle timeout are closed; a borrowed transport belongs to one thread until released.
+ */
+@Service
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+
+    @Value("${app.mail.transport-pool.max-idle:2}")
+    private int maxIdle;
+
+    @Value("${app.mail.transport-pool.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * Returns a connected transport, reusing an idle one when it is still alive.
+     */
+    public Transport borrow() {
+        while (true) {
+            PooledTransport pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return connect();
+            }
+            if (!pooled.isExpired(idleTimeoutMs) && pooled.transport.isConnected()) {
+                return pooled.transport;
+            }
+            close(pooled.transport);
+        }
+    }
+
+    /**
+     * Hands a transport back for reuse. Broken transports, or any beyond the idle limit, are closed.
+     */
+    public void release(Transport transport) {
+        if (transport.isConnected()) {
+            synchronized (idle) {
+                if (idle.size() < maxIdle) {
+                    idle.addFirst(new PooledTransport(transport));
+                    return;
+                }
+            }
+        }
+        close(transport);
+    }
+
+    /**
+     * Closes a transport that failed mid-use instead of returning it to the pool.
+     */
+    public void invalidate(Transport transport) {
+        close(transport);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.transport-pool.eviction-interval-ms:30000}")
+    public void evictIdle() {
+        synchronized (idle) {
+            Iterator<PooledTransport> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                PooledTransport pooled = iterator.next();
+                if (pooled.isExpired(idleTimeoutMs)) {
+                    iterator.remove();
+                    close(pooled.transport);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (idle) {
+            idle.forEach(pooled -> close(pooled.transport));
+            idle.clear();
+        }
+    }
+
+    private Transport connect() {
+        try {
+            Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+            transport.connect(mailSender.getHost(), mailSender.getPort(),
+                    mailSender.getUsername(), mailSender.getPassword());
+            logger.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+            return transport;
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Could not connect to SMTP server " + mailSender.getHost(), e);
+        }
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private final long releasedAt = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        boolean isExpired(long idleTimeoutMs) {
+            return System.currentTimeMillis() - releasedAt > idleTimeoutMs;
+        }
+    }
+}
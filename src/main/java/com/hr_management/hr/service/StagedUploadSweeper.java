@@ -0,0 +1,27 @@
+package com.hr_management.hr.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Garbage-collects staged documents that were never attached to a leave request, and
+ * resumable uploads that were never completed.
+ */
+@Service
+public class StagedUploadSweeper {
+
+    private final DocumentStagingService documentStagingService;
+    private final ChunkedUploadService chunkedUploadService;
+
+    public StagedUploadSweeper(DocumentStagingService documentStagingService,
+                               ChunkedUploadService chunkedUploadService) {
+        this.documentStagingService = documentStagingService;
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.staging.sweep-interval-ms:300000}")
+    public void sweep() {
+        documentStagingService.purgeExpired();
+        chunkedUploadService.purgeExpired();
+    }
+}
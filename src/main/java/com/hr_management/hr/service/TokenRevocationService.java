@@ -0,0 +1,31 @@
+package com.hr_management.hr.service;
+
+import io.jsonwebtoken.Claims;
+
+public interface TokenRevocationService {
+    /**
+     * Revokes the token until it expires. Tokens without a jti can't be revoked individually.
+     * @param claims verified claims of the token to revoke
+     * @return true if the token was revoked
+     */
+    boolean revoke(Claims claims);
+
+    /**
+     * Checks whether the token has been revoked. The common not-revoked case is answered
+     * from memory; only possible matches are confirmed against the database.
+     * @param claims verified claims
+     * @return true if revoked
+     */
+    boolean isRevoked(Claims claims);
+
+    /**
+     * Deletes revocations whose tokens have expired.
+     * @return number of revocations deleted
+     */
+    int purgeExpired();
+
+    /**
+     * Reloads the in-memory filter from the database, picking up revocations made by other instances.
+     */
+    void reload();
+}
@@ -0,0 +1,31 @@
+package com.hr_management.hr.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sweeps expired token revocations and keeps the in-memory revocation filter in step with the table.
+ */
+@Service
+public class TokenRevocationSweeper {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public TokenRevocationSweeper(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sweep-interval-ms:3600000}")
+    public void sweep() {
+        if (tokenRevocationService.purgeExpired() > 0) {
+            // Rebuilding drops the swept jtis from the filter
+            tokenRevocationService.reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.reload-interval-ms:60000}",
+               initialDelayString = "${app.jwt.revocation.reload-interval-ms:60000}")
+    public void reload() {
+        tokenRevocationService.reload();
+    }
+}
@@ -20,9 +20,11 @@ import com.hr_management.hr.model.RegisterRequestDto;
 import com.hr_management.hr.model.ResetPasswordRequestDto;
 import com.hr_management.hr.repository.EmployeeRepository;
 import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.PrincipalCache;
 import com.hr_management.hr.service.AuthService;
 import com.hr_management.hr.service.HtmlEmailTemplateService;
 import com.hr_management.hr.service.JwtService;
+import com.hr_management.hr.service.NotificationRecipientCache;
 
 @Service
 public class AuthServiceImpl implements AuthService {
@@ -33,17 +35,23 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final HtmlEmailTemplateService htmlEmailTemplateService;
+    private final NotificationRecipientCache notificationRecipientCache;
+    private final PrincipalCache principalCache;
 
     public AuthServiceImpl(UserRepository userRepository, 
                          EmployeeRepository employeeRepository,
                          PasswordEncoder passwordEncoder,
                          JwtService jwtService,
-                         HtmlEmailTemplateService htmlEmailTemplateService) {
+                         HtmlEmailTemplateService htmlEmailTemplateService,
+                         NotificationRecipientCache notificationRecipientCache,
+                         PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.htmlEmailTemplateService = htmlEmailTemplateService;
+        this.notificationRecipientCache = notificationRecipientCache;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -70,6 +78,9 @@ public class AuthServiceImpl implements AuthService {
             user.setEnabled(true);
             user.setProfilePicture(""); // Set default empty string
             user = userRepository.save(user);
+            if (user.getRole() == Role.ADMIN || user.getRole() == Role.HR_MANAGER) {
+                notificationRecipientCache.invalidate();
+            }
 
             // Create employee record
             Employee employee = new Employee();
@@ -83,6 +94,7 @@ public class AuthServiceImpl implements AuthService {
             employee.setGender(request.getGender());
             employee.setMicrosoftId(""); // Set default empty string
             employeeRepository.save(employee);
+            user.setEmployee(employee);
 
             // Generate JWT token
             String token = jwtService.generateToken(user);
@@ -161,6 +173,7 @@ public class AuthServiceImpl implements AuthService {
         // Update password
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.evict(user.getId());
         log.info("Password successfully reset for user: {}", user.getUsername());
 
         // Send password reset confirmation email
@@ -223,6 +236,7 @@ public class AuthServiceImpl implements AuthService {
         user.setResetToken(null);
         user.setResetTokenExpiryDate(null);
         userRepository.save(user);
+        principalCache.evict(user.getId());
         log.info("Password successfully reset for user: {}", user.getUsername());
 
         // Send password reset confirmation email
@@ -0,0 +1,296 @@
+package com.hr_management.hr.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.hr_management.hr.entity.ChunkedUpload;
+import com.hr_management.hr.exception.LeaveAPIException;
+import com.hr_management.hr.model.ChunkedUploadRequestDto;
+import com.hr_management.hr.model.ChunkedUploadStatusDto;
+import com.hr_management.hr.model.StagedUploadDto;
+import com.hr_management.hr.repository.ChunkedUploadRepository;
+import com.hr_management.hr.service.ChunkedUploadService;
+import com.hr_management.hr.service.DocumentStagingService;
+import com.hr_management.hr.service.FileStorageService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Resumable uploads assembled in part files under the upload staging directory. Chunks are
+ * transferred from the request stream into the file channel at their offset, so memory use
+ * doesn't depend on file or chunk size; the part file's length is the authoritative offset.
+ * Only one request at a time works on an upload; a concurrent one is answered with 409 rather
+ * than queued behind a chunk that may take minutes to arrive.
+ */
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadServiceImpl.class);
+
+    private static final String PARTS_DIR = "parts";
+
+    // Held while a request or the sweeper works on an upload; entries are removed on release
+    private final Map<String, ReentrantLock> uploadLocks = new ConcurrentHashMap<>();
+
+    private final ChunkedUploadRepository chunkedUploadRepository;
+    private final FileStorageService fileStorageService;
+    private final DocumentStagingService documentStagingService;
+
+    @Value("${app.uploads.chunked.max-size:104857600}")
+    private long maxSize;
+
+    // Sliding: each chunk extends the upload's lifetime
+    @Value("${app.uploads.chunked.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${app.uploads.chunked.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    // Unfinished uploads an employee may have at once, each holding up to max-size on disk
+    @Value("${app.uploads.chunked.max-open-per-employee:5}")
+    private int maxOpenPerEmployee;
+
+    private Path partsLocation;
+
+    public ChunkedUploadServiceImpl(ChunkedUploadRepository chunkedUploadRepository,
+                                    FileStorageService fileStorageService,
+                                    DocumentStagingService documentStagingService) {
+        this.chunkedUploadRepository = chunkedUploadRepository;
+        this.fileStorageService = fileStorageService;
+        this.documentStagingService = documentStagingService;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        partsLocation = fileStorageService.getStagingLocation().resolve(PARTS_DIR);
+        Files.createDirectories(partsLocation);
+    }
+
+    @Override
+    public ChunkedUploadStatusDto initiate(Long employeeId, ChunkedUploadRequestDto request) {
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new LeaveAPIException(HttpStatus.BAD_REQUEST, "File name is required");
+        }
+        if (request.getSize() <= 0 || request.getSize() > maxSize) {
+            throw new LeaveAPIException(HttpStatus.BAD_REQUEST,
+                    String.format("File size must be between 1 and %d bytes", maxSize));
+        }
+        if (chunkedUploadRepository.countByEmployeeIdAndExpiresAtAfter(employeeId, LocalDateTime.now()) >= maxOpenPerEmployee) {
+            throw new LeaveAPIException(HttpStatus.TOO_MANY_REQUESTS,
+                    String.format("At most %d uploads can be open at once; complete or abort one first", maxOpenPerEmployee));
+        }
+        ChunkedUpload upload = new ChunkedUpload();
+        upload.setUploadId(UUID.randomUUID().toString());
+        upload.setEmployeeId(employeeId);
+        upload.setFileName(request.getFileName());
+        upload.setContentType(request.getContentType());
+        upload.setTotalSize(request.getSize());
+        upload.setReceivedBytes(0);
+        upload.setExpiresAt(nextExpiry());
+        upload = chunkedUploadRepository.save(upload);
+        return toDto(upload, 0);
+    }
+
+    @Override
+    public ChunkedUploadStatusDto appendChunk(String uploadId, Long employeeId, long offset, InputStream body) throws IOException {
+        ChunkedUpload upload = find(uploadId, employeeId);
+        ReentrantLock lock = lockOrConflict(uploadId);
+        try {
+            Path part = partFile(upload);
+            long received;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                received = channel.size();
+                if (offset != received) {
+                    throw new LeaveAPIException(HttpStatus.CONFLICT,
+                            String.format("Chunk offset %d doesn't match the %d bytes received so far", offset, received));
+                }
+                long remaining = upload.getTotalSize() - received;
+                ReadableByteChannel source = Channels.newChannel(body);
+                try {
+                    // Copies through a small fixed buffer; bytes written before a disconnect are kept
+                    while (remaining > 0) {
+                        long transferred = channel.transferFrom(source, received, remaining);
+                        if (transferred == 0) {
+                            break;
+                        }
+                        received += transferred;
+                        remaining -= transferred;
+                    }
+                } finally {
+                    if (received != upload.getReceivedBytes()) {
+                        upload.setReceivedBytes(received);
+                        upload.setExpiresAt(nextExpiry());
+                        chunkedUploadRepository.save(upload);
+                    }
+                }
+                if (remaining == 0 && body.read() != -1) {
+                    throw new LeaveAPIException(HttpStatus.BAD_REQUEST,
+                            String.format("Chunk runs past the declared file size of %d bytes", upload.getTotalSize()));
+                }
+            }
+            return toDto(upload, received);
+        } finally {
+            unlock(uploadId, lock);
+        }
+    }
+
+    @Override
+    public ChunkedUploadStatusDto getStatus(String uploadId, Long employeeId) {
+        ChunkedUpload upload = find(uploadId, employeeId);
+        return toDto(upload, receivedBytes(upload));
+    }
+
+    @Override
+    public StagedUploadDto complete(String uploadId, Long employeeId, String sha256) throws IOException {
+        if (sha256 == null || !sha256.matches("[0-9a-fA-F]{64}")) {
+            throw new LeaveAPIException(HttpStatus.BAD_REQUEST, "A hex SHA-256 checksum of the file is required");
+        }
+        ChunkedUpload upload = find(uploadId, employeeId);
+        ReentrantLock lock = lockOrConflict(uploadId);
+        try {
+            long received = receivedBytes(upload);
+            if (received != upload.getTotalSize()) {
+                throw new LeaveAPIException(HttpStatus.CONFLICT,
+                        String.format("Upload is incomplete: %d of %d bytes received", received, upload.getTotalSize()));
+            }
+            String path;
+            try {
+                // Renamed into the store; the checksum pass is the only full read of the file
+                path = fileStorageService.storeLocalFile(partFile(upload), upload.getFileName(), sha256);
+            } catch (IllegalArgumentException e) {
+                // The received bytes are wrong and can't be repaired by resuming
+                delete(upload);
+                throw new LeaveAPIException(HttpStatus.BAD_REQUEST, e.getMessage() + ". Please upload the file again.");
+            }
+            chunkedUploadRepository.delete(upload);
+            return documentStagingService.stageStored(employeeId, path, upload.getFileName(),
+                    upload.getContentType(), upload.getTotalSize());
+        } finally {
+            unlock(uploadId, lock);
+        }
+    }
+
+    @Override
+    public void abort(String uploadId, Long employeeId) {
+        ChunkedUpload upload = find(uploadId, employeeId);
+        ReentrantLock lock = lockOrConflict(uploadId);
+        try {
+            delete(upload);
+        } finally {
+            unlock(uploadId, lock);
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        List<ChunkedUpload> expired = chunkedUploadRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        int purged = 0;
+        for (ChunkedUpload upload : expired) {
+            // Skipped while a request is using it; a chunk in progress extends the upload anyway
+            ReentrantLock lock = tryLock(upload.getUploadId());
+            if (lock == null) {
+                continue;
+            }
+            try {
+                delete(upload);
+                purged++;
+            } finally {
+                unlock(upload.getUploadId(), lock);
+            }
+        }
+        if (purged > 0) {
+            logger.info("Purged {} expired chunked uploads", purged);
+        }
+        return purged;
+    }
+
+    private ChunkedUpload find(String uploadId, Long employeeId) {
+        ChunkedUpload upload = chunkedUploadRepository.findByUploadIdAndEmployeeId(uploadId, employeeId)
+                .orElseThrow(() -> new LeaveAPIException(HttpStatus.NOT_FOUND, "Upload not found: " + uploadId));
+        if (!upload.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new LeaveAPIException(HttpStatus.GONE, "Upload has expired, please start again");
+        }
+        return upload;
+    }
+
+    private void delete(ChunkedUpload upload) {
+        try {
+            Files.deleteIfExists(partFile(upload));
+        } catch (IOException e) {
+            logger.warn("Could not delete part file of upload {}: {}", upload.getUploadId(), e.getMessage());
+        }
+        chunkedUploadRepository.delete(upload);
+    }
+
+    private long receivedBytes(ChunkedUpload upload) {
+        try {
+            Path part = partFile(upload);
+            return Files.exists(part) ? Files.size(part) : 0;
+        } catch (IOException e) {
+            return upload.getReceivedBytes();
+        }
+    }
+
+    private Path partFile(ChunkedUpload upload) {
+        return partsLocation.resolve(upload.getUploadId() + ".part");
+    }
+
+    private LocalDateTime nextExpiry() {
+        return LocalDateTime.now().plusNanos(ttlMs * 1_000_000);
+    }
+
+    private ReentrantLock lockOrConflict(String uploadId) {
+        ReentrantLock lock = tryLock(uploadId);
+        if (lock == null) {
+            throw new LeaveAPIException(HttpStatus.CONFLICT,
+                    "Another request is in progress for this upload; retry once it has finished");
+        }
+        return lock;
+    }
+
+    /**
+     * @return the held lock, or null if another thread holds it
+     */
+    private ReentrantLock tryLock(String uploadId) {
+        while (true) {
+            ReentrantLock lock = uploadLocks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+            if (!lock.tryLock()) {
+                return null;
+            }
+            if (uploadLocks.get(uploadId) == lock) {
+                return lock;
+            }
+            // Released and removed by its previous holder in between; take the current one
+            lock.unlock();
+        }
+    }
+
+    private void unlock(String uploadId, ReentrantLock lock) {
+        uploadLocks.remove(uploadId, lock);
+        lock.unlock();
+    }
+
+    private static ChunkedUploadStatusDto toDto(ChunkedUpload upload, long offset) {
+        return new ChunkedUploadStatusDto(upload.getUploadId(), upload.getFileName(), offset,
+                upload.getTotalSize(), upload.getExpiresAt());
+    }
+}
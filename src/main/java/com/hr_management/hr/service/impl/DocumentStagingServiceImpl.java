@@ -0,0 +1,117 @@
+package com.hr_management.hr.service.impl;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.hr_management.hr.entity.StagedUpload;
+import com.hr_management.hr.exception.LeaveAPIException;
+import com.hr_management.hr.model.StagedUploadDto;
+import com.hr_management.hr.repository.StagedUploadRepository;
+import com.hr_management.hr.service.DocumentStagingService;
+import com.hr_management.hr.service.FileStorageService;
+
+@Service
+public class DocumentStagingServiceImpl implements DocumentStagingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentStagingServiceImpl.class);
+
+    private final StagedUploadRepository stagedUploadRepository;
+    private final FileStorageService fileStorageService;
+
+    @Value("${app.uploads.staging.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${app.uploads.staging.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    public DocumentStagingServiceImpl(StagedUploadRepository stagedUploadRepository,
+                                      FileStorageService fileStorageService) {
+        this.stagedUploadRepository = stagedUploadRepository;
+        this.fileStorageService = fileStorageService;
+    }
+
+    @Override
+    public StagedUploadDto stage(Long employeeId, MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new LeaveAPIException(HttpStatus.BAD_REQUEST, "Document is required and cannot be empty");
+        }
+        // Written before any transaction starts
+        String path = fileStorageService.storeFile(file);
+        return stageStored(employeeId, path, file.getOriginalFilename(), file.getContentType(), file.getSize());
+    }
+
+    @Override
+    public StagedUploadDto stageStored(Long employeeId, String path, String originalFilename, String contentType, long size) {
+        // The row takes over the file's reference
+        StagedUpload upload = new StagedUpload();
+        upload.setHandle(UUID.randomUUID().toString());
+        upload.setEmployeeId(employeeId);
+        upload.setPath(path);
+        upload.setOriginalFilename(originalFilename);
+        upload.setContentType(contentType);
+        upload.setSize(size);
+        upload.setExpiresAt(LocalDateTime.now().plusNanos(ttlMs * 1_000_000));
+        try {
+            upload = stagedUploadRepository.save(upload);
+        } catch (RuntimeException e) {
+            fileStorageService.release(path);
+            throw e;
+        }
+
+        return new StagedUploadDto(upload.getHandle(), upload.getOriginalFilename(), upload.getContentType(),
+                upload.getSize(), upload.getExpiresAt());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String promote(String handle, Long employeeId) {
+        StagedUpload upload = stagedUploadRepository.findByHandleAndEmployeeId(handle, employeeId)
+                .orElseThrow(() -> new LeaveAPIException(HttpStatus.BAD_REQUEST, "Unknown document handle: " + handle));
+        // Rolled back with the caller's transaction, leaving the upload staged
+        if (stagedUploadRepository.deleteUnexpired(upload.getId(), LocalDateTime.now()) == 0) {
+            throw new LeaveAPIException(HttpStatus.BAD_REQUEST, "Document upload has expired, please upload it again");
+        }
+        return upload.getPath();
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StagedUpload> expired = stagedUploadRepository.findExpired(now, PageRequest.of(0, sweepBatchSize));
+        int purged = 0;
+        for (StagedUpload upload : expired) {
+            if (stagedUploadRepository.deleteExpired(upload.getId(), now) > 0) {
+                releaseAfterCommit(upload.getPath());
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            logger.info("Purged {} expired staged uploads", purged);
+        }
+        return purged;
+    }
+
+    private void releaseAfterCommit(String path) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fileStorageService.release(path);
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.hr_management.hr.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hr_management.hr.entity.EmailOutbox;
+import com.hr_management.hr.enums.EmailOutboxStatus;
+import com.hr_management.hr.repository.EmailOutboxRepository;
+import com.hr_management.hr.service.EmailOutboxService;
+
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxServiceImpl.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${app.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    // How long a claimed row stays invisible to other dispatchers while it is being sent
+    @Value("${app.mail.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository) {
+        this.emailOutboxRepository = emailOutboxRepository;
+    }
+
+    @Override
+    @Transactional
+    public void queueSimpleMessage(String to, String subject, String text) {
+        emailOutboxRepository.save(new EmailOutbox(to, subject, text, false));
+    }
+
+    @Override
+    @Transactional
+    public void queueHtmlMessage(String to, String subject, String htmlContent) {
+        emailOutboxRepository.save(new EmailOutbox(to, subject, htmlContent, true));
+    }
+
+    @Override
+    @Transactional
+    public List<EmailOutbox> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(now, PageRequest.of(0, limit));
+        for (EmailOutbox email : due) {
+            // Count the attempt up front and push the row out of view until it is marked sent or failed
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(Duration.ofMillis(claimTimeoutMs)));
+        }
+        return due;
+    }
+
+    @Override
+    @Transactional
+    public void markSent(Long id) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            email.setStatus(EmailOutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(Long id, String error) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            email.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutboxStatus.DEAD);
+                logger.error("Giving up on email {} to {} after {} attempts: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), error);
+                return;
+            }
+
+            // Exponential backoff: initial, 2x, 4x, ... capped at the maximum
+            long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(email.getAttempts() - 1, 20));
+            email.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMs)));
+            logger.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}",
+                    email.getId(), email.getRecipient(), email.getAttempts(), backoffMs, error);
+        });
+    }
+
+    @Override
+    @Transactional
+    public int purgeSent(LocalDateTime before) {
+        return emailOutboxRepository.deleteSentBefore(before);
+    }
+}
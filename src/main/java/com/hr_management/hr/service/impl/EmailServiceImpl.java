@@ -1,17 +1,24 @@
 package com.hr_management.hr.service.impl;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import com.hr_management.hr.model.EmailMessage;
 import com.hr_management.hr.service.EmailService;
+import com.hr_management.hr.service.SmtpTransportPool;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
 
 @Service
@@ -19,42 +26,90 @@ public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
 
-    @Autowired
-    private JavaMailSender emailSender;
+    private final JavaMailSender emailSender;
+    private final SmtpTransportPool transportPool;
+
+    public EmailServiceImpl(JavaMailSender emailSender, SmtpTransportPool transportPool) {
+        this.emailSender = emailSender;
+        this.transportPool = transportPool;
+    }
 
     @Override
     public void sendSimpleMessage(String to, String subject, String text) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            // Set 'from' if needed/configured, otherwise it uses spring.mail.username
-            // message.setFrom("noreply@example.com");
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            emailSender.send(message);
-            logger.info("Email sent successfully to {}", to);
-        } catch (MailException exception) {
-            logger.error("Error sending email to {}: {}", to, exception.getMessage());
-            // Depending on requirements, you might re-throw a custom exception
-            // or just log the error. For now, we'll just log it.
-        }
-        // Consider making this @Async for better performance in a real application
+        sendOne(new EmailMessage(to, subject, text, false));
+        logger.info("Email sent successfully to {}", to);
     }
 
     @Override
     public void sendHtmlMessage(String to, String subject, String htmlContent) {
+        sendOne(new EmailMessage(to, subject, htmlContent, true));
+        logger.info("HTML email sent successfully to {}", to);
+    }
+
+    @Override
+    public Map<Integer, MailException> sendBatch(List<EmailMessage> messages) {
+        Map<Integer, MailException> failures = new LinkedHashMap<>();
+        Transport transport = null;
         try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            emailSender.send(message);
-            logger.info("HTML email sent successfully to {}", to);
-        } catch (MessagingException | MailException exception) {
-            logger.error("Error sending HTML email to {}: {}", to, exception.getMessage());
+            for (int i = 0; i < messages.size(); i++) {
+                EmailMessage email = messages.get(i);
+                MimeMessage message;
+                try {
+                    message = toMimeMessage(email);
+                } catch (MessagingException exception) {
+                    logger.error("Error preparing email to {}: {}", email.getTo(), exception.getMessage());
+                    failures.put(i, new MailPreparationException(exception));
+                    continue;
+                }
+
+                if (transport == null) {
+                    try {
+                        transport = transportPool.borrow();
+                    } catch (MailException exception) {
+                        // No connection means none of the remaining messages can go out either
+                        logger.error("Error connecting to mail server: {}", exception.getMessage());
+                        for (int j = i; j < messages.size(); j++) {
+                            failures.putIfAbsent(j, exception);
+                        }
+                        break;
+                    }
+                }
+
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException exception) {
+                    logger.error("Error sending email to {}: {}", email.getTo(), exception.getMessage());
+                    failures.put(i, new MailSendException("Failed to send email to " + email.getTo(), exception));
+                    if (!transport.isConnected()) {
+                        // Drop the broken connection; the next message opens a fresh one
+                        transportPool.invalidate(transport);
+                        transport = null;
+                    }
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport);
+            }
         }
+        return failures;
+    }
+
+    private void sendOne(EmailMessage email) {
+        Map<Integer, MailException> failures = sendBatch(List.of(email));
+        if (!failures.isEmpty()) {
+            throw failures.get(0); // Let the outbox dispatcher schedule a retry
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailMessage email) throws MessagingException {
+        MimeMessage message = emailSender.createMimeMessage();
+        // Set 'from' if needed/configured, otherwise the mail server uses spring.mail.username
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.isHtml(), "UTF-8");
+        helper.setTo(email.getTo());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        message.saveChanges();
+        return message;
     }
-} 
\ No newline at end of file
+}
@@ -1,10 +1,12 @@
 package com.hr_management.hr.service.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hr_management.hr.entity.Employee;
 import com.hr_management.hr.entity.User;
@@ -57,23 +59,29 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
         
         Employee savedEmployee = employeeRepository.save(employee);
-        return convertToDto(savedEmployee);
+        return convertToDto(savedEmployee, leaveService.getEmployeeLeaves(savedEmployee.getId()));
     }
 
     @Override
     public Optional<EmployeeDto> findByUser(User user) {
         return employeeRepository.findByUser(user)
-                .map(this::convertToDto);
+                .map(employee -> convertToDto(employee, leaveService.getEmployeeLeaves(employee.getId())));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDto> findAllEmployees() {
-        return employeeRepository.findAll().stream()
-                .map(this::convertToDto)
+        // One query for employees with their users, then their leaves in batches, instead of one query per employee
+        List<Employee> employees = employeeRepository.findAllWithUser();
+        Map<Long, List<LeaveDto>> leavesByEmployee = leaveService.getLeavesByEmployeeIds(
+                employees.stream().map(Employee::getId).collect(Collectors.toList()));
+
+        return employees.stream()
+                .map(employee -> convertToDto(employee, leavesByEmployee.getOrDefault(employee.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
-    private EmployeeDto convertToDto(Employee employee) {
+    private EmployeeDto convertToDto(Employee employee, List<LeaveDto> leaveDtos) {
         UserDto userDto = null;
         if (employee.getUser() != null) {
             userDto = UserDto.builder()
@@ -84,9 +92,6 @@ public class EmployeeServiceImpl implements EmployeeService {
                     .build();
         }
 
-        // Fetch and convert leaves
-        List<LeaveDto> leaveDtos = leaveService.getEmployeeLeaves(employee.getId());
-
         return EmployeeDto.builder()
                 .id(employee.getId())
                 .firstName(employee.getFirstName())
@@ -109,6 +114,17 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeRepository.findById(id);
     }
 
+    @Override
+    public EmployeeDto toSummaryDto(Employee employee) {
+        return convertToDto(employee, null);
+    }
+
+    @Override
+    public Optional<EmployeeDto> findDtoById(Long id) {
+        return employeeRepository.findById(id)
+                .map(employee -> convertToDto(employee, leaveService.getEmployeeLeaves(employee.getId())));
+    }
+
     @Override
     public void deleteById(Long id) {
         employeeRepository.deleteById(id);
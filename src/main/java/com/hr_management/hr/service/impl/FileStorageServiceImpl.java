@@ -2,42 +2,131 @@ package com.hr_management.hr.service.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.hr_management.hr.entity.StoredFile;
+import com.hr_management.hr.repository.StoredFileRepository;
 import com.hr_management.hr.service.FileStorageService;
 
 import jakarta.annotation.PostConstruct;
 
+/**
+ * Content-addressed upload store. Files are named by their SHA-256 under a two-level
+ * hash-prefixed layout (objects/ab/cd/abcd...ext), so identical uploads are stored once
+ * and no single directory grows unbounded.
+ */
 @Service
 public class FileStorageServiceImpl implements FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageServiceImpl.class);
+
+    private static final String OBJECTS_DIR = "objects";
+    private static final String STAGING_DIR = ".staging";
+    private static final String UPLOADS_URL_SEGMENT = "/uploads/";
+
+    // Derived files are named <original file name>-<variant>.<extension>
+    private static final Pattern DERIVATIVE_PATH = Pattern.compile("^(" + OBJECTS_DIR + "/.+)-[a-z0-9]+\\.[a-z0-9]+$");
+    private static final Pattern DERIVATIVE_PART = Pattern.compile("[a-z0-9]+");
+
+    // Serializes store and release of the same content so a file isn't deleted while being re-referenced
+    private static final int LOCK_STRIPES = 64;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final StoredFileRepository storedFileRepository;
+
     @Value("${spring.servlet.multipart.location:./uploads}") // Use the correct property name
     private String uploadDir;
 
     private Path rootLocation;
+    private Path stagingLocation;
+
+    public FileStorageServiceImpl(StoredFileRepository storedFileRepository) {
+        this.storedFileRepository = storedFileRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
 
     @PostConstruct
     public void init() throws IOException {
-        rootLocation = Paths.get(uploadDir);
-        Files.createDirectories(rootLocation);
+        rootLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Inside the multipart location, so spooled parts can be renamed into place
+        stagingLocation = rootLocation.resolve(STAGING_DIR);
+        Files.createDirectories(rootLocation.resolve(OBJECTS_DIR));
+        Files.createDirectories(stagingLocation);
     }
 
     @Override
-    public String storeFile(MultipartFile file, String subDirectory) throws IOException {
+    public String storeFile(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             return null; // Or throw exception if file is mandatory but passed as null
         }
 
-        String originalFilename = file.getOriginalFilename();
+        String fileExtension = extensionOf(file.getOriginalFilename());
+        // One read pass over the upload; nothing is written for content we already have
+        String hash;
+        try (InputStream inputStream = file.getInputStream()) {
+            hash = sha256(inputStream);
+        }
+        return store(hash, fileExtension, file.getSize(), targetLocation -> moveIntoPlace(file, targetLocation));
+    }
+
+    @Override
+    public String storeLocalFile(Path source, String originalFilename, String expectedSha256) throws IOException {
+        String fileExtension = extensionOf(originalFilename);
+        String hash;
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            hash = sha256(inputStream);
+        }
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(hash)) {
+            throw new IllegalArgumentException("Checksum mismatch: expected " + expectedSha256 + " but content is " + hash);
+        }
+        String relativePath = store(hash, fileExtension, Files.size(source), targetLocation -> {
+            Files.createDirectories(targetLocation.getParent());
+            Files.move(source, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+        });
+        // Left behind when the content was already stored
+        Files.deleteIfExists(source);
+        return relativePath;
+    }
+
+    // Places new content under its hash, or adds a reference to the existing file
+    private String store(String hash, String fileExtension, long size, Placement placement) throws IOException {
+        String relativePath = OBJECTS_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + fileExtension;
+        Path targetLocation = rootLocation.resolve(relativePath);
+
+        synchronized (lockFor(relativePath)) {
+            if (!Files.exists(targetLocation)) {
+                placement.moveTo(targetLocation);
+                logger.debug("Stored new file {}", relativePath);
+            } else {
+                logger.debug("Deduplicated upload onto existing file {}", relativePath);
+            }
+            if (storedFileRepository.incrementRefCount(relativePath) == 0) {
+                storedFileRepository.save(new StoredFile(relativePath, hash, size, 1));
+            }
+        }
+        return relativePath;
+    }
+
+    private static String extensionOf(String originalFilename) throws IOException {
         if (originalFilename == null) {
             originalFilename = "unknown_file";
         }
@@ -47,36 +136,144 @@ public class FileStorageServiceImpl implements FileStorageService {
             throw new IOException("Cannot store file with relative path outside current directory " + originalFilename);
         }
 
-        String fileExtension = "";
         int lastDot = originalFilename.lastIndexOf('.');
-        if (lastDot > 0) {
-            fileExtension = originalFilename.substring(lastDot);
+        return lastDot > 0 ? originalFilename.substring(lastDot).toLowerCase() : "";
+    }
+
+    @Override
+    public void release(String pathOrUrl) {
+        String relativePath = toRelativePath(pathOrUrl);
+        if (relativePath == null || !relativePath.startsWith(OBJECTS_DIR + "/")) {
+            return;
         }
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+        Matcher derivative = DERIVATIVE_PATH.matcher(relativePath);
+        if (derivative.matches()) {
+            relativePath = derivative.group(1);
+        }
+        synchronized (lockFor(relativePath)) {
+            if (storedFileRepository.decrementRefCount(relativePath) == 0) {
+                return;
+            }
+            if (storedFileRepository.deleteIfUnreferenced(relativePath) > 0) {
+                try {
+                    Path original = rootLocation.resolve(relativePath);
+                    Files.deleteIfExists(original);
+                    deleteDerivatives(original);
+                    logger.debug("Deleted unreferenced file {}", relativePath);
+                } catch (IOException e) {
+                    logger.warn("Could not delete unreferenced file {}: {}", relativePath, e.getMessage());
+                }
+            }
+        }
+    }
 
-        // Create subdirectory if specified and doesn't exist
-        Path targetDirectory = this.rootLocation;
-        String relativePath = "";
-        if (subDirectory != null && !subDirectory.trim().isEmpty()) {
-            targetDirectory = this.rootLocation.resolve(Paths.get(subDirectory.trim())).normalize();
-            Files.createDirectories(targetDirectory);
-            relativePath = Paths.get(subDirectory.trim()).resolve(uniqueFileName).toString();
-        } else {
-             relativePath = Paths.get(uniqueFileName).toString();
+    @Override
+    public String derivativePath(String originalPath, String variant, String extension) {
+        if (!DERIVATIVE_PART.matcher(variant).matches() || !DERIVATIVE_PART.matcher(extension).matches()) {
+            throw new IllegalArgumentException("Invalid derivative name: " + variant + "." + extension);
         }
-        
-        Path targetLocation = targetDirectory.resolve(uniqueFileName).normalize();
+        return originalPath + "-" + variant + "." + extension;
+    }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    @Override
+    public boolean storeDerivative(String derivativePath, byte[] content) throws IOException {
+        Path targetLocation = rootLocation.resolve(derivativePath).normalize();
+        Matcher derivative = DERIVATIVE_PATH.matcher(derivativePath);
+        if (!targetLocation.startsWith(rootLocation) || !derivative.matches()) {
+            throw new IOException("Cannot store file outside the upload directory " + derivativePath);
+        }
+        String originalPath = derivative.group(1);
+        // Under the original's lock, so a release can't delete it and its derivatives while this one is written
+        synchronized (lockFor(originalPath)) {
+            if (storedFileRepository.findByPath(originalPath).isEmpty()) {
+                logger.debug("Original {} is no longer stored, not writing {}", originalPath, derivativePath);
+                return false;
+            }
+            if (Files.exists(targetLocation)) {
+                return true;
+            }
+            Path staged = stagingLocation.resolve(UUID.randomUUID() + ".tmp");
+            try {
+                Files.write(staged, content);
+                Files.move(staged, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(staged);
+            }
+            return true;
         }
-        System.out.println("File stored at: " + targetLocation.toAbsolutePath());
-        
-        return relativePath; 
     }
 
     @Override
     public Path getRootLocation() {
         return rootLocation;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Path getStagingLocation() {
+        return stagingLocation;
+    }
+
+    /**
+     * Moves the upload to its final location via a staging file. For parts the container has
+     * spooled to disk, transferTo renames the spooled file instead of copying it again.
+     */
+    private void moveIntoPlace(MultipartFile file, Path targetLocation) throws IOException {
+        Files.createDirectories(targetLocation.getParent());
+        Path staged = stagingLocation.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            // Absolute, otherwise the container resolves it against its own temp location
+            file.transferTo(staged.toFile());
+            Files.move(staged, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    private void deleteDerivatives(Path original) throws IOException {
+        String prefix = original.getFileName().toString() + "-";
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(original.getParent(), entry -> {
+                String name = entry.getFileName().toString();
+                return name.startsWith(prefix) && DERIVATIVE_PATH.matcher(OBJECTS_DIR + "/" + name).matches();
+            })) {
+            for (Path derived : siblings) {
+                Files.deleteIfExists(derived);
+            }
+        }
+    }
+
+    private String toRelativePath(String pathOrUrl) {
+        if (pathOrUrl == null || pathOrUrl.isBlank()) {
+            return null;
+        }
+        String path = pathOrUrl.replace("\\", "/");
+        int uploads = path.indexOf(UPLOADS_URL_SEGMENT);
+        if (uploads >= 0) {
+            path = path.substring(uploads + UPLOADS_URL_SEGMENT.length());
+        }
+        return path.contains("..") ? null : path;
+    }
+
+    private Object lockFor(String relativePath) {
+        return locks[Math.floorMod(relativePath.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String sha256(InputStream inputStream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @FunctionalInterface
+    private interface Placement {
+        void moveTo(Path targetLocation) throws IOException;
+    }
+}
@@ -0,0 +1,193 @@
+package com.hr_management.hr.service.impl;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hr_management.hr.config.MicrosoftOAuthProperties;
+import com.hr_management.hr.entity.GraphToken;
+import com.hr_management.hr.repository.GraphTokenRepository;
+import com.hr_management.hr.service.GraphTokenService;
+
+@Service
+public class GraphTokenServiceImpl implements GraphTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphTokenServiceImpl.class);
+
+    // Used when the token endpoint doesn't report a lifetime
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 3600;
+
+    private static final ParameterizedTypeReference<Map<String, Object>> TOKEN_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final GraphTokenRepository graphTokenRepository;
+    private final RestTemplate restTemplate;
+    private final MicrosoftOAuthProperties microsoftProperties;
+    private final ObjectMapper objectMapper;
+
+    // Tokens expiring within this window are refreshed by the scheduler
+    @Value("${app.microsoft.token-refresh.lead-ms:600000}")
+    private long refreshLeadMs;
+
+    // How long a claimed token stays invisible to other instances while it is being refreshed
+    @Value("${app.microsoft.token-refresh.claim-timeout-ms:120000}")
+    private long claimTimeoutMs;
+
+    public GraphTokenServiceImpl(GraphTokenRepository graphTokenRepository,
+                                 RestTemplate restTemplate,
+                                 MicrosoftOAuthProperties microsoftProperties,
+                                 ObjectMapper objectMapper) {
+        this.graphTokenRepository = graphTokenRepository;
+        this.restTemplate = restTemplate;
+        this.microsoftProperties = microsoftProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void store(Long userId, String accessToken, String refreshToken, Number expiresInSeconds) {
+        if (userId == null || accessToken == null) {
+            return;
+        }
+        GraphToken token = graphTokenRepository.findByUserId(userId).orElseGet(() -> new GraphToken(userId));
+        apply(token, accessToken, refreshToken, expiresInSeconds);
+        graphTokenRepository.save(token);
+    }
+
+    @Override
+    public String getAccessToken(Long userId) {
+        GraphToken token = graphTokenRepository.findByUserId(userId).orElse(null);
+        if (token == null) {
+            return null;
+        }
+        if (!token.isExpired()) {
+            return token.getAccessToken();
+        }
+        // Missed by the scheduler, e.g. after downtime. Claimed like a scheduled refresh, so only one runs
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getRefreshToken() != null
+                && graphTokenRepository.claimForRefresh(userId, token.getRefreshToken(), now,
+                        now.plusNanos(claimTimeoutMs * 1_000_000)) > 0
+                && refresh(token)) {
+            return token.getAccessToken();
+        }
+        // Refreshed or replaced concurrently, or the refresh failed: use whatever is stored now if it is valid
+        return graphTokenRepository.findByUserId(userId)
+                .filter(current -> !current.isExpired())
+                .map(GraphToken::getAccessToken)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public List<GraphToken> claimDueForRefresh(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.plusNanos(refreshLeadMs * 1_000_000);
+        List<GraphToken> due = graphTokenRepository.findDueForRefreshForUpdate(before, now, PageRequest.of(0, limit));
+        for (GraphToken token : due) {
+            // Cleared when the refresh succeeds; otherwise the token is retried once the claim runs out
+            token.setRefreshClaimedUntil(now.plusNanos(claimTimeoutMs * 1_000_000));
+        }
+        return due;
+    }
+
+    @Override
+    public boolean refresh(GraphToken token) {
+        String usedRefreshToken = token.getRefreshToken();
+        if (usedRefreshToken == null) {
+            return false;
+        }
+        String tokenUrl = String.format("%s/%s/oauth2/v2.0/token",
+                microsoftProperties.getLoginBaseUrl(), microsoftProperties.getTenantId());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("client_id", microsoftProperties.getClientId());
+        form.add("client_secret", microsoftProperties.getClientSecret());
+        form.add("grant_type", "refresh_token");
+        form.add("refresh_token", usedRefreshToken);
+        form.add("scope", microsoftProperties.getScope());
+
+        try {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                tokenUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(form, headers),
+                TOKEN_RESPONSE
+            );
+            Map<String, Object> body = response.getBody();
+            if (body == null || body.get("access_token") == null) {
+                logger.warn("Token endpoint returned no access token for user {}", token.getUserId());
+                return false;
+            }
+            apply(token,
+                  (String) body.get("access_token"),
+                  (String) body.get("refresh_token"),
+                  (Number) body.get("expires_in"));
+            token.setRefreshClaimedUntil(null);
+            // The token was loaded before the call; a sign-in in the meantime may have stored newer tokens
+            if (graphTokenRepository.replaceRefreshed(token.getUserId(), usedRefreshToken, token.getAccessToken(),
+                    token.getRefreshToken(), token.getExpiresAt(), LocalDateTime.now()) == 0) {
+                logger.debug("Graph tokens of user {} were replaced during refresh, keeping the newer ones", token.getUserId());
+                return false;
+            }
+            return true;
+        } catch (HttpClientErrorException e) {
+            if (isInvalidGrant(e)) {
+                // Refresh token revoked or expired: the user has to sign in with Microsoft again
+                logger.warn("Graph refresh token rejected for user {}, discarding tokens", token.getUserId());
+                graphTokenRepository.deleteByUserIdAndRefreshToken(token.getUserId(), usedRefreshToken);
+            } else {
+                // Throttling or a client-side problem; the tokens themselves may still be good
+                logger.warn("Graph token refresh failed for user {}: {}", token.getUserId(), e.getStatusCode());
+            }
+            return false;
+        } catch (RestClientException e) {
+            // Transient; the next scheduler run retries
+            logger.warn("Graph token refresh failed for user {}: {}", token.getUserId(), e.getMessage());
+            return false;
+        }
+    }
+
+    // The token endpoint answers 400 with error=invalid_grant when the refresh token itself is no longer valid
+    private boolean isInvalidGrant(HttpClientErrorException e) {
+        if (e.getStatusCode().value() != 400) {
+            return false;
+        }
+        try {
+            return "invalid_grant".equals(objectMapper.readTree(e.getResponseBodyAsByteArray()).path("error").asText());
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static void apply(GraphToken token, String accessToken, String refreshToken, Number expiresInSeconds) {
+        long expiresIn = expiresInSeconds != null ? expiresInSeconds.longValue() : DEFAULT_EXPIRES_IN_SECONDS;
+        token.setAccessToken(accessToken);
+        // Microsoft may rotate the refresh token; keep the old one if it didn't
+        if (refreshToken != null) {
+            token.setRefreshToken(refreshToken);
+        }
+        token.setExpiresAt(LocalDateTime.now().plusSeconds(expiresIn));
+    }
+}
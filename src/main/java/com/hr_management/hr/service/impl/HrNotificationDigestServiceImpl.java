@@ -0,0 +1,120 @@
+package com.hr_management.hr.service.impl;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hr_management.hr.entity.HrDigestEvent;
+import com.hr_management.hr.repository.HrDigestEventRepository;
+import com.hr_management.hr.service.EmailOutboxService;
+import com.hr_management.hr.service.HrNotificationDigestService;
+import com.hr_management.hr.service.NotificationRecipientCache;
+
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class HrNotificationDigestServiceImpl implements HrNotificationDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HrNotificationDigestServiceImpl.class);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final HrDigestEventRepository hrDigestEventRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final NotificationRecipientCache notificationRecipientCache;
+
+    @Value("${app.mail.hr-digest.enabled:false}")
+    private boolean enabled;
+
+    // Flush as soon as this many events are waiting, without waiting for the schedule
+    @Value("${app.mail.hr-digest.max-events:50}")
+    private int maxEvents;
+
+    // Events buffered but not yet flushed, tracked in memory so submissions never count the table
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+
+    public HrNotificationDigestServiceImpl(HrDigestEventRepository hrDigestEventRepository,
+                                           EmailOutboxService emailOutboxService,
+                                           NotificationRecipientCache notificationRecipientCache) {
+        this.hrDigestEventRepository = hrDigestEventRepository;
+        this.emailOutboxService = emailOutboxService;
+        this.notificationRecipientCache = notificationRecipientCache;
+    }
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            pendingEvents.set((int) Math.min(Integer.MAX_VALUE, hrDigestEventRepository.count()));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Transactional
+    public void addEvent(String subject, String body) {
+        hrDigestEventRepository.save(new HrDigestEvent(subject, body));
+        // Only counted once committed; the flush itself is left to HrDigestScheduler, off the submit path
+        afterCommit(pendingEvents::incrementAndGet);
+    }
+
+    @Override
+    public boolean isFlushDue() {
+        return pendingEvents.get() >= maxEvents;
+    }
+
+    @Override
+    @Transactional
+    public int flush() {
+        // At most one digest's worth of events per call; HrDigestScheduler calls again while more are waiting
+        List<HrDigestEvent> events = hrDigestEventRepository.findOldestForUpdate(PageRequest.of(0, maxEvents));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        String subject = events.size() == 1
+                ? events.get(0).getSubject()
+                : String.format("HR Digest: %d leave updates", events.size());
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d leave update(s) since the last digest.%n", events.size()));
+        for (HrDigestEvent event : events) {
+            text.append(String.format("%n----------------------------------------%n"))
+                .append(event.getSubject())
+                .append(" (")
+                .append(event.getCreatedAt().format(TIME_FORMAT))
+                .append(")")
+                .append(String.format("%n%n"))
+                .append(event.getBody().strip())
+                .append(String.format("%n"));
+        }
+
+        for (String recipient : notificationRecipientCache.getHrRecipientEmails()) {
+            emailOutboxService.queueSimpleMessage(recipient, subject, text.toString());
+        }
+        hrDigestEventRepository.deleteAllInBatch(events);
+        int flushed = events.size();
+        afterCommit(() -> pendingEvents.updateAndGet(pending -> Math.max(0, pending - flushed)));
+        logger.info("Flushed HR digest with {} events", events.size());
+        return events.size();
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,26 +1,47 @@
 package com.hr_management.hr.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.hr_management.hr.entity.User;
+import com.hr_management.hr.security.AuthenticatedUser;
 import com.hr_management.hr.service.JwtService;
+import com.hr_management.hr.util.BoundedCache;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class JwtServiceImpl implements JwtService {
 
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
     @Value("${jwt.secret}")
     private String secretKey;
     
@@ -30,6 +51,28 @@ public class JwtServiceImpl implements JwtService {
     @Value("${jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // Upper bound on how long a verified token is trusted without re-checking its signature
+    @Value("${jwt.verified-cache.ttl-ms:300000}")
+    private long verifiedCacheTtlMs;
+
+    // Built once; both are immutable and thread-safe
+    private Key signInKey;
+    private JwtParser parser;
+
+    // Recently verified tokens, keyed by the SHA-256 of the token so raw tokens are never held.
+    // Holds read-only claim maps; every caller gets its own Claims copy, since Claims is mutable.
+    private BoundedCache<String, Map<String, Object>> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        verifiedTokens = new BoundedCache<>(verifiedCacheMaxSize);
+    }
+
     @Override
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -49,46 +92,82 @@ public class JwtServiceImpl implements JwtService {
     }
     
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        AuthenticatedUser user = snapshotOf(userDetails);
+        if (user != null) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+            if (user.getEmployeeId() != null) {
+                claims.put(CLAIM_EMPLOYEE_ID, user.getEmployeeId());
+            }
+        }
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString()) // jti, so the token can be revoked
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    @Override
+    public Claims verifyToken(String token) {
+        String cacheKey = hash(token);
+        Map<String, Object> cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            return Jwts.claims(cached);
+        }
+
+        // Throws a JwtException if the signature is wrong or the token has expired
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        long expiresAt = claims.getExpiration() != null
+                ? Math.min(claims.getExpiration().getTime(), System.currentTimeMillis() + verifiedCacheTtlMs)
+                : System.currentTimeMillis() + verifiedCacheTtlMs;
+        verifiedTokens.put(cacheKey, Collections.unmodifiableMap(new LinkedHashMap<>(claims)), expiresAt);
+        return claims;
+    }
+
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails);
     }
-    
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+
+    @Override
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null && username.equals(userDetails.getUsername())
+                && userDetails.isEnabled() && isCurrentVersion(claims, userDetails) && !isTokenExpired(claims);
+    }
+
+    // Tokens issued before versions were embedded carry none and are accepted until they expire
+    private boolean isCurrentVersion(Claims claims, UserDetails userDetails) {
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        AuthenticatedUser user = snapshotOf(userDetails);
+        return version == null || user == null || version.intValue() == user.getTokenVersion();
+    }
+
+    private static AuthenticatedUser snapshotOf(UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return userDetails instanceof User user ? AuthenticatedUser.of(user) : null;
     }
     
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
-    
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
-} 
\ No newline at end of file
+}
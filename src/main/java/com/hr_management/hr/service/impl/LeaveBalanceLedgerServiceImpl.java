@@ -0,0 +1,161 @@
+package com.hr_management.hr.service.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.entity.LeaveBalanceLedger;
+import com.hr_management.hr.enums.LeaveDuration;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+import com.hr_management.hr.repository.EmployeeRepository;
+import com.hr_management.hr.repository.LeaveBalanceLedgerRepository;
+import com.hr_management.hr.repository.LeaveRepository;
+import com.hr_management.hr.repository.LeaveRepository.LeaveDaysTotal;
+import com.hr_management.hr.service.LeaveBalanceLedgerService;
+
+@Service
+public class LeaveBalanceLedgerServiceImpl implements LeaveBalanceLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceLedgerServiceImpl.class);
+    // Tolerance for floating point leftovers from half-day arithmetic
+    private static final double EPSILON = 1e-9;
+
+    private final LeaveBalanceLedgerRepository ledgerRepository;
+    private final LeaveRepository leaveRepository;
+    private final EmployeeRepository employeeRepository;
+
+    public LeaveBalanceLedgerServiceImpl(LeaveBalanceLedgerRepository ledgerRepository,
+                                         LeaveRepository leaveRepository,
+                                         EmployeeRepository employeeRepository) {
+        this.ledgerRepository = ledgerRepository;
+        this.leaveRepository = leaveRepository;
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    @Transactional
+    public void recordSubmitted(Leave leave) {
+        apply(leave, leave.getStatus(), 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordStatusChange(Leave leave, LeaveStatus previousStatus) {
+        if (previousStatus == leave.getStatus()) {
+            return;
+        }
+        // A rebuild already reflects the new status, so only add the days if the removal applied normally
+        if (apply(leave, previousStatus, -1)) {
+            apply(leave, leave.getStatus(), 1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordRemoved(Leave leave) {
+        apply(leave, leave.getStatus(), -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public double getUsedDays(Long employeeId, LeaveType leaveType, int year) {
+        // Read as a scalar so no unlocked copy of the row sits in the persistence context ahead of findForUpdate
+        return ledgerRepository.findUsedDays(employeeId, leaveType, year).orElse(0.0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveBalanceLedger> getEntries(Long employeeId, Collection<Integer> years) {
+        return ledgerRepository.findByEmployeeIdAndYearIn(employeeId, years);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildLedger() {
+        logger.info("Rebuilding leave balance ledger for all employees");
+        ledgerRepository.deleteAllRows();
+        int written = writeTotals(leaveRepository.sumLeaveDays());
+        logger.info("Leave balance ledger rebuilt with {} rows", written);
+        return written;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildLedger(Long employeeId) {
+        logger.info("Rebuilding leave balance ledger for employee ID: {}", employeeId);
+        ledgerRepository.deleteByEmployeeId(employeeId);
+        int written = writeTotals(leaveRepository.sumLeaveDaysByEmployeeId(employeeId));
+        logger.info("Leave balance ledger rebuilt with {} rows for employee ID: {}", written, employeeId);
+        return written;
+    }
+
+    private int writeTotals(List<LeaveDaysTotal> totals) {
+        Map<String, LeaveBalanceLedger> entries = new LinkedHashMap<>();
+        for (LeaveDaysTotal total : totals) {
+            String key = total.getEmployeeId() + ":" + total.getLeaveType() + ":" + total.getYear();
+            LeaveBalanceLedger entry = entries.computeIfAbsent(key, k -> new LeaveBalanceLedger(
+                    employeeRepository.getReferenceById(total.getEmployeeId()),
+                    total.getLeaveType(),
+                    total.getYear()));
+            double days = total.getDays() != null ? total.getDays() : 0.0;
+            if (total.getStatus() == LeaveStatus.APPROVED) {
+                entry.setUsedDays(entry.getUsedDays() + days);
+            } else if (total.getStatus() == LeaveStatus.PENDING) {
+                entry.setPendingDays(entry.getPendingDays() + days);
+            }
+        }
+        ledgerRepository.saveAll(entries.values());
+        return entries.size();
+    }
+
+    /**
+     * Adds or removes a leave's days in the bucket for the given status.
+     * @return false if the ledger had drifted and was rebuilt from the leaves table instead
+     */
+    private boolean apply(Leave leave, LeaveStatus status, int sign) {
+        // Only pending and approved leaves count against the balance
+        if (status != LeaveStatus.PENDING && status != LeaveStatus.APPROVED) {
+            return true;
+        }
+        Long employeeId = leave.getEmployee().getId();
+        int year = leave.getStartDate().getYear();
+        ledgerRepository.insertIfAbsent(employeeId, leave.getLeaveType().name(), year);
+        LeaveBalanceLedger entry = ledgerRepository.findForUpdate(employeeId, leave.getLeaveType(), year)
+                .orElseThrow(() -> new IllegalStateException("Ledger row missing after insert for employee ID: " + employeeId));
+
+        double delta = sign * countedDays(leave);
+        double current = status == LeaveStatus.APPROVED ? entry.getUsedDays() : entry.getPendingDays();
+        double updated = current + delta;
+        if (updated < -EPSILON) {
+            // The ledger no longer matches the leaves table; recompute this employee rather than hide the gap
+            logger.warn("Leave balance ledger drift for employee ID: {}, type: {}, year: {}, {} days: {} {} {} would go negative; rebuilding",
+                    employeeId, leave.getLeaveType(), year, status, current, delta < 0 ? "-" : "+", Math.abs(delta));
+            rebuildLedger(employeeId);
+            return false;
+        }
+        updated = Math.max(0.0, updated);
+        if (status == LeaveStatus.APPROVED) {
+            entry.setUsedDays(updated);
+        } else {
+            entry.setPendingDays(updated);
+        }
+        ledgerRepository.save(entry);
+        return true;
+    }
+
+    private double countedDays(Leave leave) {
+        // Half-day leaves always count as 0.5 days
+        if (leave.getLeaveDuration() == LeaveDuration.HALF_DAY) {
+            return 0.5;
+        }
+        return leave.getNumberOfDays() != null ? leave.getNumberOfDays() : 0.0;
+    }
+}
@@ -8,14 +8,17 @@ import com.hr_management.hr.entity.LeavePolicy;
 import com.hr_management.hr.enums.LeaveType;
 import com.hr_management.hr.repository.LeavePolicyRepository;
 import com.hr_management.hr.service.LeavePolicyService;
+import com.hr_management.hr.service.LeaveSettingsCache;
 
 @Service
 public class LeavePolicyServiceImpl implements LeavePolicyService {
 
     private final LeavePolicyRepository leavePolicyRepository;
+    private final LeaveSettingsCache leaveSettingsCache;
 
-    public LeavePolicyServiceImpl(LeavePolicyRepository leavePolicyRepository) {
+    public LeavePolicyServiceImpl(LeavePolicyRepository leavePolicyRepository, LeaveSettingsCache leaveSettingsCache) {
         this.leavePolicyRepository = leavePolicyRepository;
+        this.leaveSettingsCache = leaveSettingsCache;
     }
 
     @Override
@@ -31,7 +34,9 @@ public class LeavePolicyServiceImpl implements LeavePolicyService {
 
     @Override
     public LeavePolicy createLeavePolicy(LeavePolicy leavePolicy) {
-        return leavePolicyRepository.save(leavePolicy);
+        LeavePolicy savedPolicy = leavePolicyRepository.save(leavePolicy);
+        leaveSettingsCache.refreshAfterCommit();
+        return savedPolicy;
     }
 
     @Override
@@ -46,23 +51,23 @@ public class LeavePolicyServiceImpl implements LeavePolicyService {
         existingPolicy.setMinNoticeDays(leavePolicy.getMinNoticeDays());
         existingPolicy.setRequiresApproval(leavePolicy.isRequiresApproval());
         existingPolicy.setActive(leavePolicy.isActive());
-        return leavePolicyRepository.save(existingPolicy);
+        LeavePolicy savedPolicy = leavePolicyRepository.save(existingPolicy);
+        leaveSettingsCache.refreshAfterCommit();
+        return savedPolicy;
     }
 
     @Override
     public void deleteLeavePolicy(Long id) {
         LeavePolicy leavePolicy = getLeavePolicyById(id);
         leavePolicyRepository.delete(leavePolicy);
+        leaveSettingsCache.refreshAfterCommit();
     }
 
     @Override
     public int getMaxConsecutiveDays(LeaveType leaveType) {
         // Find the active leave policy matching the given leave type
-        return leavePolicyRepository.findAll().stream()
-                .filter(LeavePolicy::isActive)
-                .filter(policy -> policy.getName().equalsIgnoreCase(leaveType.name())) // Filter by leave type name (case-insensitive)
-                .findFirst()
-                .map(LeavePolicy::getMaxConsecutiveDays)
+        return leaveSettingsCache.get().getActivePolicy(leaveType)
+                .map(LeaveSettingsCache.PolicySettings::getMaxConsecutiveDays)
                 .orElse(0); // Return 0 if no matching active policy found
     }
 } 
\ No newline at end of file
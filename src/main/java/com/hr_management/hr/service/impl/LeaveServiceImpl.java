@@ -1,10 +1,15 @@
 package com.hr_management.hr.service.impl;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -12,11 +17,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.hr_management.hr.entity.Employee;
 import com.hr_management.hr.entity.Leave;
-import com.hr_management.hr.entity.LeaveTypeConfig;
+import com.hr_management.hr.entity.LeaveBalanceLedger;
 import com.hr_management.hr.enums.LeaveDuration;
 import com.hr_management.hr.enums.LeaveStatus;
 import com.hr_management.hr.enums.LeaveType;
@@ -24,51 +30,56 @@ import com.hr_management.hr.exception.LeaveAPIException;
 import com.hr_management.hr.model.EmployeeDto;
 import com.hr_management.hr.model.LeaveBalanceDto;
 import com.hr_management.hr.model.LeaveDto;
+import com.hr_management.hr.model.LeaveHistoryFilter;
+import com.hr_management.hr.model.LeaveHistoryPageDto;
 import com.hr_management.hr.model.LeaveRequestDto;
 import com.hr_management.hr.model.LeaveResponseDto;
 import com.hr_management.hr.model.LeaveStatusUpdateDto;
 import com.hr_management.hr.model.UserDto;
 import com.hr_management.hr.repository.EmployeeRepository;
 import com.hr_management.hr.repository.LeaveRepository;
-import com.hr_management.hr.repository.LeaveTypeConfigRepository;
-import com.hr_management.hr.service.EmailService;
+import com.hr_management.hr.service.DocumentStagingService;
 import com.hr_management.hr.service.EmailTemplateService;
 import com.hr_management.hr.service.FileStorageService;
-import com.hr_management.hr.service.LeavePolicyService;
+import com.hr_management.hr.service.LeaveBalanceLedgerService;
 import com.hr_management.hr.service.LeaveService;
+import com.hr_management.hr.service.LeaveSettingsCache;
 
 @Service
 public class LeaveServiceImpl implements LeaveService {
 
     private static final Logger logger = LoggerFactory.getLogger(LeaveServiceImpl.class);
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int EMPLOYEE_ID_BATCH_SIZE = 1000; // Keeps IN lists at a size the database handles well
     
     private final LeaveRepository leaveRepository;
     private final EmployeeRepository employeeRepository;
     private final FileStorageService fileStorageService;
-    private final EmailService emailService;
-    private final LeaveTypeConfigRepository leaveTypeConfigRepository;
+    private final DocumentStagingService documentStagingService;
+    private final LeaveSettingsCache leaveSettingsCache;
     private final EmailTemplateService emailTemplateService;
-    private final LeavePolicyService leavePolicyService;
+    private final LeaveBalanceLedgerService leaveBalanceLedgerService;
 
     public LeaveServiceImpl(LeaveRepository leaveRepository, 
                            EmployeeRepository employeeRepository, 
                            FileStorageService fileStorageService, 
-                           EmailService emailService, 
-                           LeaveTypeConfigRepository leaveTypeConfigRepository, 
+                           DocumentStagingService documentStagingService,
+                           LeaveSettingsCache leaveSettingsCache, 
                            EmailTemplateService emailTemplateService,
-                           LeavePolicyService leavePolicyService) {
+                           LeaveBalanceLedgerService leaveBalanceLedgerService) {
         this.leaveRepository = leaveRepository;
         this.employeeRepository = employeeRepository;
         this.fileStorageService = fileStorageService;
-        this.emailService = emailService;
-        this.leaveTypeConfigRepository = leaveTypeConfigRepository;
+        this.documentStagingService = documentStagingService;
+        this.leaveSettingsCache = leaveSettingsCache;
         this.emailTemplateService = emailTemplateService;
-        this.leavePolicyService = leavePolicyService;
+        this.leaveBalanceLedgerService = leaveBalanceLedgerService;
     }
 
     @Override
     @Transactional
-    public LeaveResponseDto createLeaveRequest(Long employeeId, LeaveRequestDto leaveRequest, MultipartFile supportingDocument) {
+    public LeaveResponseDto createLeaveRequest(Long employeeId, LeaveRequestDto leaveRequest) {
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new RuntimeException("Employee not found with ID: " + employeeId));
 
@@ -113,7 +124,8 @@ public class LeaveServiceImpl implements LeaveService {
         }
 
         // Validate leave request based on type and balance
-        validateLeaveRequest(employee, leaveType, numberOfDays, supportingDocument);
+        String documentHandle = leaveRequest.getDocumentHandle();
+        validateLeaveRequest(employee, leaveType, numberOfDays, documentHandle != null && !documentHandle.isBlank());
 
         Leave leave = new Leave();
         leave.setEmployee(employee);
@@ -140,44 +152,32 @@ public class LeaveServiceImpl implements LeaveService {
         }
         leave.setLeaveDuration(duration);
 
-        // Store the document if provided (optional for non-required leave types)
-        if (supportingDocument != null && !supportingDocument.isEmpty()) {
-            try {
-                String filePath = fileStorageService.storeFile(supportingDocument, "employee_" + employeeId);
-                leave.setSupportingDocumentPath(filePath);
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to store supporting document for leave request", e);
-            }
+        // The document was uploaded beforehand; claiming it commits or rolls back with the leave
+        if (documentHandle != null && !documentHandle.isBlank()) {
+            leave.setSupportingDocumentPath(documentStagingService.promote(documentHandle, employeeId));
         }
 
         Leave savedLeave = leaveRepository.save(leave);
+        leaveBalanceLedgerService.recordSubmitted(savedLeave);
 
-        // Send email notifications
+        // Queue email notifications; they are sent after commit by the outbox dispatcher
         emailTemplateService.sendLeaveRequestNotification(savedLeave, employee);
 
         return new LeaveResponseDto("Leave request submitted", 201);
     }
 
-    private void validateLeaveRequest(Employee employee, LeaveType leaveType, Double numberOfDays, MultipartFile supportingDocument) {
-        // Get leave type configuration
-        LeaveTypeConfig leaveTypeConfig = leaveTypeConfigRepository.findByLeaveTypeAndIsActiveTrue(leaveType)
+    private void validateLeaveRequest(Employee employee, LeaveType leaveType, Double numberOfDays, boolean hasDocument) {
+        // Get leave type configuration and policy from the in-memory snapshot
+        LeaveSettingsCache.Snapshot settings = leaveSettingsCache.get();
+        LeaveSettingsCache.TypeSettings leaveTypeConfig = settings.getActiveConfig(leaveType)
                 .orElseThrow(() -> new LeaveAPIException(
                     HttpStatus.BAD_REQUEST,
                     "Leave type " + leaveType + " is not configured or is inactive."
                 ));
 
-        // Get the current year's leaves
+        // Approved leave days for the current year for this specific leave type, from the ledger
         int currentYear = LocalDate.now().getYear();
-        List<Leave> currentYearLeaves = leaveRepository.findByEmployeeId(employee.getId()).stream()
-                .filter(leave -> leave.getStartDate().getYear() == currentYear 
-                        && leave.getStatus() == LeaveStatus.APPROVED
-                        && leave.getLeaveType() == leaveType)
-                .toList();
-
-        // Calculate used leave days for the current year for this specific leave type
-        double usedLeaveDays = currentYearLeaves.stream()
-                .mapToDouble(Leave::getNumberOfDays)
-                .sum();
+        double usedLeaveDays = leaveBalanceLedgerService.getUsedDays(employee.getId(), leaveType, currentYear);
 
         // Calculate months worked in current year
         LocalDate now = LocalDate.now();
@@ -188,9 +188,7 @@ public class LeaveServiceImpl implements LeaveService {
         double policyDaysAllowed = 0.0;
         double policyRemainingDays = 0.0;
 
-        var activePolicy = leavePolicyService.getAllLeavePolicies().stream()
-                .filter(policy -> policy.isActive() && policy.getName().equalsIgnoreCase(leaveType.name()))
-                .findFirst();
+        var activePolicy = settings.getActivePolicy(leaveType);
 
         if (activePolicy.isPresent()) {
             hasActivePolicy = true;
@@ -238,7 +236,9 @@ public class LeaveServiceImpl implements LeaveService {
         }
 
         // Check if the request exceeds the maximum consecutive days limit from leave policy
-        int maxConsecutiveDays = leavePolicyService.getMaxConsecutiveDays(leaveType);
+        int maxConsecutiveDays = activePolicy
+                .map(LeaveSettingsCache.PolicySettings::getMaxConsecutiveDays)
+                .orElse(0);
         if (maxConsecutiveDays > 0 && numberOfDays > maxConsecutiveDays) {
             throw new LeaveAPIException(
                 HttpStatus.BAD_REQUEST,
@@ -249,7 +249,7 @@ public class LeaveServiceImpl implements LeaveService {
         }
 
         // Check if document is required
-        if (leaveTypeConfig.getRequiresDocument() && (supportingDocument == null || supportingDocument.isEmpty())) {
+        if (leaveTypeConfig.getRequiresDocument() && !hasDocument) {
             throw new LeaveAPIException(
                 HttpStatus.BAD_REQUEST,
                 String.format("Supporting document is required for %s requests. %s",
@@ -270,52 +270,24 @@ public class LeaveServiceImpl implements LeaveService {
              throw new IllegalStateException("Leave record with ID " + leaveId + " is not associated with any employee.");
         }
 
+        LeaveStatus previousStatus = leave.getStatus();
         LeaveStatus newStatus = LeaveStatus.valueOf(statusUpdate.getStatus().toUpperCase());
         leave.setStatus(newStatus);
-        
-        String emailSubject = "";
-        String emailText = "";
-        boolean sendEmail = false;
 
         if (newStatus == LeaveStatus.REJECTED) {
              if (statusUpdate.getRejectionReason() == null || statusUpdate.getRejectionReason().isBlank()) {
                  throw new IllegalArgumentException("Rejection reason is required when rejecting a leave request.");
              }
             leave.setRejectionReason(statusUpdate.getRejectionReason());
-            
-            emailSubject = "Leave Request Rejected";
-            emailText = String.format(
-                 "Dear %s,\n\nYour leave request from %s to %s has been rejected.\n\nReason: %s\n\nRegards,\nHR Department",
-                 employee.getFirstName(),
-                 leave.getStartDate(),
-                 leave.getEndDate(),
-                 leave.getRejectionReason()
-             );
-             sendEmail = true;
 
         } else if (newStatus == LeaveStatus.APPROVED) {
              leave.setRejectionReason(null);
-             
-             emailSubject = "Leave Request Approved";
-             emailText = String.format(
-                 "Dear %s,\n\nYour leave request from %s to %s has been approved.\n\nRegards,\nHR Department",
-                 employee.getFirstName(),
-                 leave.getStartDate(),
-                 leave.getEndDate()
-             );
-             sendEmail = true;
         }
 
         Leave updatedLeave = leaveRepository.save(leave);
+        leaveBalanceLedgerService.recordStatusChange(updatedLeave, previousStatus);
 
-        // Send email notification
-        if(sendEmail && employee.getEmail() != null) {
-            emailService.sendSimpleMessage(employee.getEmail(), emailSubject, emailText);
-        } else if (sendEmail) {
-             System.err.println("Warning: Employee with ID " + employee.getId() + " has no email address. Cannot send leave status update notification.");
-        }
-
-        // Send email notifications
+        // Queue email notifications for the employee and HR; they are sent after commit by the outbox dispatcher
         emailTemplateService.sendLeaveStatusUpdateNotification(
             updatedLeave, 
             updatedLeave.getEmployee(), 
@@ -327,18 +299,75 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
-    public List<LeaveDto> getAllLeaveRequestsSorted() {
-        List<Leave> allLeaves = leaveRepository.findAll(); // Get all leaves
+    @Transactional(readOnly = true)
+    public LeaveHistoryPageDto getAllLeaveRequestsSorted(LeaveHistoryFilter filter, String cursor, Integer size) {
+        // Pending first, then by most recent application date, one page at a time
+        return getHistoryPage(null, filter, cursor, size);
+    }
 
-        // Sort: Pending first, then by most recent application date
-        allLeaves.sort(Comparator
-            .<Leave, Integer>comparing(leave -> leave.getStatus() == LeaveStatus.PENDING ? 0 : 1) // Pending status gets 0, others 1
-            .thenComparing(Leave::getApplicationDate, Comparator.nullsLast(Comparator.reverseOrder())) // Then by date descending
-        );
+    @Override
+    @Transactional(readOnly = true)
+    public LeaveHistoryPageDto getEmployeeLeaves(Long employeeId, LeaveHistoryFilter filter, String cursor, Integer size) {
+        return getHistoryPage(employeeId, filter, cursor, size);
+    }
+
+    private LeaveHistoryPageDto getHistoryPage(Long employeeId, LeaveHistoryFilter filter, String cursor, Integer size) {
+        LeaveHistoryFilter criteria = filter != null ? filter : new LeaveHistoryFilter();
+        int pageSize = size == null || size <= 0 ? DEFAULT_HISTORY_PAGE_SIZE : Math.min(size, MAX_HISTORY_PAGE_SIZE);
+
+        Integer cursorPriority = null;
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeHistoryCursor(cursor);
+            cursorPriority = Integer.valueOf(position[0]);
+            cursorDate = LocalDate.parse(position[1]);
+            cursorId = Long.valueOf(position[2]);
+        }
 
-        return allLeaves.stream()
-                .map(this::convertToDto) // Reuse existing conversion logic
+        // Fetch one extra row to learn whether another page follows
+        List<Leave> rows = leaveRepository.findHistoryPage(
+                employeeId,
+                criteria.getDepartment(),
+                criteria.getType(),
+                criteria.getStatus(),
+                criteria.getFromDate(),
+                criteria.getToDate(),
+                cursorPriority,
+                cursorDate,
+                cursorId,
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Leave> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeHistoryCursor(page.get(page.size() - 1)) : null;
+
+        List<LeaveDto> leaves = page.stream()
+                .map(this::convertToDto)
                 .collect(Collectors.toList());
+        return new LeaveHistoryPageDto(leaves, nextCursor, hasMore);
+    }
+
+    // Cursor is the sort key of the last row returned: "<statusPriority>|<applicationDate>|<id>", base64url-encoded
+    private String encodeHistoryCursor(Leave leave) {
+        String position = Leave.priorityOf(leave.getStatus()) + "|" + leave.getApplicationDate() + "|" + leave.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeHistoryCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 3) {
+                throw new IllegalArgumentException("Expected 3 cursor fields but found " + position.length);
+            }
+            // Validate every field up front so a bad cursor fails with a 400 rather than a query error
+            Integer.parseInt(position[0]);
+            LocalDate.parse(position[1]);
+            Long.parseLong(position[2]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new LeaveAPIException(HttpStatus.BAD_REQUEST, "Invalid leave history cursor.");
+        }
     }
 
     @Override
@@ -349,6 +378,21 @@ public class LeaveServiceImpl implements LeaveService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<LeaveDto>> getLeavesByEmployeeIds(Collection<Long> employeeIds) {
+        Map<Long, List<LeaveDto>> leavesByEmployee = new HashMap<>();
+        List<Long> ids = new ArrayList<>(employeeIds);
+        for (int from = 0; from < ids.size(); from += EMPLOYEE_ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + EMPLOYEE_ID_BATCH_SIZE, ids.size()));
+            for (Leave leave : leaveRepository.findByEmployeeIdIn(batch)) {
+                leavesByEmployee.computeIfAbsent(leave.getEmployee().getId(), id -> new ArrayList<>())
+                        .add(convertToDto(leave));
+            }
+        }
+        return leavesByEmployee;
+    }
+
     @Override
     public List<LeaveDto> getPendingLeaves() {
         return leaveRepository.findByStatus(LeaveStatus.PENDING)
@@ -378,31 +422,47 @@ public class LeaveServiceImpl implements LeaveService {
             throw new RuntimeException("Can only cancel pending leave requests");
         }
         
-        // TODO: Consider deleting the supporting document when cancelling?
-
         leaveRepository.delete(leave);
+        leaveBalanceLedgerService.recordRemoved(leave);
+
+        // The file may be shared with other leaves, so this only drops this leave's reference
+        String documentPath = leave.getSupportingDocumentPath();
+        if (documentPath != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fileStorageService.release(documentPath);
+                }
+            });
+        }
     }
 
     @Override
     public List<LeaveBalanceDto> getEmployeeLeaveBalances(Long employeeId) {
-        // Get all leave type configurations
-        List<LeaveTypeConfig> allConfigs = leaveTypeConfigRepository.findAll();
+        // Get leave type configurations and policies from the in-memory snapshot
+        LeaveSettingsCache.Snapshot settings = leaveSettingsCache.get();
         
-        // Get all leaves for the employee in a single query
+        // Get only this year's leaves for the date ranges shown per type
         int currentYear = LocalDate.now().getYear();
-        List<Leave> allLeaves = leaveRepository.findByEmployeeId(employeeId);
-        
-        // Filter leaves for current year
-        List<Leave> currentYearLeaves = allLeaves.stream()
-                .filter(leave -> leave.getStartDate().getYear() == currentYear)
-                .toList();
+        List<Leave> currentYearLeaves = leaveRepository.findByEmployeeIdAndStartDateBetween(
+                employeeId, LocalDate.of(currentYear, 1, 1), LocalDate.of(currentYear, 12, 31));
+
+        // Used and pending totals come from the ledger rather than the full leave history
+        Map<LeaveType, LeaveBalanceLedger> currentYearLedger = new EnumMap<>(LeaveType.class);
+        Map<LeaveType, LeaveBalanceLedger> previousYearLedger = new EnumMap<>(LeaveType.class);
+        for (LeaveBalanceLedger entry : leaveBalanceLedgerService.getEntries(employeeId, List.of(currentYear, currentYear - 1))) {
+            if (entry.getYear() == currentYear) {
+                currentYearLedger.put(entry.getLeaveType(), entry);
+            } else {
+                previousYearLedger.put(entry.getLeaveType(), entry);
+            }
+        }
 
         // Calculate months worked in current year
         LocalDate now = LocalDate.now();
         int monthsWorked = now.getMonthValue(); // This gives us the current month (1-12)
 
-        return allConfigs.stream()
-                .filter(LeaveTypeConfig::getIsActive)
+        return settings.getActiveConfigs().stream()
                 .map(config -> {
                     // Get all leaves (both approved and pending) for this type
                     List<LeaveBalanceDto.LeaveDateRange> leaveDateRanges = currentYearLeaves.stream()
@@ -415,18 +475,9 @@ public class LeaveServiceImpl implements LeaveService {
                             ))
                             .collect(Collectors.toList());
 
-                    // Calculate used days for this leave type (approved leaves)
-                    double usedDays = currentYearLeaves.stream()
-                            .filter(leave -> leave.getStatus() == LeaveStatus.APPROVED 
-                                    && leave.getLeaveType() == config.getLeaveType())
-                            .mapToDouble(leave -> {
-                                // If it's a half-day leave, count as 0.5 days
-                                if (leave.getLeaveDuration() == LeaveDuration.HALF_DAY) {
-                                    return 0.5;
-                                }
-                                return leave.getNumberOfDays();
-                            })
-                            .sum();
+                    // Used days for this leave type (approved leaves, half-days counted as 0.5)
+                    LeaveBalanceLedger ledgerEntry = currentYearLedger.get(config.getLeaveType());
+                    double usedDays = ledgerEntry != null ? ledgerEntry.getUsedDays() : 0.0;
                     
                     // Get leave policy for this type and calculate days allowed based on months worked
                     double daysAllowed;
@@ -437,9 +488,7 @@ public class LeaveServiceImpl implements LeaveService {
                         daysAllowed = 90.0;
                         
                         // Check if there's an active policy that overrides this
-                        var activePolicy = leavePolicyService.getAllLeavePolicies().stream()
-                                .filter(policy -> policy.isActive() && policy.getName().equalsIgnoreCase("MATERNITY"))
-                                .findFirst();
+                        var activePolicy = settings.getActivePolicy(LeaveType.MATERNITY);
                                 
                         if (activePolicy.isPresent()) {
                             // If policy exists, use its daysPerMonth * 12 for annual limit
@@ -451,9 +500,7 @@ public class LeaveServiceImpl implements LeaveService {
                         }
                     } else {
                         // For other leave types, use the normal calculation
-                        var activePolicy = leavePolicyService.getAllLeavePolicies().stream()
-                                .filter(policy -> policy.isActive() && policy.getName().equalsIgnoreCase(config.getLeaveType().name()))
-                                .findFirst();
+                        var activePolicy = settings.getActivePolicy(config.getLeaveType());
                                 
                         if (activePolicy.isPresent()) {
                             daysAllowed = activePolicy.get().getDaysPerMonth() * monthsWorked;
@@ -473,30 +520,15 @@ public class LeaveServiceImpl implements LeaveService {
                     double carryForwardDays = 0.0;
                     if (config.getLeaveType() == LeaveType.PTO) { // Only for PTO
                         // Get the active PTO policy to check exclusion year
-                        var activePolicy = leavePolicyService.getAllLeavePolicies().stream()
-                                .filter(policy -> policy.isActive() && policy.getName().equalsIgnoreCase("PTO"))
-                                .findFirst();
+                        var activePolicy = settings.getActivePolicy(LeaveType.PTO);
                                 
                         // Only proceed if there's an active policy and current year is after exclusion year
                         if (activePolicy.isPresent()) {
                             Integer exclusionYear = activePolicy.get().getExclusionYear();
                             if (exclusionYear != null && currentYear > exclusionYear) {
-                                // Get previous year's PTO leaves for this employee
-                                List<Leave> previousYearLeaves = allLeaves.stream()
-                                        .filter(leave -> leave.getStartDate().getYear() == currentYear - 1 
-                                                && leave.getLeaveType() == LeaveType.PTO
-                                                && leave.getStatus() == LeaveStatus.APPROVED)
-                                        .toList();
-                                        
-                                // Calculate used PTO days in previous year by checking each leave
-                                double previousYearUsedDays = 0.0;
-                                for (Leave leave : previousYearLeaves) {
-                                    if (leave.getLeaveDuration() == LeaveDuration.HALF_DAY) {
-                                        previousYearUsedDays += 0.5;
-                                    } else {
-                                        previousYearUsedDays += leave.getNumberOfDays();
-                                    }
-                                }
+                                // Used PTO days in previous year, from that year's ledger entry
+                                LeaveBalanceLedger previousYearEntry = previousYearLedger.get(LeaveType.PTO);
+                                double previousYearUsedDays = previousYearEntry != null ? previousYearEntry.getUsedDays() : 0.0;
                                         
                                 // Get previous year's allowed PTO days
                                 double previousYearDaysAllowed = config.getAnnualLimit();
@@ -526,16 +558,7 @@ public class LeaveServiceImpl implements LeaveService {
                     carryForwardDays = Math.round(carryForwardDays * 10.0) / 10.0;
                     
                     // Get pending leaves for this type
-                    double pendingDays = currentYearLeaves.stream()
-                            .filter(leave -> leave.getStatus() == LeaveStatus.PENDING 
-                                    && leave.getLeaveType() == config.getLeaveType())
-                            .mapToDouble(leave -> {
-                                if (leave.getLeaveDuration() == LeaveDuration.HALF_DAY) {
-                                    return 0.5;
-                                }
-                                return leave.getNumberOfDays();
-                            })
-                            .sum();
+                    double pendingDays = ledgerEntry != null ? ledgerEntry.getPendingDays() : 0.0;
 
                     // Determine status text
                     String status;
@@ -14,6 +14,7 @@ import com.hr_management.hr.exception.LeaveAPIException;
 import com.hr_management.hr.exception.ResourceNotFoundException;
 import com.hr_management.hr.model.LeaveTypeConfigDto;
 import com.hr_management.hr.repository.LeaveTypeConfigRepository;
+import com.hr_management.hr.service.LeaveSettingsCache;
 import com.hr_management.hr.service.LeaveTypeConfigService;
 
 @Service
@@ -22,9 +23,12 @@ public class LeaveTypeConfigServiceImpl implements LeaveTypeConfigService {
     private static final Logger logger = LoggerFactory.getLogger(LeaveTypeConfigServiceImpl.class);
     
     private final LeaveTypeConfigRepository leaveTypeConfigRepository;
+    private final LeaveSettingsCache leaveSettingsCache;
 
-    public LeaveTypeConfigServiceImpl(LeaveTypeConfigRepository leaveTypeConfigRepository) {
+    public LeaveTypeConfigServiceImpl(LeaveTypeConfigRepository leaveTypeConfigRepository,
+                                      LeaveSettingsCache leaveSettingsCache) {
         this.leaveTypeConfigRepository = leaveTypeConfigRepository;
+        this.leaveSettingsCache = leaveSettingsCache;
     }
 
     @Override
@@ -55,7 +59,9 @@ public class LeaveTypeConfigServiceImpl implements LeaveTypeConfigService {
 
         LeaveTypeConfig config = new LeaveTypeConfig();
         updateConfigFromDto(config, configDto);
-        return convertToDto(leaveTypeConfigRepository.save(config));
+        LeaveTypeConfig savedConfig = leaveTypeConfigRepository.save(config);
+        leaveSettingsCache.refreshAfterCommit();
+        return convertToDto(savedConfig);
     }
 
     @Override
@@ -64,7 +70,9 @@ public class LeaveTypeConfigServiceImpl implements LeaveTypeConfigService {
         LeaveTypeConfig config = leaveTypeConfigRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("LeaveTypeConfig", "id", id));
         updateConfigFromDto(config, configDto);
-        return convertToDto(leaveTypeConfigRepository.save(config));
+        LeaveTypeConfig savedConfig = leaveTypeConfigRepository.save(config);
+        leaveSettingsCache.refreshAfterCommit();
+        return convertToDto(savedConfig);
     }
 
     @Override
@@ -74,6 +82,7 @@ public class LeaveTypeConfigServiceImpl implements LeaveTypeConfigService {
             throw new ResourceNotFoundException("LeaveTypeConfig", "id", id);
         }
         leaveTypeConfigRepository.deleteById(id);
+        leaveSettingsCache.refreshAfterCommit();
     }
 
     @Override
@@ -84,6 +93,7 @@ public class LeaveTypeConfigServiceImpl implements LeaveTypeConfigService {
                 .orElseThrow(() -> new ResourceNotFoundException("LeaveTypeConfig", "leaveType", 0L));
         config.setIsActive(isActive);
         leaveTypeConfigRepository.save(config);
+        leaveSettingsCache.refreshAfterCommit();
     }
 
     @Override
@@ -102,22 +112,22 @@ public class LeaveTypeConfigServiceImpl implements LeaveTypeConfigService {
 
     @Override
     public boolean isLeaveTypeActive(LeaveType leaveType) {
-        return leaveTypeConfigRepository.findByLeaveType(leaveType)
-            .map(LeaveTypeConfig::getIsActive)
+        return leaveSettingsCache.get().getConfig(leaveType)
+            .map(LeaveSettingsCache.TypeSettings::getIsActive)
             .orElse(false);
     }
 
     @Override
     public int getAnnualLimit(LeaveType leaveType) {
-        return leaveTypeConfigRepository.findByLeaveType(leaveType)
-            .map(LeaveTypeConfig::getAnnualLimit)
+        return leaveSettingsCache.get().getConfig(leaveType)
+            .map(LeaveSettingsCache.TypeSettings::getAnnualLimit)
             .orElse(0);
     }
 
     @Override
     public boolean requiresDocument(LeaveType leaveType) {
-        return leaveTypeConfigRepository.findByLeaveType(leaveType)
-            .map(LeaveTypeConfig::getRequiresDocument)
+        return leaveSettingsCache.get().getConfig(leaveType)
+            .map(LeaveSettingsCache.TypeSettings::getRequiresDocument)
             .orElse(false);
     }
 
@@ -8,18 +8,13 @@ import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.hr_management.hr.config.ApplicationProperties;
@@ -30,8 +25,10 @@ import com.hr_management.hr.entity.User;
 import com.hr_management.hr.enums.Gender;
 import com.hr_management.hr.repository.EmployeeRepository;
 import com.hr_management.hr.repository.UserRepository;
-import com.hr_management.hr.service.FileStorageService;
+import com.hr_management.hr.security.PrincipalCache;
+import com.hr_management.hr.service.GraphTokenService;
 import com.hr_management.hr.service.MicrosoftAuthService;
+import com.hr_management.hr.service.MicrosoftPhotoSyncService;
 
 @Service
 public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
@@ -44,7 +41,9 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
     private final RestTemplate restTemplate;
     private final MicrosoftOAuthProperties microsoftProperties;
     private final ApplicationProperties appProperties;
-    private final FileStorageService fileStorageService;
+    private final MicrosoftPhotoSyncService microsoftPhotoSyncService;
+    private final GraphTokenService graphTokenService;
+    private final PrincipalCache principalCache;
 
     public MicrosoftAuthServiceImpl(
             UserRepository userRepository,
@@ -53,26 +52,31 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
             RestTemplate restTemplate,
             MicrosoftOAuthProperties microsoftProperties,
             ApplicationProperties appProperties,
-            FileStorageService fileStorageService) {
+            MicrosoftPhotoSyncService microsoftPhotoSyncService,
+            GraphTokenService graphTokenService,
+            PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
         this.restTemplate = restTemplate;
         this.microsoftProperties = microsoftProperties;
         this.appProperties = appProperties;
-        this.fileStorageService = fileStorageService;
+        this.microsoftPhotoSyncService = microsoftPhotoSyncService;
+        this.graphTokenService = graphTokenService;
+        this.principalCache = principalCache;
     }
 
     @Override
     public String getAuthorizationUrl(String state) {
-        String scope = "openid profile email User.Read";
+        String scope = microsoftProperties.getScope();
         return String.format(
-            "https://login.microsoftonline.com/%s/oauth2/v2.0/authorize?" +
+            "%s/%s/oauth2/v2.0/authorize?" +
             "client_id=%s&" +
             "redirect_uri=%s&" +
             "response_type=code&" +
             "scope=%s&" +
             "state=%s",
+            microsoftProperties.getLoginBaseUrl(),
             microsoftProperties.getTenantId(),
             microsoftProperties.getClientId(),
             URLEncoder.encode(microsoftProperties.getRedirectUri(), StandardCharsets.UTF_8),
@@ -84,7 +88,8 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
     @Override
     public Map<String, Object> exchangeCodeForTokens(String code) {
         String tokenUrl = String.format(
-            "https://login.microsoftonline.com/%s/oauth2/v2.0/token",
+            "%s/%s/oauth2/v2.0/token",
+            microsoftProperties.getLoginBaseUrl(),
             microsoftProperties.getTenantId()
         );
 
@@ -93,12 +98,13 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
 
         String body = String.format(
             "client_id=%s&" +
-            "scope=openid profile email User.Read&" +
+            "scope=%s&" +
             "code=%s&" +
             "redirect_uri=%s&" +
             "grant_type=authorization_code&" +
             "client_secret=%s",
             microsoftProperties.getClientId(),
+            URLEncoder.encode(microsoftProperties.getScope(), StandardCharsets.UTF_8),
             code,
             URLEncoder.encode(microsoftProperties.getRedirectUri(), StandardCharsets.UTF_8),
             microsoftProperties.getClientSecret()
@@ -118,7 +124,7 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
     @Override
     public Map<String, Object> getUserInfo(String accessToken) {
         // Get basic user info
-        String userInfoEndpoint = "https://graph.microsoft.com/v1.0/me?$select=id,displayName,givenName,surname,mail,userPrincipalName,gender";
+        String userInfoEndpoint = microsoftProperties.getGraphBaseUrl() + "/me?$select=id,displayName,givenName,surname,mail,userPrincipalName,gender";
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(accessToken);
         HttpEntity<?> request = new HttpEntity<>(headers);
@@ -130,32 +136,8 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
             Map.class
         );
 
-        Map<String, Object> userInfo = response.getBody();
-        
-        // Get photo URL
-        String userId = (String) userInfo.get("id");
-        String msPhotoUrl = "https://graph.microsoft.com/v1.0/users/" + userId + "/photo/$value";
-        
-        try {
-            // Try to access the photo to verify it exists
-            HttpEntity<?> photoRequest = new HttpEntity<>(headers);
-            ResponseEntity<byte[]> photoResponse = restTemplate.exchange(
-                msPhotoUrl,
-                HttpMethod.GET,
-                photoRequest,
-                byte[].class
-            );
-            
-            // If we get here, the photo exists - store the full URL for our proxy endpoint
-            userInfo.put("photoUrl", String.format("%s/api/users/%s/photo", appProperties.getBaseUrl(), userId));
-            logger.info("Successfully verified profile picture for user: {} with ID: {}", userInfo.get("userPrincipalName"), userId);
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.warn("Could not fetch photo URL: {}", e.getMessage());
-            // Set a default empty string if photo URL cannot be fetched
-            userInfo.put("photoUrl", "");
-        }
-
-        return userInfo;
+        // The profile photo is fetched in the background once the user is saved, see createOrUpdateUser
+        return response.getBody();
     }
 
     @Override
@@ -170,8 +152,9 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
         String lastName = (String) userInfo.get("surname");
         String microsoftUserId = (String) userInfo.get("id");
         String gender = (String) userInfo.get("gender");
-        String profilePictureUrl = (String) userInfo.get("photoUrl");
         String accessToken = (String) userInfo.get("access_token");
+        String refreshToken = (String) userInfo.get("refresh_token");
+        Number expiresIn = (Number) userInfo.get("expires_in");
 
         if (email == null) {
             logger.error("Could not determine email (mail or userPrincipalName) from Microsoft user info: {}", userInfo);
@@ -188,35 +171,6 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
         if (existingUser.isPresent()) {
             user = existingUser.get();
             logger.info("Found existing user for Microsoft sign-in: {}", email);
-            // Always update profile picture for Microsoft users
-            if (profilePictureUrl != null && !profilePictureUrl.isEmpty()) {
-                try {
-                    // Download the image from Microsoft
-                    String msPhotoUrl = "https://graph.microsoft.com/v1.0/users/" + microsoftUserId + "/photo/$value";
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setBearerAuth(accessToken);
-                    ResponseEntity<byte[]> response = restTemplate.exchange(
-                        msPhotoUrl, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
-                    if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                        byte[] imageBytes = response.getBody();
-                        // Save to uploads using FileStorageService
-                        MultipartFile multipartFile = new ByteArrayMultipartFile(
-                            imageBytes, "file", "profile.jpg", "image/jpeg");
-                        String filePath = fileStorageService.storeFile(multipartFile, "profile_" + user.getId());
-                        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
-                        String fullUrl = baseUrl + "/uploads/" + filePath.replace("\\", "/");
-                        user.setProfilePicture(fullUrl);
-                    } else {
-                        user.setProfilePicture(""); // fallback if download fails
-                    }
-                } catch (Exception e) {
-                    user.setProfilePicture(""); // fallback if error
-                }
-            }
-            // Store the access token
-            user.setAccessToken(accessToken);
-            user = userRepository.save(user);
-            logger.info("Updated profile picture for user: {} with URL: {}", email, user.getProfilePicture());
         } else {
             logger.info("Creating new user for Microsoft sign-in: {}", email);
             user = new User();
@@ -224,33 +178,8 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
             user.setUsername(email);
             user.setPassword(passwordEncoder.encode(UUID.randomUUID().toString()));
             user.setRole(Role.EMPLOYEE);
-            // Set profile picture URL for new users if available
-            if (profilePictureUrl != null && !profilePictureUrl.isEmpty()) {
-                try {
-                    // Download the image from Microsoft
-                    String msPhotoUrl = "https://graph.microsoft.com/v1.0/users/" + microsoftUserId + "/photo/$value";
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setBearerAuth(accessToken);
-                    ResponseEntity<byte[]> response = restTemplate.exchange(
-                        msPhotoUrl, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
-                    if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                        byte[] imageBytes = response.getBody();
-                        // Save to uploads using FileStorageService
-                        MultipartFile multipartFile = new ByteArrayMultipartFile(
-                            imageBytes, "file", "profile.jpg", "image/jpeg");
-                        String filePath = fileStorageService.storeFile(multipartFile, "profile_" + user.getId());
-                        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
-                        String fullUrl = baseUrl + "/uploads/" + filePath.replace("\\", "/");
-                        user.setProfilePicture(fullUrl);
-                    } else {
-                        user.setProfilePicture(""); // fallback if download fails
-                    }
-                } catch (Exception e) {
-                    user.setProfilePicture(""); // fallback if error
-                }
-            }
             user = userRepository.save(user);
-            logger.info("Created new user with profile picture: {} with URL: {}", email, user.getProfilePicture());
+            logger.info("Created new user for Microsoft sign-in: {}", email);
         }
 
         // Find or create employee record
@@ -302,8 +231,13 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
         }
         
         employeeRepository.save(employee);
+        graphTokenService.store(user.getId(), accessToken, refreshToken, expiresIn);
+
+        // Off the sign-in path: the photo is downloaded and stored locally in the background
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+        microsoftPhotoSyncService.syncAfterCommit(user.getId(), microsoftUserId, accessToken, baseUrl);
 
-        logger.info("Successfully processed user and employee record for Microsoft sign-in: {} with profile picture: {}", email, user.getProfilePicture());
+        logger.info("Successfully processed user and employee record for Microsoft sign-in: {}", email);
         return user;
     }
 
@@ -315,52 +249,8 @@ public class MicrosoftAuthServiceImpl implements MicrosoftAuthService {
 
         String profilePictureUrl = String.format("%s/api/users/%s/photo", appProperties.getBaseUrl(), user.getMicrosoftId());
         user.setProfilePictureUrl(profilePictureUrl);
-        return userRepository.save(user);
-    }
-
-    // Helper class for MultipartFile from byte[]
-    class ByteArrayMultipartFile extends ByteArrayResource implements MultipartFile {
-        private final String name;
-        private final String originalFilename;
-        private final String contentType;
-
-        public ByteArrayMultipartFile(byte[] byteArray, String name, String originalFilename, String contentType) {
-            super(byteArray);
-            this.name = name;
-            this.originalFilename = originalFilename;
-            this.contentType = contentType;
-        }
-
-        @Override
-        public String getName() { return name; }
-
-        @Override
-        public String getOriginalFilename() { return originalFilename; }
-
-        @Override
-        public String getContentType() { return contentType; }
-
-        @Override
-        public boolean isEmpty() { return getByteArray().length == 0; }
-
-        @Override
-        public long getSize() { return getByteArray().length; }
-
-        @Override
-        public byte[] getBytes() { return getByteArray(); }
-
-        @Override
-        public java.io.InputStream getInputStream() throws java.io.IOException {
-            return super.getInputStream();
-        }
-
-        @Override
-        public void transferTo(java.io.File dest) throws java.lang.IllegalStateException {
-            try (java.io.FileOutputStream fos = new java.io.FileOutputStream(dest)) {
-                fos.write(getByteArray());
-            } catch (java.io.IOException e) {
-                throw new RuntimeException("Failed to transfer file", e);
-            }
-        }
+        User savedUser = userRepository.save(user);
+        principalCache.evict(savedUser.getId());
+        return savedUser;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package com.hr_management.hr.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hr_management.hr.entity.RevokedToken;
+import com.hr_management.hr.repository.RevokedTokenRepository;
+import com.hr_management.hr.service.TokenRevocationService;
+import com.hr_management.hr.util.BloomFilter;
+import com.hr_management.hr.util.BoundedCache;
+
+import io.jsonwebtoken.Claims;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps revoked jtis in the revoked_tokens table with a Bloom filter in front of it. The filter
+ * is rebuilt from the table on startup, after each sweep and periodically, which also drops
+ * swept entries and keeps its false-positive rate near the configured target.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // Serializes filter rebuilds with additions so a revocation is never lost in a swap
+    private final Object filterLock = new Object();
+    private volatile BloomFilter filter;
+
+    // Confirmed revocations, so replays of a revoked token don't query the table each time
+    private final BoundedCache<String, Boolean> confirmed = new BoundedCache<>(1024);
+
+    @Value("${app.jwt.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${app.jwt.revocation.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    @Override
+    public boolean revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || claims.getExpiration() == null) {
+            return false;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        try {
+            revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Token {} was already revoked", jti);
+        }
+        // Added only once the row is committed, so a concurrent reload either reads it or runs before this
+        synchronized (filterLock) {
+            filter.put(jti);
+        }
+        confirmed.put(jti, Boolean.TRUE, claims.getExpiration().getTime());
+        return true;
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        if (confirmed.get(jti) != null) {
+            return true;
+        }
+        boolean revoked = revokedTokenRepository.existsByJti(jti);
+        if (revoked && claims.getExpiration() != null) {
+            confirmed.put(jti, Boolean.TRUE, claims.getExpiration().getTime());
+        }
+        return revoked;
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired token revocations", deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void reload() {
+        synchronized (filterLock) {
+            List<String> jtis = revokedTokenRepository.findActiveJtis(LocalDateTime.now());
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedInsertions, jtis.size() * 2), falsePositiveProbability);
+            jtis.forEach(rebuilt::put);
+            filter = rebuilt;
+            logger.debug("Token revocation filter rebuilt with {} entries", jtis.size());
+        }
+    }
+}
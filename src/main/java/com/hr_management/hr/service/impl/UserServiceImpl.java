@@ -16,6 +16,8 @@ import com.hr_management.hr.exception.ResourceNotFoundException;
 import com.hr_management.hr.model.ProfileUpdateDto;
 import com.hr_management.hr.repository.EmployeeRepository;
 import com.hr_management.hr.repository.UserRepository;
+import com.hr_management.hr.security.PrincipalCache;
+import com.hr_management.hr.service.NotificationRecipientCache;
 import com.hr_management.hr.service.UserService;
 
 @Service
@@ -26,11 +28,16 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     private final UserRepository userRepository;
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final NotificationRecipientCache notificationRecipientCache;
+    private final PrincipalCache principalCache;
 
-    public UserServiceImpl(UserRepository userRepository, EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder,
+                           NotificationRecipientCache notificationRecipientCache, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
+        this.notificationRecipientCache = notificationRecipientCache;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -103,6 +110,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
             }
             user.setEmail(profileUpdateDto.getEmail());
             employee.setEmail(profileUpdateDto.getEmail());
+            notificationRecipientCache.invalidate();
         }
 
         // Update Employee entity fields
@@ -132,6 +140,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
         // Save both entities
         employeeRepository.save(employee);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.evict(savedUser.getId());
+        return savedUser;
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.hr_management.hr.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter over strings. {@link #mightContain} never returns false for a
+ * value that was added, and returns true for an absent value with roughly the configured
+ * false-positive probability while no more than the expected number of values are added.
+ * Safe for concurrent use; values cannot be removed.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final int numBits;
+    private final int numHashes;
+
+    private BloomFilter(int numBits, int numHashes) {
+        this.words = new AtomicLongArray((numBits + 63) >>> 6);
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Sizes a filter for the expected number of values and false-positive probability.
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveProbability) {
+        int n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveProbability, 1e-9), 0.5);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(p) / (ln2 * ln2));
+        int numBits = (int) Math.min(Math.max(bits, 64), Integer.MAX_VALUE - 63);
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / n * ln2));
+        return new BloomFilter(numBits, numHashes);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            long mask = 1L << bit;
+            int index = bit >>> 6;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e2ba4ca53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
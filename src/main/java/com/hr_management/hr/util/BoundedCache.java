@@ -0,0 +1,136 @@
+package com.hr_management.hr.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * A size-bounded, expiring in-memory cache. Entries are split across independently locked
+ * segments, each evicting its least recently used entry once full, so concurrent lookups
+ * rarely contend. Every entry carries its own expiry time and is never returned after it.
+ */
+public class BoundedCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final List<Segment<K, V>> segments;
+    private final LongSupplier clock;
+
+    public BoundedCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    // Tests pass a manual clock
+    BoundedCache(int maxSize, LongSupplier clock) {
+        this.clock = clock;
+        int perSegment = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        List<Segment<K, V>> created = new ArrayList<>(SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            created.add(new Segment<>(perSegment));
+        }
+        segments = List.copyOf(created);
+    }
+
+    /**
+     * Returns the cached value, or null when absent or expired.
+     */
+    public V get(K key) {
+        return segmentFor(key).get(key, clock.getAsLong());
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis > clock.getAsLong()) {
+            segmentFor(key).put(key, new Entry<>(value, expiresAtMillis));
+        }
+    }
+
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes every entry matching the predicate; meant for rare, targeted invalidation.
+     */
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            segment.removeIf(predicate);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> 16)) & (SEGMENTS - 1));
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        Segment(int maxSize) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        synchronized V get(K key, long now) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                map.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(K key, Entry<V> entry) {
+            map.put(key, entry);
+        }
+
+        synchronized void remove(K key) {
+            map.remove(key);
+        }
+
+        synchronized void removeIf(BiPredicate<K, V> predicate) {
+            map.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hr_management.hr.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * In-memory {@link MultipartFile}, for storing downloaded bytes through the file storage service.
+ */
+public class ByteArrayMultipartFile extends ByteArrayResource implements MultipartFile {
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+
+    public ByteArrayMultipartFile(byte[] byteArray, String name, String originalFilename, String contentType) {
+        super(byteArray);
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public String getOriginalFilename() { return originalFilename; }
+
+    @Override
+    public String getContentType() { return contentType; }
+
+    @Override
+    public boolean isEmpty() { return getByteArray().length == 0; }
+
+    @Override
+    public long getSize() { return getByteArray().length; }
+
+    @Override
+    public byte[] getBytes() { return getByteArray(); }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return super.getInputStream();
+    }
+
+    @Override
+    public void transferTo(File dest) throws IllegalStateException {
+        try (FileOutputStream fos = new FileOutputStream(dest)) {
+            fos.write(getByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to transfer file", e);
+        }
+    }
+}
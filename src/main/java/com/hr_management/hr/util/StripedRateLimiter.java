@@ -0,0 +1,62 @@
+package com.hr_management.hr.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token-bucket rate limiter over a fixed number of stripes. Keys are hashed onto
+ * stripes, so memory stays constant however many keys are seen; keys that collide share a
+ * bucket, which can only make the limit stricter for them.
+ * Each stripe holds the bucket as a single theoretical-arrival time (GCRA), updated with CAS.
+ */
+public final class StripedRateLimiter {
+
+    private final AtomicLongArray arrivals;
+    private final long intervalMillis;
+    private final long toleranceMillis;
+    private final LongSupplier clock;
+
+    /**
+     * @param stripes number of buckets keys are spread over
+     * @param burst requests a key may make at once with a full bucket
+     * @param perMinute sustained requests per minute once the burst is used up
+     */
+    public StripedRateLimiter(int stripes, int burst, int perMinute) {
+        this(stripes, burst, perMinute, System::currentTimeMillis);
+    }
+
+    // Tests pass a manual clock
+    StripedRateLimiter(int stripes, int burst, int perMinute, LongSupplier clock) {
+        this.clock = clock;
+        this.arrivals = new AtomicLongArray(Math.max(1, stripes));
+        this.intervalMillis = Math.max(1L, 60_000L / Math.max(1, perMinute));
+        this.toleranceMillis = intervalMillis * (Math.max(1, burst) - 1);
+    }
+
+    /**
+     * Takes a token for the key if one is available.
+     * @return 0 if the request is allowed, otherwise milliseconds until the next token
+     */
+    public long tryAcquire(String key) {
+        int stripe = (spread(key.hashCode()) & Integer.MAX_VALUE) % arrivals.length();
+        while (true) {
+            long now = clock.getAsLong();
+            long arrival = arrivals.get(stripe);
+            long next = Math.max(arrival, now) + intervalMillis;
+            long allowedAt = next - intervalMillis - toleranceMillis;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrivals.compareAndSet(stripe, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
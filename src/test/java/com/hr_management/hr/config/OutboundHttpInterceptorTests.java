@@ -0,0 +1,93 @@
+package com.hr_management.hr.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+class OutboundHttpInterceptorTests {
+
+	private static final MockClientHttpRequest REQUEST =
+			new MockClientHttpRequest(HttpMethod.GET, URI.create("https://graph.example.com/v1.0/me/photo/$value"));
+
+	private OutboundHttpInterceptor interceptor;
+
+	@AfterEach
+	void shutdown() {
+		interceptor.shutdown();
+	}
+
+	@Test
+	void holdsTheRouteSlotUntilTheResponseIsClosed() throws IOException {
+		interceptor = new OutboundHttpInterceptor(1, 10, 60_000, 1024);
+
+		ClientHttpResponse first = interceptor.intercept(REQUEST, new byte[0], respondWith(new byte[16]));
+		assertThat(interceptor.getInFlight()).containsExactly("https://graph.example.com 1");
+		assertThatThrownBy(() -> interceptor.intercept(REQUEST, new byte[0], respondWith(new byte[16])))
+				.isInstanceOf(ResourceAccessException.class);
+
+		first.getBody().readAllBytes();
+		first.close();
+		assertThat(interceptor.getInFlight()).containsExactly("https://graph.example.com 0");
+		try (ClientHttpResponse second = interceptor.intercept(REQUEST, new byte[0], respondWith(new byte[16]))) {
+			assertThat(second.getBody().readAllBytes()).hasSize(16);
+		}
+	}
+
+	@Test
+	void releasesTheSlotWhenTheRequestFails() throws IOException {
+		interceptor = new OutboundHttpInterceptor(1, 10, 60_000, 1024);
+
+		assertThatThrownBy(() -> interceptor.intercept(REQUEST, new byte[0], (request, body) -> {
+			throw new IOException("connection reset");
+		})).isInstanceOf(IOException.class);
+
+		assertThat(interceptor.getInFlight()).containsExactly("https://graph.example.com 0");
+	}
+
+	@Test
+	void failsReadingBodiesOverTheSizeLimit() throws IOException {
+		interceptor = new OutboundHttpInterceptor(1, 10, 60_000, 1024);
+
+		try (ClientHttpResponse response = interceptor.intercept(REQUEST, new byte[0], respondWith(new byte[1025]))) {
+			InputStream body = response.getBody();
+			assertThatThrownBy(body::readAllBytes).isInstanceOf(IOException.class).hasMessageContaining("exceeds");
+		}
+		try (ClientHttpResponse response = interceptor.intercept(REQUEST, new byte[0], respondWith(new byte[1024]))) {
+			assertThat(response.getBody().readAllBytes()).hasSize(1024);
+		}
+	}
+
+	@Test
+	void closesResponsesWhoseBodyIsNotReadInTime() throws Exception {
+		interceptor = new OutboundHttpInterceptor(1, 10, 50, 1024);
+
+		ClientHttpResponse response = interceptor.intercept(REQUEST, new byte[0], respondWith(new byte[16]));
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (interceptor.getTimedOutCount() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertThat(interceptor.getTimedOutCount()).isEqualTo(1);
+		assertThat(interceptor.getInFlight()).containsExactly("https://graph.example.com 0");
+		assertThatThrownBy(response::getBody).isInstanceOf(IOException.class);
+		response.close(); // Closing again after the deadline must not release a second slot
+		assertThat(interceptor.getInFlight()).containsExactly("https://graph.example.com 0");
+	}
+
+	private static ClientHttpRequestExecution respondWith(byte[] body) {
+		return (request, requestBody) -> new MockClientHttpResponse(body, HttpStatus.OK);
+	}
+}
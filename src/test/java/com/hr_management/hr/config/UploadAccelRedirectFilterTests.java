@@ -0,0 +1,133 @@
+package com.hr_management.hr.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.ServletException;
+
+class UploadAccelRedirectFilterTests {
+
+	private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+	private static final String AVATAR = "objects/9f/" + HASH + "-64.jpg";
+
+	@TempDir
+	Path workDir;
+
+	private Path uploadDir;
+
+	private UploadAccelRedirectFilter filter;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		uploadDir = Files.createDirectories(workDir.resolve("uploads"));
+		Files.createDirectories(uploadDir.resolve("objects/9f"));
+		Files.write(uploadDir.resolve(AVATAR), new byte[] { 1, 2, 3 });
+		Files.write(uploadDir.resolve("legacy.pdf"), new byte[] { 4, 5, 6 });
+		Files.createDirectories(uploadDir.resolve(".staging"));
+		Files.write(uploadDir.resolve(".staging/x"), new byte[] { 7 });
+		Files.write(workDir.resolve("secret.txt"), new byte[] { 8 });
+
+		UploadCachePolicy policy = new UploadCachePolicy();
+		ReflectionTestUtils.setField(policy, "immutableMaxAgeDays", 365L);
+		ReflectionTestUtils.setField(policy, "legacyMaxAgeSeconds", 3600L);
+		filter = new UploadAccelRedirectFilter(policy);
+		ReflectionTestUtils.setField(filter, "redirectPrefix", "/internal-uploads/");
+		ReflectionTestUtils.setField(filter, "redirectHeader", "X-Accel-Redirect");
+		ReflectionTestUtils.setField(filter, "uploadDir", uploadDir.toString());
+		filter.init();
+	}
+
+	@Test
+	void redirectsContentAddressedFilesWithAnImmutableCacheAndTheirETag() throws ServletException, IOException {
+		MockHttpServletResponse response = get("/uploads/" + AVATAR, null);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("X-Accel-Redirect")).isEqualTo("/internal-uploads/" + AVATAR);
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + HASH + "-64.jpg\"");
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=31536000, private, immutable");
+		assertThat(response.getContentType()).isEqualTo("image/jpeg");
+	}
+
+	@Test
+	void answersAMatchingIfNoneMatchWithNotModified() throws ServletException, IOException {
+		MockHttpServletResponse response = get("/uploads/" + AVATAR, "\"" + HASH + "-64.jpg\"");
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + HASH + "-64.jpg\"");
+		assertThat(response.getHeader("X-Accel-Redirect")).isNull();
+	}
+
+	@Test
+	void givesLegacyFilesNoETagAndAShorterMaxAge() throws ServletException, IOException {
+		MockHttpServletResponse response = get("/uploads/legacy.pdf", "\"anything\"");
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+		assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=3600, private");
+		assertThat(response.getHeader("X-Accel-Redirect")).isEqualTo("/internal-uploads/legacy.pdf");
+	}
+
+	@Test
+	void refusesPathsOutsideTheUploadDirectory() throws ServletException, IOException {
+		assertThat(get("/uploads/../secret.txt", null).getStatus()).isEqualTo(404);
+		assertThat(get("/uploads/objects/../../secret.txt", null).getStatus()).isEqualTo(404);
+	}
+
+	@Test
+	void refusesHiddenEntriesSuchAsTheStagingDirectory() throws ServletException, IOException {
+		MockHttpServletResponse response = get("/uploads/.staging/x", null);
+
+		assertThat(response.getStatus()).isEqualTo(404);
+		assertThat(response.getHeader("X-Accel-Redirect")).isNull();
+		assertThat(get("/uploads/objects/.hidden", null).getStatus()).isEqualTo(404);
+	}
+
+	@Test
+	void refusesMissingFilesAndDirectories() throws ServletException, IOException {
+		assertThat(get("/uploads/missing.pdf", null).getStatus()).isEqualTo(404);
+		assertThat(get("/uploads/objects/9f", null).getStatus()).isEqualTo(404);
+	}
+
+	@Test
+	void leavesUploadsToTheResourceHandlersWhenNoPrefixIsConfigured() throws ServletException, IOException {
+		ReflectionTestUtils.setField(filter, "redirectPrefix", "");
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/uploads/" + AVATAR), new MockHttpServletResponse(), chain);
+
+		assertThat(chain.getRequest()).isNotNull();
+	}
+
+	@Test
+	void takesTheETagFromAContentHashFileName() {
+		assertThat(UploadCachePolicy.etagFor(HASH + ".png")).isEqualTo("\"" + HASH + ".png\"");
+		assertThat(UploadCachePolicy.etagFor(HASH + "-256.jpg")).isEqualTo("\"" + HASH + "-256.jpg\"");
+		assertThat(UploadCachePolicy.etagFor("profile-photo.png")).isNull();
+		assertThat(UploadCachePolicy.etagFor("z" + HASH.substring(1) + ".png")).isNull();
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		assertThat(chain.getRequest()).as("handled by the filter").isNull();
+		return response;
+	}
+}
@@ -0,0 +1,186 @@
+package com.hr_management.hr.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import jakarta.servlet.ServletContext;
+
+/**
+ * Concurrent avatar loads through the handler /uploads used to have (a plain file: location
+ * with Last-Modified), the handlers WebMvcConfig registers now, and UploadAccelRedirectFilter,
+ * which leaves the bytes to the proxy. Requests are dispatched straight to the handlers, without
+ * a servlet container. Not measurable here: with an immutable Cache-Control browsers don't
+ * re-request a cached avatar at all, where before they revalidated it on every page view.
+ * Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class UploadDeliveryBenchmark {
+
+	private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+	private static final String AVATAR = "objects/9f/" + HASH + "-64.jpg";
+
+	private static final String ETAG = "\"" + HASH + "-64.jpg\"";
+
+	private Path uploadDir;
+	private long lastModified;
+	private HandlerMapping previousHandlers;
+	private HandlerMapping currentHandlers;
+	private UploadAccelRedirectFilter accelRedirectFilter;
+
+	@Setup
+	public void setUp() throws IOException {
+		uploadDir = Files.createTempDirectory("upload-benchmark");
+		Files.createDirectories(uploadDir.resolve("objects/9f"));
+		byte[] avatar = new byte[8 * 1024];
+		ThreadLocalRandom.current().nextBytes(avatar);
+		Files.write(uploadDir.resolve(AVATAR), avatar);
+		lastModified = Files.getLastModifiedTime(uploadDir.resolve(AVATAR)).toMillis();
+
+		UploadCachePolicy policy = new UploadCachePolicy();
+		ReflectionTestUtils.setField(policy, "immutableMaxAgeDays", 365L);
+		ReflectionTestUtils.setField(policy, "legacyMaxAgeSeconds", 3600L);
+
+		// As it was: one location with default resource handling
+		ExposedRegistry previous = new ExposedRegistry();
+		previous.addResourceHandler("/uploads/**").addResourceLocations(uploadDir.toUri().toString());
+		previousHandlers = previous.handlerMapping();
+
+		ExposedRegistry current = new ExposedRegistry();
+		WebMvcConfig webMvcConfig = new WebMvcConfig(null, policy);
+		ReflectionTestUtils.setField(webMvcConfig, "uploadDir", uploadDir.toString());
+		webMvcConfig.addResourceHandlers(current);
+		currentHandlers = current.handlerMapping();
+
+		accelRedirectFilter = new UploadAccelRedirectFilter(policy);
+		ReflectionTestUtils.setField(accelRedirectFilter, "redirectPrefix", "/internal-uploads/");
+		ReflectionTestUtils.setField(accelRedirectFilter, "redirectHeader", "X-Accel-Redirect");
+		ReflectionTestUtils.setField(accelRedirectFilter, "uploadDir", uploadDir.toString());
+		accelRedirectFilter.init();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileSystemUtils.deleteRecursively(uploadDir);
+	}
+
+	@Benchmark
+	public int previousHandler() throws Exception {
+		return serve(previousHandlers, request());
+	}
+
+	@Benchmark
+	public int previousHandlerRevalidated() throws Exception {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+		return serve(previousHandlers, request);
+	}
+
+	@Benchmark
+	public int currentHandler() throws Exception {
+		return serve(currentHandlers, request());
+	}
+
+	@Benchmark
+	public int currentHandlerRevalidated() throws Exception {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+		return serve(currentHandlers, request);
+	}
+
+	@Benchmark
+	public int accelRedirect() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		accelRedirectFilter.doFilter(request(), response, new MockFilterChain());
+		return response.getStatus() + response.getContentAsByteArray().length;
+	}
+
+	private static MockHttpServletRequest request() {
+		return new MockHttpServletRequest("GET", "/uploads/" + AVATAR);
+	}
+
+	private static int serve(HandlerMapping handlers, MockHttpServletRequest request) throws Exception {
+		ServletRequestPathUtils.parseAndCache(request);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HandlerExecutionChain chain = handlers.getHandler(request);
+		// The mapping's interceptors expose the path within the mapping that the handler resolves
+		for (HandlerInterceptor interceptor : chain.getInterceptorList()) {
+			interceptor.preHandle(request, response, chain.getHandler());
+		}
+		((HttpRequestHandler) chain.getHandler()).handleRequest(request, response);
+		return response.getStatus() + response.getContentAsByteArray().length;
+	}
+
+	// The registry only hands its handler mapping to subclasses. As a bean, the mapping would be
+	// initialised by the context.
+	private static class ExposedRegistry extends ResourceHandlerRegistry {
+
+		private final StaticWebApplicationContext applicationContext;
+
+		ExposedRegistry() {
+			this(applicationContext(new MockServletContext()));
+		}
+
+		private ExposedRegistry(StaticWebApplicationContext applicationContext) {
+			super(applicationContext, applicationContext.getServletContext());
+			this.applicationContext = applicationContext;
+		}
+
+		HandlerMapping handlerMapping() {
+			AbstractHandlerMapping handlerMapping = getHandlerMapping();
+			handlerMapping.setApplicationContext(applicationContext);
+			return handlerMapping;
+		}
+
+		private static StaticWebApplicationContext applicationContext(ServletContext servletContext) {
+			StaticWebApplicationContext context = new StaticWebApplicationContext();
+			context.setServletContext(servletContext);
+			context.refresh();
+			return context;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(UploadDeliveryBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,163 @@
+package com.hr_management.hr.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+class AuthRateLimitFilterTests {
+
+	private AuthRateLimitFilter filter;
+
+	@BeforeEach
+	void createFilter() {
+		filter = new AuthRateLimitFilter(new ObjectMapper());
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "stripes", 1024);
+		ReflectionTestUtils.setField(filter, "ipBurst", 100);
+		ReflectionTestUtils.setField(filter, "ipPerMinute", 100);
+		ReflectionTestUtils.setField(filter, "accountBurst", 2);
+		ReflectionTestUtils.setField(filter, "accountPerMinute", 1);
+		filter.init();
+	}
+
+	@Test
+	void limitsAccountsSentWithAChunkedBody() throws Exception {
+		assertThat(login(chunked("{\"username\":\"alice\",\"password\":\"x\"}")).getStatus()).isEqualTo(200);
+		assertThat(login(chunked("{\"username\":\"alice\",\"password\":\"y\"}")).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse response = login(chunked("{\"username\":\"ALICE \",\"password\":\"z\"}"));
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isNotNull();
+	}
+
+	@Test
+	void passesTheBufferedBodyOnToTheController() throws Exception {
+		String body = "{\"username\":\"bob\",\"password\":\"secret\"}";
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(chunked(body), new MockHttpServletResponse(), chain);
+
+		byte[] forwarded = chain.getRequest().getInputStream().readAllBytes();
+		assertThat(new String(forwarded, StandardCharsets.UTF_8)).isEqualTo(body);
+	}
+
+	@Test
+	void letsTheControllerReadTheBufferedBodyAsynchronously() throws Exception {
+		String body = "{\"username\":\"carol\",\"password\":\"secret\"}";
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(chunked(body), new MockHttpServletResponse(), chain);
+
+		ServletInputStream in = chain.getRequest().getInputStream();
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		List<String> events = new ArrayList<>();
+		in.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				events.add("data");
+				byte[] buffer = new byte[8];
+				while (in.isReady() && !in.isFinished()) {
+					read.write(buffer, 0, in.read(buffer));
+				}
+			}
+
+			@Override
+			public void onAllDataRead() {
+				events.add("done");
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				events.add("error");
+			}
+		});
+
+		assertThat(events).containsExactly("data", "done");
+		assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+	}
+
+	@Test
+	void passesReadListenerFailuresToOnError() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(chunked("{\"username\":\"dave\"}"), new MockHttpServletResponse(), chain);
+
+		List<Throwable> errors = new ArrayList<>();
+		IOException failure = new IOException("listener failed");
+		chain.getRequest().getInputStream().setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				throw failure;
+			}
+
+			@Override
+			public void onAllDataRead() {
+				throw new AssertionError("not all data was read");
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				errors.add(t);
+			}
+		});
+
+		assertThat(errors).containsExactly(failure);
+	}
+
+	@Test
+	void rejectsOversizedChunkedBodies() throws Exception {
+		MockHttpServletResponse response = login(chunked("{\"username\":\"" + "a".repeat(9000) + "\"}"));
+		assertThat(response.getStatus()).isEqualTo(413);
+	}
+
+	@Test
+	void rejectsOversizedDeclaredBodies() throws Exception {
+		MockHttpServletRequest request = request();
+		request.setContent(("{\"username\":\"" + "a".repeat(9000) + "\"}").getBytes(StandardCharsets.UTF_8));
+		assertThat(login(request).getStatus()).isEqualTo(413);
+	}
+
+	private MockHttpServletResponse login(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+		request.setContentType("application/json");
+		return request;
+	}
+
+	// Chunked transfer encoding: the body arrives without a Content-Length
+	private static MockHttpServletRequest chunked(String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+			@Override
+			public int getContentLength() {
+				return -1;
+			}
+
+			@Override
+			public long getContentLengthLong() {
+				return -1;
+			}
+		};
+		request.setContentType("application/json");
+		request.addHeader("Transfer-Encoding", "chunked");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
@@ -0,0 +1,133 @@
+package com.hr_management.hr.security;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hr_management.hr.service.TokenRevocationService;
+import com.hr_management.hr.service.impl.JwtServiceImpl;
+
+import io.jsonwebtoken.Claims;
+
+import jakarta.servlet.ServletException;
+
+/**
+ * Authenticates a request through {@link JwtAuthenticationFilter}, and verifies its token alone, with
+ * the verified-token cache on and off. With the cache off every request checks the HMAC signature
+ * and parses the claims. Run {@link #main} from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+	private static final UserDetails ALICE = User.withUsername("alice").password("unused").authorities(List.of()).build();
+
+	private static final TokenRevocationService NOTHING_REVOKED = new TokenRevocationService() {
+		@Override
+		public boolean revoke(Claims claims) {
+			return false;
+		}
+
+		@Override
+		public boolean isRevoked(Claims claims) {
+			return false;
+		}
+
+		@Override
+		public int purgeExpired() {
+			return 0;
+		}
+
+		@Override
+		public void reload() {
+		}
+	};
+
+	private JwtServiceImpl cachingJwtService;
+	private JwtServiceImpl uncachedJwtService;
+	private JwtAuthenticationFilter cachingFilter;
+	private JwtAuthenticationFilter uncachedFilter;
+	private String token;
+	private MockHttpServletRequest request;
+
+	@Setup
+	public void setUp() {
+		cachingJwtService = jwtService(300_000L);
+		uncachedJwtService = jwtService(0L); // entries would expire as they are written, so none are kept
+		cachingFilter = new JwtAuthenticationFilter(cachingJwtService, username -> ALICE, NOTHING_REVOKED);
+		uncachedFilter = new JwtAuthenticationFilter(uncachedJwtService, username -> ALICE, NOTHING_REVOKED);
+		token = cachingJwtService.generateToken(ALICE);
+		request = new MockHttpServletRequest("GET", "/api/employees/me");
+		request.addHeader("Authorization", "Bearer " + token);
+	}
+
+	@Benchmark
+	public Claims verifyCached() {
+		return cachingJwtService.verifyToken(token);
+	}
+
+	@Benchmark
+	public Claims verifyUncached() {
+		return uncachedJwtService.verifyToken(token);
+	}
+
+	@Benchmark
+	public int filterCached() throws ServletException, IOException {
+		return authenticate(cachingFilter);
+	}
+
+	@Benchmark
+	public int filterUncached() throws ServletException, IOException {
+		return authenticate(uncachedFilter);
+	}
+
+	private int authenticate(JwtAuthenticationFilter filter) throws ServletException, IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		try {
+			filter.doFilter(request, response, new MockFilterChain());
+			return response.getStatus();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private static JwtServiceImpl jwtService(long verifiedCacheTtlMs) {
+		JwtServiceImpl jwtService = new JwtServiceImpl();
+		ReflectionTestUtils.setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+		ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+		ReflectionTestUtils.setField(jwtService, "refreshExpiration", 3_600_000L);
+		ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 10_000);
+		ReflectionTestUtils.setField(jwtService, "verifiedCacheTtlMs", verifiedCacheTtlMs);
+		ReflectionTestUtils.invokeMethod(jwtService, "init");
+		return jwtService;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+	}
+}
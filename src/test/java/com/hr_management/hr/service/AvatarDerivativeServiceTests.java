@@ -0,0 +1,241 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.hr_management.hr.repository.UserRepository;
+
+class AvatarDerivativeServiceTests {
+
+	// Stored in sensor orientation, 60 wide and 40 high; displayed turned a quarter clockwise, 40 wide and 60 high
+	private static final int STORED_WIDTH = 60;
+	private static final int STORED_HEIGHT = 40;
+
+	private static final String ORIGINAL = "objects/ab/photo.jpg";
+
+	@TempDir
+	Path uploadDir;
+
+	private final Map<String, byte[]> derivatives = new ConcurrentHashMap<>();
+
+	private final List<List<Object>> pictureSwitches = new CopyOnWriteArrayList<>();
+
+	private AvatarDerivativeService service;
+
+	@BeforeEach
+	void setUp() {
+		UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("replaceProfilePicture")) {
+						pictureSwitches.add(List.of(args));
+						return 0;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		service = new AvatarDerivativeService(new DerivativeCapturingStorage(), userRepository, null);
+		ReflectionTestUtils.setField(service, "sizes", new int[] { 32 });
+		ReflectionTestUtils.setField(service, "displaySize", 32);
+		ReflectionTestUtils.setField(service, "jpegQuality", 0.95f);
+		ReflectionTestUtils.setField(service, "threads", 1);
+		ReflectionTestUtils.setField(service, "queueCapacity", 10);
+		service.init();
+	}
+
+	@Test
+	void cropsTheDisplayedCentreAndTurnsItByTheExifOrientation() throws Exception {
+		writeOriginal(withApp1(jpeg(), exif(6)));
+
+		BufferedImage avatar = generate();
+
+		// Quadrants of the displayed centre square: the bands above and below it are cropped away
+		assertColor(avatar, 8, 8, Color.RED);
+		assertColor(avatar, 24, 8, Color.GREEN);
+		assertColor(avatar, 8, 24, Color.BLUE);
+		assertColor(avatar, 24, 24, Color.WHITE);
+		assertColor(avatar, 8, 1, Color.RED);
+		assertColor(avatar, 24, 30, Color.WHITE);
+		assertThat(pictureSwitches).containsExactly(
+				List.of(7L, "http://localhost/uploads/" + ORIGINAL, "http://localhost/uploads/" + ORIGINAL + "-32.jpg"));
+	}
+
+	@Test
+	void treatsATruncatedExifSegmentAsUnturned() throws Exception {
+		byte[] exif = exif(6);
+		// The IFD claims an entry that isn't there
+		writeOriginal(withApp1(jpeg(), Arrays.copyOf(exif, 16)));
+
+		assertStoredCentreUnturned(generate());
+	}
+
+	@Test
+	void treatsAnExifSegmentWithABadOffsetAsUnturned() throws Exception {
+		byte[] exif = exif(6);
+		ByteBuffer.wrap(exif).putInt(10, 0x7fff0000); // IFD0 far beyond the segment
+		writeOriginal(withApp1(jpeg(), exif));
+
+		assertStoredCentreUnturned(generate());
+	}
+
+	@Test
+	void ignoresApp1SegmentsThatAreNotExif() throws Exception {
+		byte[] xmp = "http://ns.adobe.com/xap/1.0/\0<x:xmpmeta/>".getBytes(StandardCharsets.US_ASCII);
+		writeOriginal(withApp1(jpeg(), xmp));
+
+		assertStoredCentreUnturned(generate());
+	}
+
+	// Without turning, the square is the stored image's centre: columns 10 to 49, all rows
+	private static void assertStoredCentreUnturned(BufferedImage avatar) {
+		for (int y : new int[] { 8, 24 }) {
+			for (int x : new int[] { 8, 24 }) {
+				int storedX = 10 + x * 40 / 32;
+				int storedY = y * 40 / 32;
+				assertColor(avatar, x, y, displayedColor(STORED_HEIGHT - 1 - storedY, storedX));
+			}
+		}
+	}
+
+	private BufferedImage generate() throws Exception {
+		service.generateAfterCommit(7L, ORIGINAL, "http://localhost");
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		byte[] derivative = derivatives.get(ORIGINAL + "-32.jpg");
+		assertThat(derivative).as("32px derivative").isNotNull();
+		BufferedImage avatar = ImageIO.read(new ByteArrayInputStream(derivative));
+		assertThat(avatar.getWidth()).isEqualTo(32);
+		assertThat(avatar.getHeight()).isEqualTo(32);
+		return avatar;
+	}
+
+	/**
+	 * The picture as displayed: a black band above and below a 40px square of four coloured quadrants,
+	 * red and green on top, blue and white below.
+	 */
+	private static Color displayedColor(int x, int y) {
+		if (y < 10 || y >= 50) {
+			return Color.BLACK;
+		}
+		boolean top = y < 30;
+		boolean left = x < 20;
+		return top ? (left ? Color.RED : Color.GREEN) : (left ? Color.BLUE : Color.WHITE);
+	}
+
+	// Stores the displayed picture in sensor orientation, as a camera would with orientation 6
+	private static byte[] jpeg() throws IOException {
+		BufferedImage stored = new BufferedImage(STORED_WIDTH, STORED_HEIGHT, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < STORED_HEIGHT; y++) {
+			for (int x = 0; x < STORED_WIDTH; x++) {
+				stored.setRGB(x, y, displayedColor(STORED_HEIGHT - 1 - y, x).getRGB());
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(stored, "jpg", out);
+		return out.toByteArray();
+	}
+
+	// "Exif\0\0", a big-endian TIFF header and an IFD0 holding only the orientation
+	private static byte[] exif(int orientation) {
+		ByteBuffer app1 = ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+		app1.put("Exif\0\0".getBytes(StandardCharsets.US_ASCII));
+		app1.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+		app1.putShort((short) 1);
+		app1.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+		app1.putInt(0);
+		return app1.array();
+	}
+
+	// Inserts an APP1 segment straight after SOI, ahead of JFIF, as camera files often have it
+	private static byte[] withApp1(byte[] jpeg, byte[] payload) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(jpeg, 0, 2);
+		out.write(0xFF);
+		out.write(0xE1);
+		out.write((payload.length + 2) >> 8);
+		out.write((payload.length + 2) & 0xFF);
+		out.write(payload, 0, payload.length);
+		out.write(jpeg, 2, jpeg.length - 2);
+		return out.toByteArray();
+	}
+
+	private void writeOriginal(byte[] content) throws IOException {
+		Path original = uploadDir.resolve(ORIGINAL);
+		Files.createDirectories(original.getParent());
+		Files.write(original, content);
+	}
+
+	private static void assertColor(BufferedImage image, int x, int y, Color expected) {
+		Color actual = new Color(image.getRGB(x, y));
+		assertThat(Math.abs(actual.getRed() - expected.getRed())
+				+ Math.abs(actual.getGreen() - expected.getGreen())
+				+ Math.abs(actual.getBlue() - expected.getBlue()))
+				.as("colour at (%d, %d) is %s, expected %s", x, y, actual, expected)
+				.isLessThan(120);
+	}
+
+	// Keeps derivatives in memory; the original is read from the temporary upload directory
+	private class DerivativeCapturingStorage implements FileStorageService {
+
+		@Override
+		public String storeFile(MultipartFile file) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String storeLocalFile(Path source, String originalFilename, String expectedSha256) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void release(String pathOrUrl) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String derivativePath(String originalPath, String variant, String extension) {
+			return originalPath + "-" + variant + "." + extension;
+		}
+
+		@Override
+		public boolean storeDerivative(String derivativePath, byte[] content) {
+			derivatives.put(derivativePath, content);
+			return true;
+		}
+
+		@Override
+		public Path getRootLocation() {
+			return uploadDir;
+		}
+
+		@Override
+		public Path getStagingLocation() {
+			return uploadDir.resolve(".staging");
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hr_management.hr.TestcontainersConfiguration;
+import com.hr_management.hr.entity.ChunkedUpload;
+import com.hr_management.hr.exception.LeaveAPIException;
+import com.hr_management.hr.model.ChunkedUploadRequestDto;
+import com.hr_management.hr.model.ChunkedUploadStatusDto;
+import com.hr_management.hr.model.StagedUploadDto;
+import com.hr_management.hr.repository.ChunkedUploadRepository;
+import com.hr_management.hr.support.TestFixtures;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, TestFixtures.class })
+@SpringBootTest(properties = "app.uploads.chunked.max-open-per-employee=3")
+class ChunkedUploadServiceTests {
+
+	private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+
+	private static final Path UPLOAD_DIR = createUploadDir();
+
+	@DynamicPropertySource
+	static void uploadLocation(DynamicPropertyRegistry registry) {
+		registry.add("spring.servlet.multipart.location", UPLOAD_DIR::toString);
+	}
+
+	@Autowired
+	private ChunkedUploadService chunkedUploadService;
+
+	@Autowired
+	private ChunkedUploadRepository chunkedUploadRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void assemblesChunksSentAtTheReceivedOffset() throws Exception {
+		Long employeeId = fixtures.employee("Uploads").getId();
+		String uploadId = initiate(employeeId).getUploadId();
+
+		assertThat(append(uploadId, employeeId, 0, 0, 10).getOffset()).isEqualTo(10);
+		assertThat(append(uploadId, employeeId, 10, 10, 25).getOffset()).isEqualTo(25);
+		assertThat(chunkedUploadService.getStatus(uploadId, employeeId).getOffset()).isEqualTo(25);
+		assertThat(append(uploadId, employeeId, 25, 25, CONTENT.length).getOffset()).isEqualTo(CONTENT.length);
+
+		StagedUploadDto staged = chunkedUploadService.complete(uploadId, employeeId, sha256(CONTENT));
+		assertThat(staged.getSize()).isEqualTo(CONTENT.length);
+		assertThat(chunkedUploadRepository.findByUploadIdAndEmployeeId(uploadId, employeeId)).isEmpty();
+	}
+
+	@Test
+	void rejectsChunksAtTheWrongOffsetWithoutWritingThem() throws Exception {
+		Long employeeId = fixtures.employee("Uploads").getId();
+		String uploadId = initiate(employeeId).getUploadId();
+		append(uploadId, employeeId, 0, 0, 10);
+
+		// A retried chunk that was already stored, and one that skips ahead
+		assertStatus(() -> append(uploadId, employeeId, 0, 0, 10), HttpStatus.CONFLICT);
+		assertStatus(() -> append(uploadId, employeeId, 20, 20, 30), HttpStatus.CONFLICT);
+		assertThat(chunkedUploadService.getStatus(uploadId, employeeId).getOffset()).isEqualTo(10);
+
+		assertStatus(() -> chunkedUploadService.complete(uploadId, employeeId, sha256(CONTENT)), HttpStatus.CONFLICT);
+	}
+
+	@Test
+	void keepsBytesReceivedBeforeABrokenConnection() throws Exception {
+		Long employeeId = fixtures.employee("Uploads").getId();
+		String uploadId = initiate(employeeId).getUploadId();
+
+		InputStream broken = new InputStream() {
+			private int position;
+
+			@Override
+			public int read() throws IOException {
+				if (position == 12) {
+					throw new IOException("connection reset");
+				}
+				return CONTENT[position++];
+			}
+		};
+		assertThatThrownBy(() -> chunkedUploadService.appendChunk(uploadId, employeeId, 0, broken))
+				.isInstanceOf(IOException.class);
+
+		long resumeAt = chunkedUploadService.getStatus(uploadId, employeeId).getOffset();
+		assertThat(resumeAt).isEqualTo(12);
+		append(uploadId, employeeId, resumeAt, (int) resumeAt, CONTENT.length);
+		assertThat(chunkedUploadService.complete(uploadId, employeeId, sha256(CONTENT)).getSize()).isEqualTo(CONTENT.length);
+	}
+
+	@Test
+	void rejectsChunksPastTheDeclaredSizeAndMismatchingChecksums() throws Exception {
+		Long employeeId = fixtures.employee("Uploads").getId();
+		String uploadId = initiate(employeeId).getUploadId();
+
+		byte[] tooLong = new byte[CONTENT.length + 1];
+		System.arraycopy(CONTENT, 0, tooLong, 0, CONTENT.length);
+		assertStatus(() -> chunkedUploadService.appendChunk(uploadId, employeeId, 0, new ByteArrayInputStream(tooLong)),
+				HttpStatus.BAD_REQUEST);
+		assertThat(chunkedUploadService.getStatus(uploadId, employeeId).getOffset()).isEqualTo(CONTENT.length);
+
+		// The bytes can't be repaired by resuming, so the upload is discarded
+		assertStatus(() -> chunkedUploadService.complete(uploadId, employeeId, sha256(tooLong)), HttpStatus.BAD_REQUEST);
+		assertThat(chunkedUploadRepository.findByUploadIdAndEmployeeId(uploadId, employeeId)).isEmpty();
+	}
+
+	@Test
+	void answersConcurrentRequestsWith409AndSweeperSkipsBusyUploads() throws Exception {
+		Long employeeId = fixtures.employee("Uploads").getId();
+		String uploadId = initiate(employeeId).getUploadId();
+
+		CountDownLatch firstBytesRead = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		InputStream slow = new InputStream() {
+			private int position;
+
+			@Override
+			public int read() throws IOException {
+				if (position == 5) {
+					firstBytesRead.countDown();
+					try {
+						finish.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return -1;
+				}
+				return CONTENT[position++];
+			}
+		};
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<ChunkedUploadStatusDto> slowChunk = pool.submit(() -> chunkedUploadService.appendChunk(uploadId, employeeId, 0, slow));
+			assertThat(firstBytesRead.await(10, TimeUnit.SECONDS)).isTrue();
+
+			assertStatus(() -> append(uploadId, employeeId, 0, 0, 10), HttpStatus.CONFLICT);
+			assertStatus(() -> chunkedUploadService.abort(uploadId, employeeId), HttpStatus.CONFLICT);
+
+			ChunkedUpload upload = chunkedUploadRepository.findByUploadIdAndEmployeeId(uploadId, employeeId).orElseThrow();
+			upload.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+			chunkedUploadRepository.save(upload);
+			chunkedUploadService.purgeExpired();
+			assertThat(chunkedUploadRepository.findByUploadIdAndEmployeeId(uploadId, employeeId)).isPresent();
+
+			finish.countDown();
+			assertThat(slowChunk.get(10, TimeUnit.SECONDS).getOffset()).isEqualTo(5);
+		} finally {
+			finish.countDown();
+			pool.shutdown();
+		}
+
+		// The lock is released with the request, and the chunk extended the upload's lifetime
+		assertThat(append(uploadId, employeeId, 5, 5, 10).getOffset()).isEqualTo(10);
+	}
+
+	@Test
+	void capsOpenUploadsPerEmployee() throws Exception {
+		Long employeeId = fixtures.employee("Uploads").getId();
+		initiate(employeeId);
+		initiate(employeeId);
+		String third = initiate(employeeId).getUploadId();
+
+		assertStatus(() -> initiate(employeeId), HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(initiate(fixtures.employee("Uploads").getId())).isNotNull();
+
+		chunkedUploadService.abort(third, employeeId);
+		assertThat(initiate(employeeId)).isNotNull();
+	}
+
+	private ChunkedUploadStatusDto initiate(Long employeeId) {
+		return chunkedUploadService.initiate(employeeId,
+				new ChunkedUploadRequestDto("document.txt", "text/plain", CONTENT.length));
+	}
+
+	private ChunkedUploadStatusDto append(String uploadId, Long employeeId, long offset, int from, int to) throws IOException {
+		return chunkedUploadService.appendChunk(uploadId, employeeId, offset,
+				new ByteArrayInputStream(CONTENT, from, to - from));
+	}
+
+	private static void assertStatus(ThrowingCall call, HttpStatus status) {
+		assertThatThrownBy(call::run)
+				.isInstanceOfSatisfying(LeaveAPIException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+	}
+
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+
+	private static Path createUploadDir() {
+		try {
+			return Files.createTempDirectory("chunked-upload-tests");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface ThrowingCall {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,136 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hr_management.hr.TestcontainersConfiguration;
+import com.hr_management.hr.entity.EmailOutbox;
+import com.hr_management.hr.enums.EmailOutboxStatus;
+import com.hr_management.hr.model.EmailMessage;
+import com.hr_management.hr.repository.EmailOutboxRepository;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {
+		"app.mail.outbox.poll-interval-ms=3600000",
+		"app.mail.outbox.max-attempts=3",
+		"app.mail.outbox.initial-backoff-ms=60000",
+		"app.mail.outbox.max-backoff-ms=90000"
+})
+class EmailOutboxDispatcherTests {
+
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+
+	@Autowired
+	private EmailOutboxService emailOutboxService;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@MockBean
+	private EmailService emailService;
+
+	private String failingRecipient;
+
+	@BeforeEach
+	void failOneRecipient() {
+		failingRecipient = "fail-" + UUID.randomUUID() + "@example.com";
+		// Everything else in the outbox is delivered, so leftovers from other tests don't interfere
+		given(emailService.sendBatch(anyList())).willAnswer(invocation -> {
+			List<EmailMessage> messages = invocation.getArgument(0);
+			Map<Integer, MailException> failures = new HashMap<>();
+			for (int i = 0; i < messages.size(); i++) {
+				if (failingRecipient.equals(messages.get(i).getTo())) {
+					failures.put(i, new MailSendException("mailbox unavailable"));
+				}
+			}
+			return failures;
+		});
+	}
+
+	@Test
+	void deliveredEmailsAreMarkedSent() {
+		String recipient = "ok-" + UUID.randomUUID() + "@example.com";
+		emailOutboxService.queueSimpleMessage(recipient, "Subject", "Body");
+
+		dispatcher.dispatch();
+
+		EmailOutbox email = find(recipient);
+		assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+		assertThat(email.getAttempts()).isEqualTo(1);
+		assertThat(email.getSentAt()).isNotNull();
+	}
+
+	@Test
+	void failedEmailsBackOffExponentiallyThenGiveUp() {
+		emailOutboxService.queueHtmlMessage(failingRecipient, "Subject", "<p>Body</p>");
+
+		dispatcher.dispatch();
+		EmailOutbox afterFirst = find(failingRecipient);
+		assertThat(afterFirst.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+		assertThat(afterFirst.getAttempts()).isEqualTo(1);
+		assertThat(afterFirst.getLastError()).contains("mailbox unavailable");
+		assertRetryIn(afterFirst, Duration.ofSeconds(60));
+
+		// Not due yet, so the next run leaves it alone
+		dispatcher.dispatch();
+		assertThat(find(failingRecipient).getAttempts()).isEqualTo(1);
+
+		makeDue(afterFirst);
+		dispatcher.dispatch();
+		EmailOutbox afterSecond = find(failingRecipient);
+		assertThat(afterSecond.getAttempts()).isEqualTo(2);
+		// Doubled from 60s, then capped at the 90s maximum
+		assertRetryIn(afterSecond, Duration.ofSeconds(90));
+
+		makeDue(afterSecond);
+		dispatcher.dispatch();
+		EmailOutbox afterThird = find(failingRecipient);
+		assertThat(afterThird.getAttempts()).isEqualTo(3);
+		assertThat(afterThird.getStatus()).isEqualTo(EmailOutboxStatus.DEAD);
+
+		makeDue(afterThird);
+		dispatcher.dispatch();
+		assertThat(find(failingRecipient).getAttempts()).isEqualTo(3);
+	}
+
+	private void assertRetryIn(EmailOutbox email, Duration backoff) {
+		LocalDateTime expected = LocalDateTime.now().plus(backoff);
+		assertThat(email.getNextAttemptAt()).isCloseTo(expected, within(5, ChronoUnit.SECONDS));
+	}
+
+	private void makeDue(EmailOutbox email) {
+		EmailOutbox current = emailOutboxRepository.findById(email.getId()).orElseThrow();
+		current.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		emailOutboxRepository.save(current);
+	}
+
+	private EmailOutbox find(String recipient) {
+		return emailOutboxRepository.findAll().stream()
+				.filter(email -> recipient.equals(email.getRecipient()))
+				.findFirst()
+				.orElseThrow();
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hr_management.hr.TestcontainersConfiguration;
+import com.hr_management.hr.entity.Employee;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+import com.hr_management.hr.model.EmployeeDto;
+import com.hr_management.hr.support.TestFixtures;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, TestFixtures.class })
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EmployeeServiceQueryCountTests {
+
+	private static final LocalDate START = LocalDate.of(2030, 5, 6);
+
+	@Autowired
+	private EmployeeService employeeService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void listingEmployeesRunsTheSameNumberOfQueriesForAnyHeadcount() {
+		seed(5);
+		long fewEmployees = countQueries();
+
+		seed(40);
+		long manyEmployees = countQueries();
+
+		// Employees with their users, then their leaves for up to 1000 employees per query
+		assertThat(manyEmployees).isEqualTo(fewEmployees);
+		assertThat(manyEmployees).isLessThanOrEqualTo(2);
+	}
+
+	private void seed(int count) {
+		for (int i = 0; i < count; i++) {
+			Employee employee = fixtures.employee("QueryCount");
+			fixtures.leave(employee, LeaveType.PTO, LeaveStatus.APPROVED, START, 2, START);
+			fixtures.leave(employee, LeaveType.SICK, LeaveStatus.PENDING, START.plusDays(10), 1, START);
+		}
+	}
+
+	private long countQueries() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		List<EmployeeDto> employees = employeeService.findAllEmployees();
+		assertThat(employees).allSatisfy(employee -> assertThat(employee.getUser()).isNotNull());
+		return statistics.getPrepareStatementCount();
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hr_management.hr.TestcontainersConfiguration;
+import com.hr_management.hr.entity.StoredFile;
+import com.hr_management.hr.repository.StoredFileRepository;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class FileStorageServiceTests {
+
+	private static final Path UPLOAD_DIR = createUploadDir();
+
+	@DynamicPropertySource
+	static void uploadLocation(DynamicPropertyRegistry registry) {
+		registry.add("spring.servlet.multipart.location", UPLOAD_DIR::toString);
+	}
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private StoredFileRepository storedFileRepository;
+
+	@Test
+	void storesIdenticalContentOnceAndCountsReferences() throws IOException {
+		byte[] content = uniqueContent();
+
+		String first = fileStorageService.storeFile(upload("a.pdf", content));
+		String second = fileStorageService.storeFile(upload("b.PDF", content));
+
+		assertThat(second).isEqualTo(first);
+		assertThat(first).startsWith("objects/").endsWith(".pdf");
+		assertThat(Files.readAllBytes(UPLOAD_DIR.resolve(first))).isEqualTo(content);
+		assertThat(refCount(first)).isEqualTo(2);
+		assertThat(fileStorageService.storeFile(upload("c.pdf", uniqueContent()))).isNotEqualTo(first);
+	}
+
+	@Test
+	void deletesTheFileAndItsDerivativesWithTheLastReference() throws IOException {
+		String path = fileStorageService.storeFile(upload("photo.png", uniqueContent()));
+		fileStorageService.storeFile(upload("photo.png", Files.readAllBytes(UPLOAD_DIR.resolve(path))));
+		String derivative = fileStorageService.derivativePath(path, "64", "jpg");
+		fileStorageService.storeDerivative(derivative, new byte[] { 1, 2, 3 });
+
+		fileStorageService.release("http://localhost:8080/uploads/" + path);
+		assertThat(refCount(path)).isEqualTo(1);
+		assertThat(UPLOAD_DIR.resolve(path)).exists();
+
+		// Releasing through a derivative's URL releases its original
+		fileStorageService.release("/uploads/" + derivative);
+		assertThat(storedFileRepository.findByPath(path)).isEmpty();
+		assertThat(UPLOAD_DIR.resolve(path)).doesNotExist();
+		assertThat(UPLOAD_DIR.resolve(derivative)).doesNotExist();
+
+		// A further release is a no-op rather than a negative count
+		fileStorageService.release(path);
+		assertThat(storedFileRepository.findByPath(path)).isEmpty();
+	}
+
+	@Test
+	void leavesFilesItDidNotStoreAlone() throws IOException {
+		Path legacy = UPLOAD_DIR.resolve("employee_1/profile_1/legacy.png");
+		Files.createDirectories(legacy.getParent());
+		Files.write(legacy, uniqueContent());
+
+		fileStorageService.release("employee_1/profile_1/legacy.png");
+		fileStorageService.release("/uploads/../outside.png");
+		fileStorageService.release(null);
+
+		assertThat(legacy).exists();
+	}
+
+	@Test
+	void concurrentStoresAndReleasesKeepTheCountExact() throws Exception {
+		byte[] content = uniqueContent();
+		String path = fileStorageService.storeFile(upload("shared.pdf", content));
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				tasks.add(() -> {
+					for (int j = 0; j < 20; j++) {
+						assertThat(fileStorageService.storeFile(upload("shared.pdf", content))).isEqualTo(path);
+						fileStorageService.release(path);
+					}
+					return null;
+				});
+			}
+			for (Future<Void> result : pool.invokeAll(tasks)) {
+				result.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		// Only the first reference is left, and the file was never deleted in between
+		assertThat(refCount(path)).isEqualTo(1);
+		assertThat(Files.readAllBytes(UPLOAD_DIR.resolve(path))).isEqualTo(content);
+	}
+
+	private int refCount(String path) {
+		return storedFileRepository.findByPath(path).map(StoredFile::getRefCount).orElse(0);
+	}
+
+	private static MockMultipartFile upload(String name, byte[] content) {
+		return new MockMultipartFile("file", name, "application/octet-stream", content);
+	}
+
+	private static byte[] uniqueContent() {
+		return ("content " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static Path createUploadDir() {
+		try {
+			return Files.createTempDirectory("file-storage-tests");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.hr_management.hr.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Renders a welcome email the way {@link HtmlEmailTemplateService} does, with a precompiled
+ * {@link HtmlTemplate}, against the {@code String.format} rendering it replaced, which parsed both
+ * format strings on every call and did not escape values. Run {@link #main} from the test classpath
+ * after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlTemplateBenchmark {
+
+	private static final String LAYOUT_SOURCE = """
+			<!DOCTYPE html>
+			<html>
+			<head>
+				<meta charset="UTF-8">
+				<style>
+					body { font-family: Arial, sans-serif; line-height: 1.6; margin: 0; background-color: #f4f4f4; }
+					.container { max-width: 600px; margin: 20px auto; background-color: #ffffff; border-radius: 8px; }
+					.header { background-color: #184C55; color: #ffffff; padding: 20px; text-align: center; }
+					.content { padding: 20px; color: #333333; }
+					.footer { background-color: #184C55; color: #ffffff; text-align: center; padding: 15px; }
+					.info-box { background-color: #f8f9fa; border: 1px solid #e9ecef; padding: 15px; margin: 15px 0; }
+					.details-row { display: flex; margin-bottom: 8px; font-size: 14px; }
+					.details-label { font-weight: bold; width: 120px; color: #184C55; }
+				</style>
+			</head>
+			<body>
+				<div class="container">
+					<div class="header"><h1>{{title}}</h1></div>
+					<div class="content">{{{content}}}</div>
+					<div class="footer"><p>© 2024 HR Management System. All rights reserved.</p></div>
+				</div>
+			</body>
+			</html>
+			""";
+
+	private static final String WELCOME_SOURCE = """
+			<p style="font-size: 16px;">Hello <strong>{{firstName}}</strong>,</p>
+			<p>Welcome to the HR Management System! Your employee account has been successfully created.</p>
+			<div class="info-box">
+				<h3>Your Account Details</h3>
+				<div class="details-row"><span class="details-label">Username:</span><span>{{username}}</span></div>
+				<div class="details-row"><span class="details-label">Temporary Password:</span><span>{{password}}</span></div>
+				<div class="details-row"><span class="details-label">Email:</span><span>{{email}}</span></div>
+				<div class="details-row"><span class="details-label">Department:</span><span>{{department}}</span></div>
+				<div class="details-row"><span class="details-label">Position:</span><span>{{position}}</span></div>
+			</div>
+			<p>For security reasons, please change your password upon first login.</p>
+			""";
+
+	private static final HtmlTemplate LAYOUT = HtmlTemplate.compile(LAYOUT_SOURCE, "title", "content");
+	private static final HtmlTemplate WELCOME = HtmlTemplate.compile(WELCOME_SOURCE,
+			"firstName", "username", "password", "email", "department", "position");
+
+	// The same markup as format strings, the way the service used to hold it
+	private static final String LAYOUT_FORMAT = toFormat(LAYOUT_SOURCE);
+	private static final String WELCOME_FORMAT = toFormat(WELCOME_SOURCE);
+
+	// Not final, so JMH can't constant-fold the inputs
+	private String title = "Welcome to HR Management System";
+	private String firstName = "Ada";
+	private String username = "ada.lovelace";
+	private String password = "t3mp-P4ss&word";
+	private String email = "ada.lovelace@example.com";
+	private String department = "Research & Development";
+	private String position = "Analyst";
+
+	@Benchmark
+	public String htmlTemplate() {
+		return LAYOUT.render(title, (HtmlTemplate.Fragment) out ->
+				WELCOME.writeTo(out, firstName, username, password, email, department, position));
+	}
+
+	@Benchmark
+	public String stringFormat() {
+		String content = String.format(WELCOME_FORMAT, firstName, username, password, email, department, position);
+		return String.format(LAYOUT_FORMAT, title, content);
+	}
+
+	private static String toFormat(String source) {
+		return source.replace("%", "%%").replaceAll("\\{\\{\\{?\\s*\\w+\\s*}?}}", "%s");
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HtmlTemplateBenchmark.class.getSimpleName()).build()).run();
+	}
+}
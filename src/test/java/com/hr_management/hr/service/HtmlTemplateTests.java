@@ -0,0 +1,81 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+class HtmlTemplateTests {
+
+	@Test
+	void escapesValuesInDoubleBraces() {
+		HtmlTemplate template = HtmlTemplate.compile("<p>{{name}}</p>", "name");
+
+		assertThat(template.render("<b>Tom & \"Jerry\"</b> 'x'"))
+				.isEqualTo("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt; &#39;x&#39;</p>");
+	}
+
+	@Test
+	void writesValuesInTripleBracesAsIs() {
+		HtmlTemplate template = HtmlTemplate.compile("<div>{{{body}}}</div>", "body");
+
+		assertThat(template.render("<p>Tom & Jerry</p>")).isEqualTo("<div><p>Tom & Jerry</p></div>");
+	}
+
+	@Test
+	void rendersNullAsEmpty() {
+		HtmlTemplate template = HtmlTemplate.compile("[{{a}}|{{{b}}}]", "a", "b");
+
+		assertThat(template.render(null, null)).isEqualTo("[|]");
+	}
+
+	@Test
+	void fillsSlotsByDeclaredPositionAndAllowsReuse() {
+		HtmlTemplate template = HtmlTemplate.compile("{{ last }}, {{first}} ({{first}})", "first", "last");
+
+		assertThat(template.render("Ada", "Lovelace")).isEqualTo("Lovelace, Ada (Ada)");
+	}
+
+	@Test
+	void rendersFragmentsInPlace() {
+		HtmlTemplate inner = HtmlTemplate.compile("<i>{{text}}</i>", "text");
+		HtmlTemplate outer = HtmlTemplate.compile("<h1>{{title}}</h1>{{{content}}}", "title", "content");
+
+		String html = outer.render("A & B", (HtmlTemplate.Fragment) out -> inner.writeTo(out, "<x>"));
+
+		assertThat(html).isEqualTo("<h1>A &amp; B</h1><i>&lt;x&gt;</i>");
+	}
+
+	@Test
+	void leavesTextWithoutPlaceholdersUntouched() {
+		HtmlTemplate template = HtmlTemplate.compile("<p>100% & { braces }</p>");
+
+		assertThat(template.render()).isEqualTo("<p>100% & { braces }</p>");
+	}
+
+	@Test
+	void rejectsUndeclaredSlots() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> HtmlTemplate.compile("<p>{{missing}}</p>", "name"))
+				.withMessageContaining("missing");
+	}
+
+	@Test
+	void rejectsUnclosedPlaceholders() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> HtmlTemplate.compile("<p>{{name</p>", "name"))
+				.withMessageContaining("Unclosed placeholder at offset 3");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> HtmlTemplate.compile("<p>{{{name}}</p>", "name"))
+				.withMessageContaining("Unclosed placeholder");
+	}
+
+	@Test
+	void rejectsTheWrongNumberOfValues() {
+		HtmlTemplate template = HtmlTemplate.compile("{{a}}{{b}}", "a", "b");
+
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> template.render("only one"))
+				.withMessageContaining("Expected 2 slot values but got 1");
+	}
+}
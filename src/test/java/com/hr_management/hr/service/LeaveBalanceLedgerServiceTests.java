@@ -0,0 +1,150 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hr_management.hr.TestcontainersConfiguration;
+import com.hr_management.hr.entity.Employee;
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.entity.LeaveBalanceLedger;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+import com.hr_management.hr.repository.LeaveBalanceLedgerRepository;
+import com.hr_management.hr.repository.LeaveRepository;
+import com.hr_management.hr.support.TestFixtures;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, TestFixtures.class })
+@SpringBootTest
+class LeaveBalanceLedgerServiceTests {
+
+	private static final LocalDate START = LocalDate.of(2030, 3, 4);
+
+	@Autowired
+	private LeaveBalanceLedgerService ledgerService;
+
+	@Autowired
+	private LeaveBalanceLedgerRepository ledgerRepository;
+
+	@Autowired
+	private LeaveRepository leaveRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void tracksDaysThroughSubmitApproveAndCancel() {
+		Employee employee = fixtures.employee("Ledger");
+		Leave approved = fixtures.leave(employee, LeaveType.PTO, LeaveStatus.PENDING, START, 3, START);
+		Leave halfDay = fixtures.leave(employee, LeaveType.PTO, LeaveStatus.PENDING, START.plusDays(7), 0.5, START);
+
+		ledgerService.recordSubmitted(approved);
+		ledgerService.recordSubmitted(halfDay);
+		assertEntry(employee, 0.0, 3.5);
+
+		approved.setStatus(LeaveStatus.APPROVED);
+		leaveRepository.save(approved);
+		ledgerService.recordStatusChange(approved, LeaveStatus.PENDING);
+		assertEntry(employee, 3.0, 0.5);
+
+		leaveRepository.delete(halfDay);
+		ledgerService.recordRemoved(halfDay);
+		assertEntry(employee, 3.0, 0.0);
+
+		approved.setStatus(LeaveStatus.REJECTED);
+		leaveRepository.save(approved);
+		ledgerService.recordStatusChange(approved, LeaveStatus.APPROVED);
+		assertEntry(employee, 0.0, 0.0);
+	}
+
+	@Test
+	void rebuildsFromLeavesWhenLedgerHasDrifted() {
+		Employee employee = fixtures.employee("Ledger");
+		Leave kept = fixtures.leave(employee, LeaveType.SICK, LeaveStatus.PENDING, START, 2, START);
+		Leave cancelled = fixtures.leave(employee, LeaveType.SICK, LeaveStatus.PENDING, START.plusDays(5), 4, START);
+		ledgerService.recordSubmitted(kept);
+		ledgerService.recordSubmitted(cancelled);
+
+		// Lose the second submission, as if the ledger had been edited by hand
+		transactionTemplate.executeWithoutResult(status -> {
+			LeaveBalanceLedger entry = ledgerRepository
+					.findForUpdate(employee.getId(), LeaveType.SICK, START.getYear()).orElseThrow();
+			entry.setPendingDays(2.0);
+			ledgerRepository.save(entry);
+		});
+
+		transactionTemplate.executeWithoutResult(status -> {
+			leaveRepository.delete(leaveRepository.getReferenceById(cancelled.getId()));
+			ledgerService.recordRemoved(cancelled);
+		});
+
+		LeaveBalanceLedger entry = entry(employee, LeaveType.SICK);
+		assertThat(entry.getPendingDays()).isEqualTo(2.0);
+		assertThat(entry.getUsedDays()).isEqualTo(0.0);
+	}
+
+	@Test
+	void concurrentFirstSubmissionsShareOneRow() throws Exception {
+		Employee employee = fixtures.employee("Ledger");
+		int submitters = 8;
+		List<Leave> leaves = new ArrayList<>();
+		for (int i = 0; i < submitters; i++) {
+			leaves.add(fixtures.leave(employee, LeaveType.UNPAID, LeaveStatus.PENDING, START.plusDays(i * 3L), 1, START));
+		}
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(submitters);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (Leave leave : leaves) {
+				Callable<Object> submit = () -> {
+					start.await();
+					transactionTemplate.executeWithoutResult(status -> ledgerService.recordSubmitted(leave));
+					return null;
+				};
+				results.add(executor.submit(submit));
+			}
+			start.countDown();
+			for (Future<Object> result : results) {
+				result.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(entry(employee, LeaveType.UNPAID).getPendingDays()).isEqualTo((double) submitters);
+	}
+
+	private void assertEntry(Employee employee, double used, double pending) {
+		LeaveBalanceLedger entry = entry(employee, LeaveType.PTO);
+		assertThat(entry.getUsedDays()).isEqualTo(used);
+		assertThat(entry.getPendingDays()).isEqualTo(pending);
+	}
+
+	private LeaveBalanceLedger entry(Employee employee, LeaveType leaveType) {
+		return ledgerService.getEntries(employee.getId(), List.of(START.getYear())).stream()
+				.filter(entry -> entry.getLeaveType() == leaveType)
+				.findFirst()
+				.orElseThrow();
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.hr_management.hr.TestcontainersConfiguration;
+import com.hr_management.hr.entity.Employee;
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+import com.hr_management.hr.model.LeaveDto;
+import com.hr_management.hr.model.LeaveHistoryFilter;
+import com.hr_management.hr.model.LeaveHistoryPageDto;
+import com.hr_management.hr.support.TestFixtures;
+
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ TestcontainersConfiguration.class, TestFixtures.class })
+@SpringBootTest
+class LeaveHistoryPaginationTests {
+
+	private static final LocalDate APPLIED = LocalDate.of(2030, 1, 10);
+
+	private static final Comparator<Leave> HISTORY_ORDER = Comparator
+			.comparingInt((Leave leave) -> Leave.priorityOf(leave.getStatus()))
+			.thenComparing(Leave::getApplicationDate, Comparator.reverseOrder())
+			.thenComparing(Leave::getId, Comparator.reverseOrder());
+
+	@Autowired
+	private LeaveService leaveService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private String department;
+	private Employee employee;
+	private List<Leave> leaves;
+
+	@BeforeEach
+	void seed() {
+		department = "Keyset-" + UUID.randomUUID();
+		employee = fixtures.employee(department);
+		Employee colleague = fixtures.employee(department);
+		LeaveStatus[] statuses = { LeaveStatus.PENDING, LeaveStatus.APPROVED, LeaveStatus.REJECTED };
+		LeaveType[] types = { LeaveType.PTO, LeaveType.SICK };
+		leaves = new ArrayList<>();
+		for (int i = 0; i < 13; i++) {
+			// Several leaves share an application date so the id tie-breaker is exercised
+			LocalDate applied = APPLIED.plusDays(i / 3);
+			leaves.add(fixtures.leave(i % 4 == 0 ? colleague : employee, types[i % 2], statuses[i % 3],
+					APPLIED.plusMonths(1).plusDays(i * 2L), 1, applied));
+		}
+	}
+
+	@Test
+	void pagesThroughEmployeeHistoryInOrder() {
+		List<Long> expected = expected(leave -> leave.getEmployee().getId().equals(employee.getId()));
+
+		assertThat(readAll(cursor -> leaveService.getEmployeeLeaves(employee.getId(), null, cursor, 4)))
+				.containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void pagesThroughFilteredHistoryInOrder() {
+		LeaveHistoryFilter byDepartment = LeaveHistoryFilter.builder().department(department).build();
+		assertThat(readAll(cursor -> leaveService.getAllLeaveRequestsSorted(byDepartment, cursor, 3)))
+				.containsExactlyElementsOf(expected(leave -> true));
+
+		LeaveHistoryFilter byType = LeaveHistoryFilter.builder().department(department).type(LeaveType.SICK).build();
+		assertThat(readAll(cursor -> leaveService.getAllLeaveRequestsSorted(byType, cursor, 2)))
+				.containsExactlyElementsOf(expected(leave -> leave.getLeaveType() == LeaveType.SICK));
+
+		LeaveHistoryFilter byStatus = LeaveHistoryFilter.builder().department(department)
+				.status(LeaveStatus.APPROVED).build();
+		assertThat(readAll(cursor -> leaveService.getAllLeaveRequestsSorted(byStatus, cursor, 2)))
+				.containsExactlyElementsOf(expected(leave -> leave.getStatus() == LeaveStatus.APPROVED));
+
+		LeaveHistoryFilter byDates = LeaveHistoryFilter.builder().department(department)
+				.fromDate(APPLIED.plusDays(1)).toDate(APPLIED.plusDays(2)).build();
+		assertThat(readAll(cursor -> leaveService.getAllLeaveRequestsSorted(byDates, cursor, 2)))
+				.containsExactlyElementsOf(expected(leave -> !leave.getApplicationDate().isBefore(APPLIED.plusDays(1))
+						&& !leave.getApplicationDate().isAfter(APPLIED.plusDays(2))));
+	}
+
+	@Test
+	void historyOrderIsReadFromTheIndexWithoutFilesort() {
+		List<Map<String, Object>> unfiltered = jdbcTemplate.queryForList(
+				"EXPLAIN SELECT id FROM leaves ORDER BY status_priority, application_date DESC, id DESC LIMIT 21");
+		List<Map<String, Object>> byEmployee = jdbcTemplate.queryForList(
+				"EXPLAIN SELECT id FROM leaves WHERE employee_id = ? "
+						+ "ORDER BY status_priority, application_date DESC, id DESC LIMIT 21", employee.getId());
+		List<Map<String, Object>> byStatus = jdbcTemplate.queryForList(
+				"EXPLAIN SELECT id FROM leaves WHERE status = 'APPROVED' "
+						+ "ORDER BY application_date DESC, id DESC LIMIT 21");
+
+		assertThat(extra(unfiltered)).doesNotContain("filesort");
+		assertThat(extra(byEmployee)).doesNotContain("filesort");
+		assertThat(extra(byStatus)).doesNotContain("filesort");
+	}
+
+	private List<Long> expected(Predicate<Leave> filter) {
+		return leaves.stream()
+				.filter(filter)
+				.sorted(HISTORY_ORDER)
+				.map(Leave::getId)
+				.collect(Collectors.toList());
+	}
+
+	private List<Long> readAll(Function<String, LeaveHistoryPageDto> fetch) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			LeaveHistoryPageDto page = fetch.apply(cursor);
+			page.getLeaves().stream().map(LeaveDto::getId).forEach(ids::add);
+			assertThat(page.getNextCursor() != null).isEqualTo(page.isHasMore());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private static String extra(List<Map<String, Object>> plan) {
+		return plan.stream()
+				.map(row -> String.valueOf(row.get("Extra")))
+				.collect(Collectors.joining(";"));
+	}
+
+}
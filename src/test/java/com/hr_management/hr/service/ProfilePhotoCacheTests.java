@@ -0,0 +1,217 @@
+package com.hr_management.hr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.hr_management.hr.config.MicrosoftOAuthProperties;
+
+class ProfilePhotoCacheTests {
+
+	private static final String PHOTO_URL = "https://graph.example.com/v1.0/users/ms-1/photo/$value";
+
+	private static final byte[] PHOTO = { 1, 2, 3, 4 };
+
+	@TempDir
+	Path cacheDir;
+
+	private final AtomicInteger tokenLookups = new AtomicInteger();
+
+	private final Supplier<String> accessToken = () -> {
+		tokenLookups.incrementAndGet();
+		return "graph-token";
+	};
+
+	private RestTemplate restTemplate;
+
+	private MockRestServiceServer graph;
+
+	@BeforeEach
+	void setUp() {
+		restTemplate = new RestTemplate();
+		graph = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@Test
+	void concurrentMissesShareOneUpstreamRequest() throws Exception {
+		ProfilePhotoCache cache = cache(3_600_000L);
+		CountDownLatch release = new CountDownLatch(1);
+		graph.expect(once(), requestTo(PHOTO_URL))
+				.andExpect(method(HttpMethod.GET))
+				.andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer graph-token"))
+				.andRespond(request -> {
+					// Hold the response until every caller has had the chance to ask
+					awaitQuietly(release);
+					return withSuccess(PHOTO, MediaType.IMAGE_PNG).createResponse(request);
+				});
+
+		int callers = 8;
+		CountDownLatch started = new CountDownLatch(callers);
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<ProfilePhotoCache.Photo>> photos = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				photos.add(executor.submit(() -> {
+					started.countDown();
+					return cache.get("ms-1", accessToken);
+				}));
+			}
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<ProfilePhotoCache.Photo> photo : photos) {
+				assertThat(photo.get(5, TimeUnit.SECONDS).getBytes()).isEqualTo(PHOTO);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		graph.verify();
+		assertThat(tokenLookups).hasValue(1);
+	}
+
+	@Test
+	void revalidatesAStalePhotoWithItsUpstreamETag() {
+		ProfilePhotoCache cache = cache(0L); // nothing is fresh, every get revalidates
+		graph.expect(once(), requestTo(PHOTO_URL))
+				.andRespond(withSuccess(PHOTO, MediaType.IMAGE_PNG).header(HttpHeaders.ETAG, "\"v1\""));
+		graph.expect(once(), requestTo(PHOTO_URL))
+				.andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		ProfilePhotoCache.Photo first = cache.get("ms-1", accessToken);
+		ProfilePhotoCache.Photo revalidated = cache.get("ms-1", accessToken);
+
+		graph.verify();
+		assertThat(revalidated.getBytes()).isEqualTo(PHOTO);
+		assertThat(revalidated.getContentType()).isEqualTo(MediaType.IMAGE_PNG_VALUE);
+		assertThat(revalidated.getEtag()).isEqualTo(first.getEtag());
+	}
+
+	@Test
+	void servesAFreshPhotoFromDiskAfterARestart() {
+		graph.expect(once(), requestTo(PHOTO_URL)).andRespond(withSuccess(PHOTO, MediaType.IMAGE_PNG));
+		ProfilePhotoCache.Photo fetched = cache(3_600_000L).get("ms-1", accessToken);
+		graph.verify();
+
+		// A new instance on the same directory, with nothing in memory and no upstream expected
+		graph.reset();
+		ProfilePhotoCache.Photo reloaded = cache(3_600_000L).get("ms-1", accessToken);
+
+		graph.verify();
+		assertThat(reloaded.getBytes()).isEqualTo(PHOTO);
+		assertThat(reloaded.getContentType()).isEqualTo(MediaType.IMAGE_PNG_VALUE);
+		assertThat(reloaded.getEtag()).isEqualTo(fetched.getEtag());
+		assertThat(tokenLookups).hasValue(1);
+	}
+
+	@Test
+	void revalidatesAStalePhotoFromDiskAfterARestart() throws IOException {
+		graph.expect(once(), requestTo(PHOTO_URL))
+				.andRespond(withSuccess(PHOTO, MediaType.IMAGE_PNG).header(HttpHeaders.ETAG, "\"v1\""));
+		cache(3_600_000L).get("ms-1", accessToken);
+		graph.verify();
+		for (Path meta : metaFiles()) {
+			Files.setLastModifiedTime(meta, FileTime.fromMillis(System.currentTimeMillis() - 7_200_000L));
+		}
+
+		graph.reset();
+		graph.expect(once(), requestTo(PHOTO_URL))
+				.andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+		ProfilePhotoCache.Photo reloaded = cache(3_600_000L).get("ms-1", accessToken);
+
+		graph.verify();
+		assertThat(reloaded.getBytes()).isEqualTo(PHOTO);
+		// The revalidation is recorded, so the next restart serves the copy without asking again
+		for (Path meta : metaFiles()) {
+			assertThat(Files.getLastModifiedTime(meta).toMillis()).isGreaterThan(System.currentTimeMillis() - 60_000L);
+		}
+	}
+
+	@Test
+	void fetchesAgainAfterEviction() {
+		ProfilePhotoCache cache = cache(3_600_000L);
+		byte[] newPhoto = { 5, 6, 7 };
+		graph.expect(once(), requestTo(PHOTO_URL)).andRespond(withSuccess(PHOTO, MediaType.IMAGE_PNG));
+		graph.expect(once(), requestTo(PHOTO_URL)).andRespond(withSuccess(newPhoto, MediaType.IMAGE_PNG));
+
+		assertThat(cache.get("ms-1", accessToken).getBytes()).isEqualTo(PHOTO);
+		cache.evict("ms-1");
+		assertThat(cache.get("ms-1", accessToken).getBytes()).isEqualTo(newPhoto);
+
+		graph.verify();
+	}
+
+	@Test
+	void remembersThatAUserHasNoPhoto() {
+		ProfilePhotoCache cache = cache(3_600_000L);
+		graph.expect(once(), requestTo(PHOTO_URL)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+		assertThat(cache.get("ms-1", accessToken)).isNull();
+		assertThat(cache.get("ms-1", accessToken)).isNull();
+
+		graph.verify();
+	}
+
+	private ProfilePhotoCache cache(long freshMs) {
+		MicrosoftOAuthProperties properties = new MicrosoftOAuthProperties();
+		properties.setGraphBaseUrl("https://graph.example.com/v1.0");
+		ProfilePhotoCache cache = new ProfilePhotoCache(restTemplate, properties);
+		ReflectionTestUtils.setField(cache, "directory", cacheDir.toString());
+		ReflectionTestUtils.setField(cache, "maxEntries", 100);
+		ReflectionTestUtils.setField(cache, "freshMs", freshMs);
+		ReflectionTestUtils.setField(cache, "retainMs", 86_400_000L);
+		try {
+			cache.init();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return cache;
+	}
+
+	private List<Path> metaFiles() throws IOException {
+		try (var files = Files.list(cacheDir)) {
+			List<Path> metas = files.filter(file -> file.toString().endsWith(".meta")).toList();
+			assertThat(metas).hasSize(1);
+			return metas;
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
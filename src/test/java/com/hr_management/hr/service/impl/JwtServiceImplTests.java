@@ -0,0 +1,56 @@
+package com.hr_management.hr.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+
+class JwtServiceImplTests {
+
+	private static final UserDetails ALICE = User.withUsername("alice").password("unused").authorities(List.of()).build();
+
+	private final JwtServiceImpl jwtService = new JwtServiceImpl();
+
+	@BeforeEach
+	void init() {
+		ReflectionTestUtils.setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+		ReflectionTestUtils.setField(jwtService, "jwtExpiration", 2_000L);
+		ReflectionTestUtils.setField(jwtService, "refreshExpiration", 60_000L);
+		ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100);
+		ReflectionTestUtils.setField(jwtService, "verifiedCacheTtlMs", 300_000L);
+		jwtService.init();
+	}
+
+	@Test
+	void servesEachCallerItsOwnCopyOfCachedClaims() {
+		String token = jwtService.generateToken(ALICE);
+
+		Claims first = jwtService.verifyToken(token);
+		first.setSubject("mallory");
+
+		assertThat(jwtService.verifyToken(token).getSubject()).isEqualTo("alice");
+	}
+
+	@Test
+	void doesNotServeAnExpiredTokenFromTheCache() throws InterruptedException {
+		String token = jwtService.generateToken(ALICE);
+		Claims claims = jwtService.verifyToken(token);
+		assertThat(jwtService.verifyToken(token).getSubject()).isEqualTo("alice"); // now cached
+
+		// The token's lifetime is the cache entry's lifetime, too; expiry is in whole seconds, so it is 1 to 2s
+		while (System.currentTimeMillis() <= claims.getExpiration().getTime()) {
+			Thread.sleep(50);
+		}
+
+		assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+}
@@ -0,0 +1,73 @@
+package com.hr_management.hr.support;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.boot.test.context.TestComponent;
+
+import com.hr_management.hr.entity.Employee;
+import com.hr_management.hr.entity.Leave;
+import com.hr_management.hr.entity.Role;
+import com.hr_management.hr.entity.User;
+import com.hr_management.hr.enums.Gender;
+import com.hr_management.hr.enums.LeaveDuration;
+import com.hr_management.hr.enums.LeaveStatus;
+import com.hr_management.hr.enums.LeaveType;
+import com.hr_management.hr.repository.EmployeeRepository;
+import com.hr_management.hr.repository.LeaveRepository;
+import com.hr_management.hr.repository.UserRepository;
+
+/**
+ * Seeds users, employees and leaves with unique names so tests can share one database.
+ */
+@TestComponent
+public class TestFixtures {
+
+	private final UserRepository userRepository;
+	private final EmployeeRepository employeeRepository;
+	private final LeaveRepository leaveRepository;
+
+	public TestFixtures(UserRepository userRepository, EmployeeRepository employeeRepository,
+			LeaveRepository leaveRepository) {
+		this.userRepository = userRepository;
+		this.employeeRepository = employeeRepository;
+		this.leaveRepository = leaveRepository;
+	}
+
+	public Employee employee(String department) {
+		String name = "t" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+		User user = userRepository.save(User.builder()
+				.username(name)
+				.email(name + "@example.com")
+				.password("{noop}password")
+				.role(Role.EMPLOYEE)
+				.build());
+		Employee employee = Employee.builder()
+				.email(name + "@example.com")
+				.user(user)
+				.firstName("Test")
+				.lastName(name)
+				.department(department)
+				.position("Engineer")
+				.gender(Gender.OTHER)
+				.build();
+		employee.setMicrosoftId("MS_" + name);
+		return employeeRepository.save(employee);
+	}
+
+	public Leave leave(Employee employee, LeaveType leaveType, LeaveStatus status, LocalDate startDate,
+			double days, LocalDate applicationDate) {
+		Leave leave = new Leave();
+		leave.setEmployee(employee);
+		leave.setLeaveType(leaveType);
+		leave.setStatus(status);
+		leave.setStartDate(startDate);
+		leave.setEndDate(startDate.plusDays(Math.max(0, (long) Math.ceil(days) - 1)));
+		leave.setNumberOfDays(days);
+		leave.setLeaveDuration(days == 0.5 ? LeaveDuration.HALF_DAY : LeaveDuration.FULL_DAY);
+		leave.setReason("test");
+		leave.setApplicationDate(applicationDate);
+		return leaveRepository.save(leave);
+	}
+
+}
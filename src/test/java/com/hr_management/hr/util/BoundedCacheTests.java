@@ -0,0 +1,90 @@
+package com.hr_management.hr.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTests {
+
+	private final AtomicLong now = new AtomicLong(1_000_000L);
+
+	private final long later = now.get() + 60_000L;
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryOfAFullSegment() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(32, now::get); // two entries per segment
+
+		// Small integers that differ by a multiple of 16 share a segment
+		cache.put(0, "a", later);
+		cache.put(16, "b", later);
+		cache.put(1, "c", later);
+		cache.put(17, "d", later);
+		assertThat(cache.get(0)).isEqualTo("a");
+
+		cache.put(32, "e", later);
+
+		assertThat(cache.get(16)).isNull();
+		assertThat(cache.get(0)).isEqualTo("a");
+		assertThat(cache.get(32)).isEqualTo("e");
+		// The other segment is untouched, though the cache as a whole was far from full
+		assertThat(cache.get(1)).isEqualTo("c");
+		assertThat(cache.get(17)).isEqualTo("d");
+		assertThat(cache.size()).isEqualTo(4);
+	}
+
+	@Test
+	void expiresExactlyAtTheExpiryTime() {
+		BoundedCache<String, String> cache = new BoundedCache<>(16, now::get);
+		cache.put("token", "claims", now.get() + 100);
+
+		now.addAndGet(99);
+		assertThat(cache.get("token")).isEqualTo("claims");
+
+		now.addAndGet(1);
+		assertThat(cache.get("token")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void ignoresPutsThatHaveAlreadyExpired() {
+		BoundedCache<String, String> cache = new BoundedCache<>(16, now::get);
+
+		cache.put("past", "value", now.get() - 1);
+		cache.put("now", "value", now.get());
+
+		assertThat(cache.get("past")).isNull();
+		assertThat(cache.get("now")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void invalidatesMatchingEntriesAcrossSegments() {
+		BoundedCache<Integer, String> cache = new BoundedCache<>(64, now::get);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, i % 2 == 0 ? "even" : "odd", later);
+		}
+
+		cache.invalidateIf((key, value) -> value.equals("even"));
+
+		assertThat(cache.size()).isEqualTo(5);
+		for (int i = 0; i < 10; i++) {
+			assertThat(cache.get(i)).isEqualTo(i % 2 == 0 ? null : "odd");
+		}
+	}
+
+	@Test
+	void invalidatesAndClears() {
+		BoundedCache<String, String> cache = new BoundedCache<>(16, now::get);
+		cache.put("a", "1", later);
+		cache.put("b", "2", later);
+
+		cache.invalidate("a");
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("b")).isEqualTo("2");
+
+		cache.clear();
+		assertThat(cache.size()).isZero();
+	}
+}
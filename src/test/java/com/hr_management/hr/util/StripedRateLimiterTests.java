@@ -0,0 +1,74 @@
+package com.hr_management.hr.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class StripedRateLimiterTests {
+
+	private final AtomicLong now = new AtomicLong(1_000_000L);
+
+	@Test
+	void allowsTheBurstThenAsksToWaitOneInterval() {
+		StripedRateLimiter limiter = new StripedRateLimiter(1024, 3, 6, now::get); // one token per 10s
+
+		assertThat(limiter.tryAcquire("alice")).isZero();
+		assertThat(limiter.tryAcquire("alice")).isZero();
+		assertThat(limiter.tryAcquire("alice")).isZero();
+		assertThat(limiter.tryAcquire("alice")).isEqualTo(10_000L);
+
+		now.addAndGet(4_000L);
+		assertThat(limiter.tryAcquire("alice")).isEqualTo(6_000L);
+	}
+
+	@Test
+	void refillsAtTheSustainedRate() {
+		StripedRateLimiter limiter = new StripedRateLimiter(1024, 2, 60, now::get); // one token per second
+
+		assertThat(limiter.tryAcquire("bob")).isZero();
+		assertThat(limiter.tryAcquire("bob")).isZero();
+		assertThat(limiter.tryAcquire("bob")).isPositive();
+
+		now.addAndGet(1_000L);
+		assertThat(limiter.tryAcquire("bob")).isZero();
+		assertThat(limiter.tryAcquire("bob")).isPositive();
+
+		// A long pause refills the bucket only up to the burst
+		now.addAndGet(60_000L);
+		assertThat(limiter.tryAcquire("bob")).isZero();
+		assertThat(limiter.tryAcquire("bob")).isZero();
+		assertThat(limiter.tryAcquire("bob")).isPositive();
+	}
+
+	@Test
+	void rejectedAttemptsDoNotPushTheNextTokenBack() {
+		StripedRateLimiter limiter = new StripedRateLimiter(1024, 1, 60, now::get);
+
+		assertThat(limiter.tryAcquire("carol")).isZero();
+		for (int i = 0; i < 10; i++) {
+			assertThat(limiter.tryAcquire("carol")).isEqualTo(1_000L);
+		}
+
+		now.addAndGet(1_000L);
+		assertThat(limiter.tryAcquire("carol")).isZero();
+	}
+
+	@Test
+	void keysOnDifferentStripesAreIndependent() {
+		StripedRateLimiter limiter = new StripedRateLimiter(65536, 1, 1, now::get);
+
+		assertThat(limiter.tryAcquire("dave")).isZero();
+		assertThat(limiter.tryAcquire("dave")).isPositive();
+		assertThat(limiter.tryAcquire("erin")).isZero();
+	}
+
+	@Test
+	void singleStripeSharesOneBucketBetweenKeys() {
+		StripedRateLimiter limiter = new StripedRateLimiter(1, 1, 1, now::get);
+
+		assertThat(limiter.tryAcquire("frank")).isZero();
+		assertThat(limiter.tryAcquire("grace")).isPositive();
+	}
+}